@@ -1,59 +1,176 @@
 package com.bankportal.accountservice.controller;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.bankportal.accountservice.dto.AccountCursor;
 import com.bankportal.accountservice.dto.AccountDto;
+import com.bankportal.accountservice.dto.AccountPage;
+import com.bankportal.accountservice.dto.BatchTransferRequest;
+import com.bankportal.accountservice.dto.BatchTransferResult;
+import com.bankportal.accountservice.dto.JournalEntryDto;
+import com.bankportal.accountservice.dto.JournalPage;
 import com.bankportal.accountservice.dto.TransferRequest;
+import com.bankportal.accountservice.exception.AccountNotFoundException;
+import com.bankportal.accountservice.exception.IdempotencyKeyReusedException;
+import com.bankportal.accountservice.exception.TransferConflictException;
+import com.bankportal.accountservice.exception.TransferInProgressException;
+import com.bankportal.accountservice.exception.TransferOutcomeUnknownException;
+import com.bankportal.accountservice.model.Money;
 import com.bankportal.accountservice.service.AccountService;
+import com.bankportal.accountservice.service.BatchTransferService;
+import com.bankportal.accountservice.service.JournalService;
+import com.bankportal.accountservice.service.StripedBalanceService;
+
+import static com.bankportal.accountservice.logging.SuccessLogSampler.SAMPLED;
 
 @RestController
 @RequestMapping("/api/accounts")
-@CrossOrigin(origins = "http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = { AccountController.NEXT_CURSOR_HEADER, HttpHeaders.LINK, AccountController.REPLAYED_HEADER })
 public class AccountController {
 
     private static final Logger logger = LoggerFactory.getLogger(AccountController.class);
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final AccountService accountService;
+    private final BatchTransferService batchTransferService;
+    private final JournalService journalService;
+    private final StripedBalanceService stripedBalanceService;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, BatchTransferService batchTransferService,
+            JournalService journalService, StripedBalanceService stripedBalanceService) {
         this.accountService = accountService;
+        this.batchTransferService = batchTransferService;
+        this.journalService = journalService;
+        this.stripedBalanceService = stripedBalanceService;
     }
 
+    /**
+     * Kontenliste seitenweise (Keyset über die ID). Der Body bleibt ein JSON-Array;
+     * die Fortsetzung steht in den Headern X-Next-Cursor und Link (rel="next").
+     */
     @GetMapping
-    public ResponseEntity<List<AccountDto>> getAll() {
+    public ResponseEntity<List<AccountDto>> getAll(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
             String currentUser = getCurrentUser();
-            logger.info("📋 User '{}' requesting all accounts", currentUser);
+            logger.info(SAMPLED, "📋 User '{}' requesting accounts (after={}, limit={})", currentUser, after, limit);
 
-            List<AccountDto> accounts = accountService.getAllAccounts();
-            logger.debug("✅ Retrieved {} accounts for user '{}'", accounts.size(), currentUser);
-            return ResponseEntity.ok(accounts);
+            AccountPage page = accountService.getAccounts(AccountCursor.decode(after), limit);
+            logger.debug("✅ Retrieved {} accounts for user '{}'", page.getItems().size(), currentUser);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextAfter() != null) {
+                String cursor = AccountCursor.encode(page.getNextAfter());
+                response.header(NEXT_CURSOR_HEADER, cursor);
+                response.header(HttpHeaders.LINK, "</api/accounts?after=" + cursor
+                        + (limit != null ? "&limit=" + limit : "") + ">; rel=\"next\"");
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            logger.warn("❌ Invalid paging parameters from user '{}': {}", getCurrentUser(), e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("❌ Error getting accounts for user '{}': {}", getCurrentUser(), e.getMessage(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Umsätze eines eigenen Kontos im Zeitfenster [from, to) (ISO-8601), neueste zuerst.
+     * Wie bei der Kontenliste: Body ist ein JSON-Array, die ältere Seite steht in X-Next-Cursor/Link.
+     */
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<List<JournalEntryDto>> getTransactions(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit) {
+        String currentUser = getCurrentUser();
+        try {
+            logger.info(SAMPLED, "📜 User '{}' requesting transactions of account {} (from={}, to={}, before={}, limit={})",
+                    currentUser, id, from, to, before, limit);
+
+            JournalPage page = journalService.history(id, from, to, before, limit);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                StringBuilder link = new StringBuilder("</api/accounts/").append(id)
+                        .append("/transactions?before=").append(page.getNextCursor());
+                if (from != null) {
+                    link.append("&from=").append(from);
+                }
+                if (to != null) {
+                    link.append("&to=").append(to);
+                }
+                if (limit != null) {
+                    link.append("&limit=").append(limit);
+                }
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                response.header(HttpHeaders.LINK, link.append(">; rel=\"next\"").toString());
+            }
+            return response.body(page.getItems());
+        } catch (AccountNotFoundException e) {
+            logger.warn("❌ Account {} not found for user '{}'", id, currentUser);
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("❌ Invalid transaction query from user '{}': {}", currentUser, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Teilt ein eigenes, stark bebuchtes Konto in slots Teilsalden auf (0 = aufheben).
+     * Der angezeigte Kontostand bleibt gleich.
+     */
+    @PutMapping("/{id}/balance-slots")
+    public ResponseEntity<Void> setBalanceSlots(@PathVariable Long id, @RequestParam int slots) {
+        String currentUser = getCurrentUser();
+        try {
+            logger.info(SAMPLED, "🧩 User '{}' setting {} balance slots for account {}", currentUser, slots, id);
+            stripedBalanceService.configure(id, slots);
+            return ResponseEntity.noContent().build();
+        } catch (AccountNotFoundException e) {
+            logger.warn("❌ Account {} not found for user '{}'", id, currentUser);
+            return ResponseEntity.notFound().build();
+        } catch (RuntimeException e) {
+            logger.warn("❌ Balance slots rejected for user '{}': {}", currentUser, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<AccountDto> create(@RequestBody AccountDto dto) {
         try {
             String currentUser = getCurrentUser();
-            logger.info("➕ User '{}' creating account for: {}", currentUser, dto.getOwner());
+            logger.info(SAMPLED, "➕ User '{}' creating account for: {}", currentUser, dto.getOwner());
 
             AccountDto created = accountService.createAccount(dto);
-            logger.info("✅ Account successfully created with ID {} for owner '{}' by user '{}'",
+            logger.info(SAMPLED, "✅ Account successfully created with ID {} for owner '{}' by user '{}'",
                     created.getId(), created.getOwner(), currentUser);
             return ResponseEntity.ok(created);
         } catch (RuntimeException e) {
@@ -65,20 +182,52 @@ public class AccountController {
         }
     }
 
+    /**
+     * Überweisung. Mit Header Idempotency-Key (vom Client je Überweisung erzeugt, bei Wiederholungen
+     * gleich) wird höchstens einmal gebucht; Wiederholungen erhalten dieselbe Antwort mit
+     * Idempotent-Replayed: true.
+     */
     @PostMapping("/transfer")
-    public ResponseEntity<String> transfer(@RequestBody TransferRequest request) {
+    public ResponseEntity<String> transfer(@RequestBody TransferRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         String currentUser = getCurrentUser();
 
         try {
-            logger.info("💸 User '{}' initiating transfer: {}€ from account {} to account {}",
-                    currentUser, request.getAmount(), request.getFromAccountId(), request.getToAccountId());
+            // Erfolgspfad gesampelt; die Prüfung vorab spart Varargs-Array, Boxing und Money.format
+            boolean sampled = logger.isInfoEnabled(SAMPLED);
+            if (sampled) {
+                logger.info(SAMPLED, "💸 User '{}' initiating transfer: {}€ from account {} to account {}",
+                        currentUser, Money.format(request.getAmount()), request.getFromAccountId(), request.getToAccountId());
+            }
 
-            accountService.transfer(request);
+            if (accountService.transfer(request, idempotencyKey)) {
+                logger.info(SAMPLED, "🔁 Transfer replayed for user '{}' (idempotency key already used)", currentUser);
+                return ResponseEntity.ok().header(REPLAYED_HEADER, "true").body("✅ Transfer successful");
+            }
 
-            logger.info("✅ Transfer successful: {}€ from account {} to account {} by user '{}'",
-                    request.getAmount(), request.getFromAccountId(), request.getToAccountId(), currentUser);
+            if (sampled) {
+                logger.info(SAMPLED, "✅ Transfer successful: {}€ from account {} to account {} by user '{}'",
+                        Money.format(request.getAmount()), request.getFromAccountId(), request.getToAccountId(),
+                        currentUser);
+            }
             return ResponseEntity.ok("✅ Transfer successful");
 
+        } catch (IdempotencyKeyReusedException e) {
+            logger.warn("❌ Idempotency key reused by user '{}': {}", currentUser, e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body("❌ " + e.getMessage());
+        } catch (TransferOutcomeUnknownException e) {
+            // Kein 400: der Ledger bucht ggf. noch. Nur mit demselben Idempotency-Key wiederholen
+            logger.warn("⏳ Transfer outcome unknown for user '{}': {}", currentUser, e.getMessage());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body("⏳ Überweisung angenommen, Ergebnis noch offen – Umsätze prüfen oder mit demselben Idempotency-Key wiederholen");
+        } catch (TransferInProgressException e) {
+            // Erste Anfrage zum Key bucht noch (kann auch scheitern): weder Erfolg noch Fehler melden
+            logger.info("⏳ Transfer still in progress for idempotency key of user '{}'", currentUser);
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("⏳ " + e.getMessage());
+        } catch (TransferConflictException e) {
+            logger.warn("❌ Transfer gave up after optimistic retries for user '{}': {}", currentUser, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("❌ " + e.getMessage());
         } catch (RuntimeException e) {
             logger.warn("❌ Transfer failed for user '{}': {}", currentUser, e.getMessage());
             return ResponseEntity.badRequest().body("❌ " + e.getMessage());
@@ -88,6 +237,28 @@ public class AccountController {
         }
     }
 
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<BatchTransferResult> transferBatch(@RequestBody BatchTransferRequest request) {
+        String currentUser = getCurrentUser();
+
+        try {
+            int size = request.getTransfers() != null ? request.getTransfers().size() : 0;
+            logger.info(SAMPLED, "📦 User '{}' submitting batch of {} transfers (mode {})", currentUser, size, request.getMode());
+
+            BatchTransferResult result = batchTransferService.transferBatch(request);
+
+            logger.info(SAMPLED, "✅ Batch finished for user '{}': {} booked, {} failed, committed={}",
+                    currentUser, result.getBooked(), result.getFailed(), result.isCommitted());
+            return result.isCommitted()
+                    ? ResponseEntity.ok(result)
+                    : ResponseEntity.badRequest().body(result);
+
+        } catch (RuntimeException e) {
+            logger.warn("❌ Batch transfer failed for user '{}': {}", currentUser, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     private String getCurrentUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         return auth != null ? auth.getName() : "anonymous";
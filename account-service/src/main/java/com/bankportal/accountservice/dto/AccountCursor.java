@@ -0,0 +1,43 @@
+package com.bankportal.accountservice.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaker Fortsetzungs-Cursor für GET /api/accounts (Base64url von "a:<id>").
+ * Clients sollen ihn nur zurückgeben, nicht interpretieren; eine reine Zahl wird als ID akzeptiert.
+ */
+public final class AccountCursor {
+
+    private static final String PREFIX = "a:";
+
+    private AccountCursor() {
+    }
+
+    public static String encode(long afterId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + afterId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return ID, nach der die nächste Seite beginnt; 0 für die erste Seite
+     * @throws IllegalArgumentException bei ungültigem Cursor
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            if (cursor.chars().allMatch(Character::isDigit)) {
+                return Long.parseLong(cursor);
+            }
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (decoded.startsWith(PREFIX)) {
+                return Long.parseLong(decoded.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException ist ebenfalls eine IllegalArgumentException
+        }
+        throw new IllegalArgumentException("Ungültiger Cursor");
+    }
+}
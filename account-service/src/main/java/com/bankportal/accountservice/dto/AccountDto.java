@@ -1,11 +1,17 @@
 package com.bankportal.accountservice.dto;
 
 import com.bankportal.accountservice.model.Account;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 public class AccountDto {
     private Long id;
     private String owner;
-    private double balance;
+
+    // Cent; im JSON als Dezimalzahl
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long balance;
 
     public static AccountDto fromEntity(Account account) {
         AccountDto dto = new AccountDto();
@@ -22,6 +28,6 @@ public class AccountDto {
     public String getOwner() { return owner; }
     public void setOwner(String owner) { this.owner = owner; }
 
-    public double getBalance() { return balance; }
-    public void setBalance(double balance) { this.balance = balance; }
+    public long getBalance() { return balance; }
+    public void setBalance(long balance) { this.balance = balance; }
 }
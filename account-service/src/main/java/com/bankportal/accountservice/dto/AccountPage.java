@@ -0,0 +1,24 @@
+package com.bankportal.accountservice.dto;
+
+import java.util.List;
+
+/**
+ * Eine Seite der Kontenliste (Keyset-Pagination über die ID).
+ * nextAfter = ID des letzten Eintrags, null wenn es keine weitere Seite gibt.
+ */
+public class AccountPage {
+    private List<AccountDto> items;
+    private Long nextAfter;
+
+    public AccountPage(List<AccountDto> items, Long nextAfter) {
+        this.items = items;
+        this.nextAfter = nextAfter;
+    }
+
+    // Getter und Setter
+    public List<AccountDto> getItems() { return items; }
+    public void setItems(List<AccountDto> items) { this.items = items; }
+
+    public Long getNextAfter() { return nextAfter; }
+    public void setNextAfter(Long nextAfter) { this.nextAfter = nextAfter; }
+}
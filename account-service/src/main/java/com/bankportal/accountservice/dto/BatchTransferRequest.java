@@ -0,0 +1,22 @@
+package com.bankportal.accountservice.dto;
+
+import java.util.List;
+
+public class BatchTransferRequest {
+
+    /**
+     * ALL_OR_NOTHING: ein fehlerhafter Eintrag verwirft den ganzen Batch.
+     * BEST_EFFORT: fehlerhafte Einträge werden übersprungen, der Rest wird gebucht.
+     */
+    public enum Mode { ALL_OR_NOTHING, BEST_EFFORT }
+
+    private Mode mode;
+    private List<TransferRequest> transfers;
+
+    // Getter und Setter
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+
+    public List<TransferRequest> getTransfers() { return transfers; }
+    public void setTransfers(List<TransferRequest> transfers) { this.transfers = transfers; }
+}
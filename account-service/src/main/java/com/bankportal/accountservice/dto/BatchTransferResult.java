@@ -0,0 +1,56 @@
+package com.bankportal.accountservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchTransferResult {
+
+    public enum Status { BOOKED, INVALID, NOT_FOUND, INSUFFICIENT_FUNDS, NOT_EXECUTED }
+
+    private BatchTransferRequest.Mode mode;
+    private boolean committed;
+    private int booked;
+    private int failed;
+    private List<Item> items = new ArrayList<>();
+
+    public static class Item {
+        private int index;
+        private Status status;
+        private String message;
+
+        public Item() {
+        }
+
+        public Item(int index, Status status, String message) {
+            this.index = index;
+            this.status = status;
+            this.message = message;
+        }
+
+        // Getter und Setter
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public Status getStatus() { return status; }
+        public void setStatus(Status status) { this.status = status; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+
+    // Getter und Setter
+    public BatchTransferRequest.Mode getMode() { return mode; }
+    public void setMode(BatchTransferRequest.Mode mode) { this.mode = mode; }
+
+    public boolean isCommitted() { return committed; }
+    public void setCommitted(boolean committed) { this.committed = committed; }
+
+    public int getBooked() { return booked; }
+    public void setBooked(int booked) { this.booked = booked; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+}
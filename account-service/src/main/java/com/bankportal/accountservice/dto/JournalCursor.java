@@ -0,0 +1,51 @@
+package com.bankportal.accountservice.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaker Fortsetzungs-Cursor für GET /api/accounts/{id}/transactions:
+ * Position (created_at, id) des letzten gelieferten Eintrags, Base64url von "j:<sekunden>:<nanos>:<id>".
+ */
+public final class JournalCursor {
+
+    private static final String PREFIX = "j:";
+
+    private final Instant createdAt;
+    private final long id;
+
+    public JournalCursor(Instant createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public long getId() { return id; }
+
+    public String encode() {
+        String raw = PREFIX + createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return Position oder null für die erste Seite
+     * @throws IllegalArgumentException bei ungültigem Cursor
+     */
+    public static JournalCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = decoded.split(":");
+            if (parts.length == 4 && decoded.startsWith(PREFIX)) {
+                Instant at = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                return new JournalCursor(at, Long.parseLong(parts[3]));
+            }
+        } catch (RuntimeException e) {
+            // Base64-, Zahlen- oder Zeitfehler: einheitlich als ungültiger Cursor melden
+        }
+        throw new IllegalArgumentException("Ungültiger Cursor");
+    }
+}
@@ -0,0 +1,46 @@
+package com.bankportal.accountservice.dto;
+
+import java.time.Instant;
+
+import com.bankportal.accountservice.model.JournalEntry;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+public class JournalEntryDto {
+    private Long id;
+    private Long accountId;
+    private Long counterpartyAccountId;
+
+    // Cent; im JSON als Dezimalzahl, negativ = Abbuchung
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amount;
+
+    private Instant createdAt;
+
+    public static JournalEntryDto fromEntity(JournalEntry entry) {
+        JournalEntryDto dto = new JournalEntryDto();
+        dto.setId(entry.getId());
+        dto.setAccountId(entry.getAccountId());
+        dto.setCounterpartyAccountId(entry.getCounterpartyId());
+        dto.setAmount(entry.getAmount());
+        dto.setCreatedAt(entry.getCreatedAt());
+        return dto;
+    }
+
+    // Getter und Setter
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public Long getCounterpartyAccountId() { return counterpartyAccountId; }
+    public void setCounterpartyAccountId(Long counterpartyAccountId) { this.counterpartyAccountId = counterpartyAccountId; }
+
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
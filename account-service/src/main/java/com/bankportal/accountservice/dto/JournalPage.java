@@ -0,0 +1,23 @@
+package com.bankportal.accountservice.dto;
+
+import java.util.List;
+
+/**
+ * Eine Seite Kontoumsätze, neueste zuerst. nextCursor ist null, wenn es keine ältere Seite gibt.
+ */
+public class JournalPage {
+    private List<JournalEntryDto> items;
+    private String nextCursor;
+
+    public JournalPage(List<JournalEntryDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getter und Setter
+    public List<JournalEntryDto> getItems() { return items; }
+    public void setItems(List<JournalEntryDto> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
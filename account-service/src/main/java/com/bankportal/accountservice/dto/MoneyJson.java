@@ -0,0 +1,74 @@
+package com.bankportal.accountservice.dto;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import com.bankportal.accountservice.model.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Jackson-Mapping für Cent-Beträge: im JSON bleibt das Dezimalformat (1000.50),
+ * im Code ist es ein long (100050).
+ */
+public final class MoneyJson {
+
+  private MoneyJson() {
+  }
+
+  public static class Serializer extends StdSerializer<Long> {
+
+    public Serializer() {
+      super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long cents, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeNumber(Money.toDecimal(cents));
+    }
+  }
+
+  /** Akzeptiert Zahlen und Strings ("100", "12.5"); mehr als 2 Nachkommastellen werden abgelehnt. */
+  public static class Deserializer extends StdDeserializer<Long> {
+
+    public Deserializer() {
+      super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      BigDecimal value;
+      switch (p.currentToken()) {
+        case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> value = p.getDecimalValue();
+        case VALUE_STRING -> {
+          String text = p.getText().trim();
+          try {
+            value = new BigDecimal(text);
+          } catch (NumberFormatException e) {
+            return (Long) ctxt.handleWeirdStringValue(Long.class, text, "Kein gültiger Geldbetrag");
+          }
+        }
+        default -> {
+          return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+        }
+      }
+      try {
+        return Money.fromDecimal(value);
+      } catch (ArithmeticException e) {
+        throw InvalidFormatException.from(p,
+            "Geldbetrag mit höchstens " + Money.SCALE + " Nachkommastellen erwartet", value, Long.class);
+      }
+    }
+
+    // null im JSON wie bisher bei double: 0 (wird danach als "nicht positiv" abgelehnt)
+    @Override
+    public Long getNullValue(DeserializationContext ctxt) {
+      return 0L;
+    }
+  }
+}
@@ -1,9 +1,16 @@
 package com.bankportal.accountservice.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 public class TransferRequest {
     private Long fromAccountId;
     private Long toAccountId;
-    private double amount;
+
+    // Cent; im JSON als Dezimalzahl
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long amount;
 
     // Getter und Setter
     public Long getFromAccountId() { return fromAccountId; }
@@ -12,6 +19,6 @@ public class TransferRequest {
     public Long getToAccountId() { return toAccountId; }
     public void setToAccountId(Long toAccountId) { this.toAccountId = toAccountId; }
 
-    public double getAmount() { return amount; }
-    public void setAmount(double amount) { this.amount = amount; }
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
 }
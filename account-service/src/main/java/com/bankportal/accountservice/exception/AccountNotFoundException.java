@@ -0,0 +1,8 @@
+package com.bankportal.accountservice.exception;
+
+public class AccountNotFoundException extends RuntimeException {
+
+    public AccountNotFoundException(String message) {
+        super(message);
+    }
+}
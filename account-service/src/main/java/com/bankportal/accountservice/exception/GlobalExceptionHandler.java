@@ -1,5 +1,8 @@
 package com.bankportal.accountservice.exception;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -14,6 +17,8 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntime(RuntimeException ex, WebRequest request) {
         Map<String, Object> body = new HashMap<>();
@@ -23,10 +28,36 @@ public class GlobalExceptionHandler {
         body.put("message", ex.getMessage());
         body.put("path", request.getDescription(false));
 
-        System.err.println("❌ RuntimeException: " + ex.getMessage());
+        logger.warn("❌ RuntimeException: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
+    @ExceptionHandler(TransferOutcomeUnknownException.class)
+    public ResponseEntity<Map<String, Object>> handleOutcomeUnknown(TransferOutcomeUnknownException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.ACCEPTED.value());
+        body.put("error", "Outcome Unknown");
+        body.put("message", "Überweisung angenommen, Ergebnis noch offen: " + ex.getMessage());
+        body.put("path", request.getDescription(false));
+
+        logger.warn("⏳ Transfer outcome unknown: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(body);
+    }
+
+    @ExceptionHandler(TransferInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleInProgress(TransferInProgressException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "Transfer In Progress");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false));
+
+        logger.info("⏳ Transfer in progress: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").body(body);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<Map<String, Object>> handleAccessDenied(AccessDeniedException ex, WebRequest request) {
         Map<String, Object> body = new HashMap<>();
@@ -36,7 +67,7 @@ public class GlobalExceptionHandler {
         body.put("message", "Zugriff verweigert: " + ex.getMessage());
         body.put("path", request.getDescription(false));
 
-        System.err.println("❌ Access denied: " + ex.getMessage());
+        logger.warn("❌ Access denied: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(body);
     }
 
@@ -49,8 +80,8 @@ public class GlobalExceptionHandler {
         body.put("message", "Ein unerwarteter Fehler ist aufgetreten");
         body.put("path", request.getDescription(false));
 
-        System.err.println("❌ Unexpected error: " + ex.getMessage());
-        ex.printStackTrace();
+        // Stacktrace als Teil des JSON-Events statt printStackTrace() auf System.err
+        logger.error("❌ Unexpected error: {}", ex.getMessage(), ex);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
     }
 }
@@ -0,0 +1,11 @@
+package com.bankportal.accountservice.exception;
+
+/**
+ * Der Idempotency-Key wurde bereits für eine andere Überweisung (andere Konten oder Betrag) verwendet.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
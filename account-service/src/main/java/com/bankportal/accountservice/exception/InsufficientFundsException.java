@@ -0,0 +1,8 @@
+package com.bankportal.accountservice.exception;
+
+public class InsufficientFundsException extends RuntimeException {
+
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
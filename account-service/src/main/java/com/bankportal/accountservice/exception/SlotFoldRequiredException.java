@@ -0,0 +1,20 @@
+package com.bankportal.accountservice.exception;
+
+/**
+ * Der Hauptsaldo eines gestreiften Kontos reicht nicht, zusammen mit den Teilsalden aber schon.
+ * AccountService faltet dann die Slots in einer eigenen Transaktion und wiederholt die Buchung einmal.
+ * Kommt sie trotzdem beim Aufrufer an, gilt sie als zu wenig Guthaben.
+ */
+public class SlotFoldRequiredException extends InsufficientFundsException {
+
+    private final Long accountId;
+
+    public SlotFoldRequiredException(Long accountId, String message) {
+        super(message);
+        this.accountId = accountId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bankportal.accountservice.exception;
+
+/**
+ * Optimistischer Transfer auch nach allen Wiederholungen an gleichzeitigen Änderungen gescheitert.
+ */
+public class TransferConflictException extends RuntimeException {
+
+    public TransferConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankportal.accountservice.exception;
+
+/**
+ * Zum Idempotency-Key läuft die Buchung noch (Ledger-Modus, Ergebnis offen). Der Client soll später
+ * mit demselben Schlüssel wiederholen; als erledigt melden darf man sie noch nicht.
+ */
+public class TransferInProgressException extends RuntimeException {
+
+    public TransferInProgressException(String message) {
+        super(message);
+    }
+}
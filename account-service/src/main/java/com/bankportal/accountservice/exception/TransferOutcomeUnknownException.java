@@ -0,0 +1,23 @@
+package com.bankportal.accountservice.exception;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Der Ledger hat nicht rechtzeitig geantwortet (Timeout, Unterbrechung). Der Transfer kann im Shard
+ * noch gebucht werden; ob er das tut, zeigt {@link #outcome()}. Der Client darf nur mit demselben
+ * Idempotency-Key wiederholen.
+ */
+public class TransferOutcomeUnknownException extends RuntimeException {
+
+    private final transient CompletableFuture<Void> outcome;
+
+    public TransferOutcomeUnknownException(String message, CompletableFuture<Void> outcome) {
+        super(message);
+        this.outcome = outcome;
+    }
+
+    /** Wird fertig, sobald der Shard gebucht (normal) oder abgelehnt (exceptionally) hat. */
+    public CompletableFuture<Void> outcome() {
+        return outcome;
+    }
+}
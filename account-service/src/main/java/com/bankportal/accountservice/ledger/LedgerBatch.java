@@ -0,0 +1,21 @@
+package com.bankportal.accountservice.ledger;
+
+import java.util.List;
+import java.util.TreeMap;
+
+import com.bankportal.accountservice.model.JournalEntry;
+
+/**
+ * Was ein Shard beim Flush übergibt: Netto-Deltas je Konto (Cent, aufsteigend nach ID)
+ * und die Journal-Einträge derselben Buchungen. Beides wird in einer Transaktion geschrieben.
+ */
+final class LedgerBatch {
+
+  final TreeMap<Long, Long> deltas;
+  final List<JournalEntry> journal;
+
+  LedgerBatch(TreeMap<Long, Long> deltas, List<JournalEntry> journal) {
+    this.deltas = deltas;
+    this.journal = journal;
+  }
+}
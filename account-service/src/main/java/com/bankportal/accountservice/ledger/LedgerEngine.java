@@ -0,0 +1,299 @@
+package com.bankportal.accountservice.ledger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bankportal.accountservice.exception.AccountNotFoundException;
+import com.bankportal.accountservice.exception.TransferOutcomeUnknownException;
+import com.bankportal.accountservice.model.Account;
+import com.bankportal.accountservice.model.JournalEntry;
+import com.bankportal.accountservice.repository.AccountRepository;
+import com.bankportal.accountservice.repository.JournalEntryRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-Memory-Ledger für Lastspitzen (account.transfer.mode=ledger).
+ *
+ * Salden liegen im Speicher, aufgeteilt nach Konto-ID auf N Shards mit je einem Schreib-Thread.
+ * Transfers innerhalb eines Shards werden direkt gebucht; über Shard-Grenzen hinweg gilt
+ * Reserve (Sender) -> Gutschrift (Empfänger) -> Commit/Abort (Sender).
+ *
+ * Persistenz per Write-Behind: Shards sammeln Netto-Deltas je Konto und Journal-Einträge und
+ * übergeben sie alle account.ledger.flush-interval-ms an einen Flush-Thread, der beides in einer
+ * Transaktion schreibt (balance = balance + delta, Journal als Batch-Insert). Bestätigte Transfers
+ * können bei einem Absturz bis zu einem Flush-Intervall verloren gehen; Leser der DB sehen Salden
+ * und Umsätze entsprechend verzögert.
+ *
+ * Im Ledger-Modus ist die Engine alleiniger Schreiber der Salden bereits geladener Konten.
+ */
+@Component
+@ConditionalOnProperty(name = "account.transfer.mode", havingValue = "ledger")
+public class LedgerEngine {
+
+  private static final Logger log = LoggerFactory.getLogger(LedgerEngine.class);
+  private static final long RETRY_DELAY_MS = 1000;
+
+  private final AccountRepository accountRepository;
+  private final JournalEntryRepository journalRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final long timeoutMs;
+  private final Semaphore inFlight;
+
+  private final LedgerShard[] shards;
+  private final List<Thread> threads = new ArrayList<>();
+  private final ScheduledExecutorService flushExecutor;
+
+  // Nur vom Flush-Thread benutzt: Deltas und Journal-Einträge, deren Schreiben fehlgeschlagen ist
+  private final TreeMap<Long, Long> failedDeltas = new TreeMap<>();
+  private final List<JournalEntry> failedJournal = new ArrayList<>();
+
+  public LedgerEngine(AccountRepository accountRepository,
+      JournalEntryRepository journalRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${account.ledger.shards:4}") int shardCount,
+      @Value("${account.ledger.flush-interval-ms:50}") long flushIntervalMs,
+      @Value("${account.ledger.max-in-flight:10000}") int maxInFlight,
+      @Value("${account.ledger.timeout-ms:5000}") long timeoutMs) {
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("account.ledger.shards muss mindestens 1 sein");
+    }
+    this.accountRepository = accountRepository;
+    this.journalRepository = journalRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.timeoutMs = timeoutMs;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "ledger-flush");
+      t.setDaemon(true);
+      return t;
+    });
+    this.shards = new LedgerShard[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      shards[i] = new LedgerShard(i, this::load, this::scheduleFlush, flushIntervalMs);
+    }
+  }
+
+  @PostConstruct
+  public void start() {
+    for (LedgerShard shard : shards) {
+      Thread t = new Thread(shard, "ledger-shard-" + threads.size());
+      t.setDaemon(true);
+      t.start();
+      threads.add(t);
+    }
+    log.info("📒 Ledger gestartet mit {} Shards", shards.length);
+  }
+
+  /** Beendet die Shards, schreibt alle offenen Deltas und stoppt den Flush-Thread. */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    for (LedgerShard shard : shards) {
+      shard.stop();
+    }
+    for (Thread t : threads) {
+      t.join(timeoutMs);
+    }
+    flushExecutor.shutdown();
+    flushExecutor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    if (!failedDeltas.isEmpty() || !failedJournal.isEmpty()) {
+      persist(new LedgerBatch(new TreeMap<>(), new ArrayList<>()));
+    }
+  }
+
+  /**
+   * Bucht einen Transfer über die Shards und wartet auf das Ergebnis.
+   * Fehler (AccountNotFoundException, InsufficientFundsException) werden unverändert geworfen;
+   * dann ist nichts gebucht. Bei Zeitüberschreitung: TransferOutcomeUnknownException.
+   */
+  public void transfer(Long fromId, Long toId, long amount) {
+    acquire();
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    done.whenComplete((ignored, error) -> inFlight.release());
+
+    LedgerShard source = shardFor(fromId);
+    LedgerShard target = shardFor(toId);
+    if (source == target) {
+      source.submit(() -> {
+        try {
+          source.transferLocal(fromId, toId, amount);
+          done.complete(null);
+        } catch (RuntimeException e) {
+          done.completeExceptionally(e);
+        }
+      });
+    } else {
+      source.submit(() -> reserve(source, target, fromId, toId, amount, done));
+    }
+    try {
+      done.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw unwrap(e);
+    } catch (TimeoutException e) {
+      // Der Transfer läuft im Shard ggf. noch zu Ende; Ergebnis ist für den Aufrufer unbekannt
+      throw new TransferOutcomeUnknownException("Zeitüberschreitung im Ledger nach " + timeoutMs + " ms", done);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TransferOutcomeUnknownException("Transfer unterbrochen", done);
+    }
+  }
+
+  /** Aktueller Saldo in Cent laut Ledger (inkl. noch nicht geschriebener Buchungen). */
+  public Optional<Long> balance(Long accountId) {
+    LedgerShard shard = shardFor(accountId);
+    CompletableFuture<Optional<Long>> result = new CompletableFuture<>();
+    shard.submit(() -> {
+      try {
+        result.complete(shard.balance(accountId));
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    });
+    return await(result);
+  }
+
+  /** Schreibt alle bis jetzt gebuchten Deltas sofort und wartet darauf. */
+  public void flush() {
+    List<CompletableFuture<Void>> flushed = new ArrayList<>(shards.length);
+    for (LedgerShard shard : shards) {
+      CompletableFuture<Void> f = new CompletableFuture<>();
+      shard.submit(() -> {
+        shard.flushPending();
+        // Flush-Thread arbeitet der Reihe nach: läuft erst, nachdem die Deltas dieses Shards geschrieben sind
+        flushExecutor.execute(() -> f.complete(null));
+      });
+      flushed.add(f);
+    }
+    await(CompletableFuture.allOf(flushed.toArray(new CompletableFuture[0])));
+  }
+
+  // Phase 1 auf dem Sender-Shard
+  private void reserve(LedgerShard source, LedgerShard target, Long fromId, Long toId, long amount,
+      CompletableFuture<Void> done) {
+    try {
+      source.reserve(fromId, amount);
+    } catch (RuntimeException e) {
+      done.completeExceptionally(e);
+      return;
+    }
+    target.submit(() -> {
+      RuntimeException failure = null;
+      try {
+        if (!target.credit(toId, fromId, amount)) {
+          failure = new AccountNotFoundException("Empfängerkonto nicht gefunden");
+        }
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+      RuntimeException creditFailure = failure;
+      // Phase 2 zurück auf dem Sender-Shard
+      source.submit(() -> {
+        if (creditFailure == null) {
+          source.commitReservation(fromId, toId, amount);
+          done.complete(null);
+        } else {
+          source.abortReservation(fromId, amount);
+          done.completeExceptionally(creditFailure);
+        }
+      });
+    });
+  }
+
+  private LedgerShard shardFor(Long accountId) {
+    return shards[Math.floorMod(Long.hashCode(accountId), shards.length)];
+  }
+
+  private Optional<Long> load(Long accountId) {
+    Optional<Account> account = accountRepository.findById(accountId);
+    if (account.isPresent() && account.get().getBalanceSlots() > 0) {
+      // Der Ledger bucht nur auf den Hauptsaldo: vorhandene Teilsalden einmalig hineinfalten
+      transactionTemplate.executeWithoutResult(status -> accountRepository.foldSlots(accountId));
+      account = accountRepository.findById(accountId);
+    }
+    return account.map(Account::getBalance);
+  }
+
+  // Aufruf vom Shard-Thread: Übergabe an den Flush-Thread, der Shard arbeitet sofort weiter
+  private void scheduleFlush(LedgerBatch batch) {
+    flushExecutor.execute(() -> persist(batch));
+  }
+
+  // Nur auf dem Flush-Thread (bzw. nach dessen Ende in stop())
+  private void persist(LedgerBatch batch) {
+    TreeMap<Long, Long> deltas = batch.deltas;
+    List<JournalEntry> journal = batch.journal;
+    if (!failedDeltas.isEmpty() || !failedJournal.isEmpty()) {
+      failedDeltas.forEach((id, delta) -> deltas.merge(id, delta, Math::addExact));
+      failedDeltas.clear();
+      journal.addAll(failedJournal);
+      failedJournal.clear();
+    }
+    deltas.values().removeIf(delta -> delta == 0L);
+    if (deltas.isEmpty() && journal.isEmpty()) {
+      return;
+    }
+    try {
+      // TreeMap: Zeilen werden aufsteigend nach ID gesperrt, wie bei Einzel- und Sammel-Transfers
+      transactionTemplate.executeWithoutResult(status -> {
+        accountRepository.applyBalanceDeltas(deltas);
+        journalRepository.appendAll(journal);
+      });
+    } catch (RuntimeException e) {
+      log.error("❌ Ledger-Flush fehlgeschlagen ({} Konten, {} Journal-Einträge), neuer Versuch folgt: {}",
+          deltas.size(), journal.size(), e.getMessage());
+      failedDeltas.putAll(deltas);
+      failedJournal.addAll(journal);
+      if (!flushExecutor.isShutdown()) {
+        flushExecutor.schedule(() -> persist(new LedgerBatch(new TreeMap<>(), new ArrayList<>())),
+            RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+
+  private void acquire() {
+    try {
+      if (!inFlight.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+        throw new RuntimeException("Ledger überlastet, bitte später erneut versuchen");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Transfer unterbrochen");
+    }
+  }
+
+  private <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw unwrap(e);
+    } catch (TimeoutException e) {
+      throw new RuntimeException("Zeitüberschreitung im Ledger nach " + timeoutMs + " ms");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Ledger-Abfrage unterbrochen");
+    }
+  }
+
+  private static RuntimeException unwrap(ExecutionException e) {
+    return e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+  }
+}
@@ -0,0 +1,222 @@
+package com.bankportal.accountservice.ledger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bankportal.accountservice.exception.AccountNotFoundException;
+import com.bankportal.accountservice.exception.InsufficientFundsException;
+import com.bankportal.accountservice.model.JournalEntry;
+import com.bankportal.accountservice.model.Money;
+
+/**
+ * Ein Shard des Ledgers: genau ein Thread besitzt die Salden seiner Konten.
+ * Alle Methoden außer {@link #submit} laufen ausschließlich auf diesem Thread,
+ * deshalb braucht der Shard keine Locks.
+ *
+ * Reservierte Beträge sind bereits vom verfügbaren Saldo abgezogen, werden aber erst
+ * beim Commit als Delta für die Persistenz vorgemerkt. Alle Beträge in Cent; jede Buchung
+ * merkt zusätzlich ihren Journal-Eintrag vor (Zeitstempel = Buchung im jeweiligen Shard).
+ */
+class LedgerShard implements Runnable {
+
+  private static final Logger log = LoggerFactory.getLogger(LedgerShard.class);
+
+  private final int index;
+  private final Function<Long, Optional<Long>> loader;
+  private final Consumer<LedgerBatch> flusher;
+  private final long flushIntervalNanos;
+
+  // Unbegrenzt: Shards schicken sich gegenseitig Nachrichten und dürfen dabei nie blockieren.
+  // Die Last von außen wird im LedgerEngine über die Anzahl offener Transfers begrenzt.
+  private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+
+  private final Map<Long, LedgerAccount> accounts = new HashMap<>();
+  // Konten mit ungeschriebenem Delta seit dem letzten Flush
+  private final List<LedgerAccount> dirty = new ArrayList<>();
+  // Journal-Einträge seit dem letzten Flush (Beine, deren Saldo-Änderung dieser Shard gebucht hat)
+  private List<JournalEntry> journal = new ArrayList<>();
+  private long nextFlush;
+  private volatile boolean running = true;
+
+  LedgerShard(int index, Function<Long, Optional<Long>> loader,
+      Consumer<LedgerBatch> flusher, long flushIntervalMillis) {
+    this.index = index;
+    this.loader = loader;
+    this.flusher = flusher;
+    this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+  }
+
+  void submit(Runnable command) {
+    queue.add(command);
+  }
+
+  void stop() {
+    running = false;
+  }
+
+  @Override
+  public void run() {
+    nextFlush = System.nanoTime() + flushIntervalNanos;
+    while (running || !queue.isEmpty()) {
+      try {
+        Runnable command = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (command != null) {
+          command.run();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (RuntimeException e) {
+        // Ein fehlerhaftes Kommando darf den Shard nicht beenden
+        log.error("❌ Ledger-Shard {}: {}", index, e.getMessage());
+      }
+      if (System.nanoTime() - nextFlush >= 0) {
+        flushPending();
+      }
+    }
+    flushPending();
+  }
+
+  /** Übergibt die seit dem letzten Flush gesammelten Deltas und Journal-Einträge an den Write-Behind. */
+  void flushPending() {
+    nextFlush = System.nanoTime() + flushIntervalNanos;
+    if (dirty.isEmpty() && journal.isEmpty()) {
+      return;
+    }
+    TreeMap<Long, Long> deltas = new TreeMap<>();
+    for (LedgerAccount account : dirty) {
+      if (account.pendingDelta != 0) {
+        deltas.put(account.id, account.pendingDelta);
+      }
+      account.pendingDelta = 0;
+      account.dirty = false;
+    }
+    dirty.clear();
+    List<JournalEntry> entries = journal;
+    journal = new ArrayList<>();
+    flusher.accept(new LedgerBatch(deltas, entries));
+  }
+
+  /** Transfer innerhalb des Shards: prüfen und buchen in einem Schritt. */
+  void transferLocal(Long fromId, Long toId, long amount) {
+    LedgerAccount from = account(fromId);
+    if (from == null) {
+      throw new AccountNotFoundException("Senderkonto nicht gefunden");
+    }
+    LedgerAccount to = account(toId);
+    if (to == null) {
+      throw new AccountNotFoundException("Empfängerkonto nicht gefunden");
+    }
+    checkFunds(from, amount);
+    // Erst rechnen (kann überlaufen), dann zuweisen: bei ArithmeticException bleibt alles unverändert
+    long fromAvailable = Money.subtract(from.available, amount);
+    long toAvailable = Money.add(to.available, amount);
+    long fromDelta = Money.subtract(from.pendingDelta, amount);
+    long toDelta = Money.add(to.pendingDelta, amount);
+    from.available = fromAvailable;
+    to.available = toAvailable;
+    recordDelta(from, fromDelta);
+    recordDelta(to, toDelta);
+    journal.addAll(JournalEntry.transferLegs(fromId, toId, amount, JournalEntry.now()));
+  }
+
+  /** Phase 1 (Sender-Shard): Betrag reservieren. */
+  void reserve(Long fromId, long amount) {
+    LedgerAccount from = account(fromId);
+    if (from == null) {
+      throw new AccountNotFoundException("Senderkonto nicht gefunden");
+    }
+    checkFunds(from, amount);
+    from.available -= amount;   // amount <= available: kein Überlauf möglich
+    from.reserved += amount;
+  }
+
+  /** Empfänger-Shard: Gutschrift; false, wenn das Konto nicht existiert. */
+  boolean credit(Long toId, Long fromId, long amount) {
+    LedgerAccount to = account(toId);
+    if (to == null) {
+      return false;
+    }
+    long toAvailable = Money.add(to.available, amount);
+    long toDelta = Money.add(to.pendingDelta, amount);
+    to.available = toAvailable;
+    recordDelta(to, toDelta);
+    journal.add(new JournalEntry(toId, fromId, amount, JournalEntry.now()));
+    return true;
+  }
+
+  /** Phase 2 (Sender-Shard): Reservierung verbuchen. */
+  void commitReservation(Long fromId, Long toId, long amount) {
+    LedgerAccount from = accounts.get(fromId);
+    from.reserved -= amount;
+    recordDelta(from, Money.subtract(from.pendingDelta, amount));
+    journal.add(new JournalEntry(fromId, toId, Money.negate(amount), JournalEntry.now()));
+  }
+
+  /** Phase 2 (Sender-Shard): Reservierung freigeben. */
+  void abortReservation(Long fromId, long amount) {
+    LedgerAccount from = accounts.get(fromId);
+    from.reserved -= amount;
+    from.available += amount;
+  }
+
+  /** Verfügbarer Saldo; leer, wenn das Konto nicht existiert. */
+  Optional<Long> balance(Long accountId) {
+    LedgerAccount account = account(accountId);
+    return account != null ? Optional.of(account.available) : Optional.empty();
+  }
+
+  private LedgerAccount account(Long accountId) {
+    LedgerAccount account = accounts.get(accountId);
+    if (account == null) {
+      // Erster Zugriff: Saldo aus der DB laden; fehlende Konten nicht merken (können später angelegt werden)
+      Optional<Long> loaded = loader.apply(accountId);
+      if (loaded.isEmpty()) {
+        return null;
+      }
+      account = new LedgerAccount(accountId, loaded.get());
+      accounts.put(accountId, account);
+    }
+    return account;
+  }
+
+  private static void checkFunds(LedgerAccount from, long amount) {
+    if (from.available < amount) {
+      throw new InsufficientFundsException("Nicht genügend Guthaben. Verfügbar: " +
+          Money.format(from.available) + "€, Benötigt: " + Money.format(amount) + "€");
+    }
+  }
+
+  private void recordDelta(LedgerAccount account, long pendingDelta) {
+    account.pendingDelta = pendingDelta;
+    if (!account.dirty) {
+      account.dirty = true;
+      dirty.add(account);
+    }
+  }
+
+  private static final class LedgerAccount {
+    final Long id;
+    long available;
+    long reserved;
+    long pendingDelta;
+    boolean dirty;
+
+    LedgerAccount(Long id, long available) {
+      this.id = id;
+      this.available = available;
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.bankportal.accountservice.logging;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Setzt pro Request die Korrelations-ID ins MDC (requestId, übernommen aus X-Request-Id von nginx
+ * oder neu erzeugt) und gibt sie im Response-Header zurück. Läuft vor Spring Security, damit auch
+ * abgewiesene Tokens die ID tragen.
+ *
+ * Außerdem fällt hier die Sampling-Entscheidung für {@link SuccessLogSampler}: mit
+ * logging.sampling.rate wird ein Request gezogen, dann steht sampled=true im MDC.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestCorrelationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String REQUEST_ID = "requestId";
+    public static final String SAMPLED = "sampled";
+
+    private static final int MAX_ID_LENGTH = 64;
+
+    private final double sampleRate;
+
+    public RequestCorrelationFilter(@Value("${logging.sampling.rate:0.01}") double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = requestId(request.getHeader(HEADER));
+        MDC.put(REQUEST_ID, requestId);
+        if (sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            MDC.put(SAMPLED, "true");
+        }
+        response.setHeader(HEADER, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID);
+            MDC.remove(SAMPLED);
+        }
+    }
+
+    /** Fremde IDs nur, wenn sie kurz und harmlos sind (keine Log-Injection über den Header). */
+    static String requestId(String header) {
+        if (header != null && !header.isEmpty() && header.length() <= MAX_ID_LENGTH) {
+            boolean safe = true;
+            for (int i = 0; i < header.length() && safe; i++) {
+                char c = header.charAt(i);
+                safe = Character.isLetterOrDigit(c) && c < 128 || c == '-' || c == '_' || c == '.';
+            }
+            if (safe) {
+                return header;
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(random.nextLong() | Long.MIN_VALUE) + Long.toHexString(random.nextLong() | Long.MIN_VALUE);
+    }
+}
@@ -0,0 +1,34 @@
+package com.bankportal.accountservice.logging;
+
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Logback-TurboFilter für Erfolgsmeldungen: Events mit dem Marker {@link #SAMPLED} werden nur
+ * geschrieben, wenn der laufende Request von {@link RequestCorrelationFilter} gezogen wurde.
+ *
+ * Läuft vor Level-Prüfung und Formatierung, ein verworfenes Event kostet also weder Message noch
+ * Argumente. Außerhalb von Requests (Scheduler, Start) greift das Sampling nicht.
+ */
+public class SuccessLogSampler extends TurboFilter {
+
+    /** Marker für Log-Zeilen des Erfolgspfads (pro Request gesampelt). */
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || !(marker == SAMPLED || marker.contains(SAMPLED))) {
+            return FilterReply.NEUTRAL;
+        }
+        if (MDC.get(RequestCorrelationFilter.REQUEST_ID) != null && MDC.get(RequestCorrelationFilter.SAMPLED) == null) {
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
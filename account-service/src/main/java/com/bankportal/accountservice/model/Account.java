@@ -3,6 +3,8 @@ package com.bankportal.accountservice.model;
 import jakarta.persistence.*;
 
 @Entity
+// Kontenliste je Benutzer: (username, id) deckt Filter und Keyset-Sortierung ab
+@Table(indexes = @Index(name = "idx_account_username_id", columnList = "username, id"))
 public class Account {
 
     @Id
@@ -10,7 +12,25 @@ public class Account {
     private Long id;
 
     private String owner;
-    private double balance;
+
+    // Benutzer aus dem JWT (Subject), dem das Konto gehört
+    @Column(length = 50)
+    private String username;
+
+    // Betrag in Cent, siehe Money
+    @Column(name = "balance_cents", nullable = false)
+    private long balance;
+
+    // Optimistisches Locking (account.transfer.mode=optimistic); auch die nativen
+    // Saldo-Updates erhöhen die Version, damit jede Änderung einen Konflikt auslöst
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Anzahl Teilsalden (AccountBalanceSlot) für stark bebuchte Konten, 0 = nicht gestreift.
+    // Bei gestreiften Konten ist balance nur der Hauptsaldo; Kontostand = balance + Summe der Slots
+    @Column(name = "balance_slots", nullable = false)
+    private int balanceSlots;
 
     // Getter und Setter
     public Long getId() { return id; }
@@ -19,6 +39,15 @@ public class Account {
     public String getOwner() { return owner; }
     public void setOwner(String owner) { this.owner = owner; }
 
-    public double getBalance() { return balance; }
-    public void setBalance(double balance) { this.balance = balance; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public long getBalance() { return balance; }
+    public void setBalance(long balance) { this.balance = balance; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public int getBalanceSlots() { return balanceSlots; }
+    public void setBalanceSlots(int balanceSlots) { this.balanceSlots = balanceSlots; }
 }
@@ -0,0 +1,63 @@
+package com.bankportal.accountservice.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+/**
+ * Teilsaldo (Slot) eines gestreiften Kontos, siehe Account.balanceSlots.
+ * Gutschriften verteilen sich reihum auf die Slots und sperren damit nicht die Kontozeile;
+ * der Kontostand ist balance_cents + Summe der Slots.
+ *
+ * Gelesen und geschrieben wird per JDBC (AccountRepositoryCustom); die Entity beschreibt das Schema.
+ */
+@Entity
+@Table(name = "account_balance_slot")
+@IdClass(AccountBalanceSlot.Key.class)
+public class AccountBalanceSlot {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    private int slot;
+
+    // Betrag in Cent, nie negativ (nur Gutschriften; Abbuchungen laufen über den Hauptsaldo)
+    @Column(name = "balance_cents", nullable = false)
+    private long balance;
+
+    // Getter und Setter
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public int getSlot() { return slot; }
+    public void setSlot(int slot) { this.slot = slot; }
+
+    public long getBalance() { return balance; }
+    public void setBalance(long balance) { this.balance = balance; }
+
+    public static class Key implements Serializable {
+        private Long accountId;
+        private int slot;
+
+        public Key() {
+        }
+
+        public Key(Long accountId, int slot) {
+            this.accountId = accountId;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && slot == other.slot && Objects.equals(accountId, other.accountId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, slot);
+        }
+    }
+}
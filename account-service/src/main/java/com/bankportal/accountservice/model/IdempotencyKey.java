@@ -0,0 +1,106 @@
+package com.bankportal.accountservice.model;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+
+/**
+ * Ein verbrauchter Idempotency-Key einer Überweisung.
+ * Die Zeile wird in derselben Transaktion wie die Buchung angelegt; der Primärschlüssel
+ * verhindert, dass eine Wiederholung ein zweites Mal bucht. Im Ledger-Modus wird der Schlüssel vor
+ * der Buchung belegt (PENDING) und erst nach dem Commit im Shard auf COMPLETED gesetzt.
+ */
+@Entity
+@Table(name = "idempotency_key",
+       indexes = @Index(name = "idx_idempotency_key_created", columnList = "created_at"))
+public class IdempotencyKey implements Persistable<String> {
+
+    public enum Status {
+        // Belegt, Buchung läuft noch (Ledger-Modus): Wiederholungen dürfen nicht als erledigt gelten
+        PENDING,
+        COMPLETED
+    }
+
+    // Benutzer + Schlüssel des Clients ("<username>:<key>"), damit Benutzer sich nicht gegenseitig stören
+    @Id
+    @Column(name = "scoped_key", length = 160)
+    private String scopedKey;
+
+    // Fingerabdruck der Anfrage: gleicher Schlüssel mit anderem Inhalt wird abgelehnt
+    @Column(name = "from_account_id", nullable = false, updatable = false)
+    private Long fromAccountId;
+
+    @Column(name = "to_account_id", nullable = false, updatable = false)
+    private Long toAccountId;
+
+    @Column(name = "amount_cents", nullable = false, updatable = false)
+    private long amount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status = Status.COMPLETED;
+
+    // Zugewiesene ID: neue Objekte immer per INSERT (persist), nie vorher ein SELECT wie bei merge
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyKey() {
+    }
+
+    public IdempotencyKey(String scopedKey, Long fromAccountId, Long toAccountId, long amount, Instant createdAt) {
+        this.scopedKey = scopedKey;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    public IdempotencyKey(String scopedKey, Long fromAccountId, Long toAccountId, long amount, Instant createdAt,
+            Status status) {
+        this(scopedKey, fromAccountId, toAccountId, amount, createdAt);
+        this.status = status;
+    }
+
+    /** Gleiche Überweisung wie beim ersten Aufruf? */
+    public boolean matches(Long fromId, Long toId, long amount) {
+        return fromAccountId.equals(fromId) && toAccountId.equals(toId) && this.amount == amount;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() { return scopedKey; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    // Getter und Setter
+    public String getScopedKey() { return scopedKey; }
+    public void setScopedKey(String scopedKey) { this.scopedKey = scopedKey; }
+
+    public Long getFromAccountId() { return fromAccountId; }
+    public void setFromAccountId(Long fromAccountId) { this.fromAccountId = fromAccountId; }
+
+    public Long getToAccountId() { return toAccountId; }
+    public void setToAccountId(Long toAccountId) { this.toAccountId = toAccountId; }
+
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public boolean isCompleted() { return status == Status.COMPLETED; }
+}
@@ -0,0 +1,73 @@
+package com.bankportal.accountservice.model;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import jakarta.persistence.*;
+
+/**
+ * Eine Buchungszeile (ein Bein eines Transfers) im Journal – wird nur angehängt, nie geändert.
+ * In PostgreSQL ist account_journal nach created_at partitioniert (siehe init.sql).
+ */
+@Entity
+@Table(name = "account_journal",
+       indexes = @Index(name = "idx_journal_account_created", columnList = "account_id, created_at"))
+public class JournalEntry {
+
+    // Vergibt die Datenbank (Identity bzw. DEFAULT nextval in init.sql); geschrieben wird per
+    // JDBC-Batch (JournalEntryRepository.appendAll), nicht über den Persistence-Context
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Column(name = "counterparty_id", nullable = false, updatable = false)
+    private Long counterpartyId;
+
+    // Cent; negativ = Abbuchung, positiv = Gutschrift
+    @Column(name = "amount_cents", nullable = false, updatable = false)
+    private long amount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public JournalEntry() {
+    }
+
+    public JournalEntry(Long accountId, Long counterpartyId, long amount, Instant createdAt) {
+        this.accountId = accountId;
+        this.counterpartyId = counterpartyId;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    /** Beide Beine eines Transfers mit gemeinsamem Zeitstempel. */
+    public static List<JournalEntry> transferLegs(Long fromId, Long toId, long amount, Instant at) {
+        return List.of(new JournalEntry(fromId, toId, Money.negate(amount), at),
+                new JournalEntry(toId, fromId, amount, at));
+    }
+
+    /** Zeitstempel in der Auflösung der Datenbank (Mikrosekunden), damit Cursor exakt passen. */
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Getter und Setter
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public Long getCounterpartyId() { return counterpartyId; }
+    public void setCounterpartyId(Long counterpartyId) { this.counterpartyId = counterpartyId; }
+
+    public long getAmount() { return amount; }
+    public void setAmount(long amount) { this.amount = amount; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
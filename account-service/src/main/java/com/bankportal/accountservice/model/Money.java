@@ -0,0 +1,45 @@
+package com.bankportal.accountservice.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Geldbeträge als long in Cent (2 Nachkommastellen) statt double.
+ * Rechnen ohne Rundungsfehler und ohne Objekt-Allokation; Überläufe werfen ArithmeticException.
+ * BigDecimal nur an den Rändern (JSON, Fehlermeldungen).
+ */
+public final class Money {
+
+  public static final int SCALE = 2;
+
+  private Money() {
+  }
+
+  public static long add(long a, long b) {
+    return Math.addExact(a, b);
+  }
+
+  public static long subtract(long a, long b) {
+    return Math.subtractExact(a, b);
+  }
+
+  public static long negate(long amount) {
+    return Math.negateExact(amount);
+  }
+
+  /**
+   * Dezimalbetrag (z. B. 12.34) in Cent.
+   * @throws ArithmeticException bei mehr als 2 Nachkommastellen oder außerhalb des long-Bereichs
+   */
+  public static long fromDecimal(BigDecimal value) {
+    return value.movePointRight(SCALE).longValueExact();
+  }
+
+  public static BigDecimal toDecimal(long cents) {
+    return BigDecimal.valueOf(cents, SCALE);
+  }
+
+  /** Für Meldungen: 123456 -> "1234.56" */
+  public static String format(long cents) {
+    return toDecimal(cents).toPlainString();
+  }
+}
@@ -0,0 +1,10 @@
+package com.bankportal.accountservice.repository;
+
+/**
+ * Schlanke Projektion (ID, Hauptsaldo, Anzahl Slots) für gesperrte Zeilen, ohne Entity im Persistence Context.
+ */
+public interface AccountBalanceView {
+    Long getId();
+    long getBalance();
+    int getBalanceSlots();
+}
@@ -1,6 +1,52 @@
 package com.bankportal.accountservice.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.bankportal.accountservice.model.Account;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
+
+    /**
+     * Keyset-Pagination über die Konten eines Benutzers: Range-Scan auf dem Index
+     * (username, id) INCLUDE (owner, balance_cents, version, balance_slots), ohne Zugriff auf die Tabelle.
+     * Kosten hängen nur von der Seitengröße ab, nicht von der Gesamtzahl der Konten.
+     */
+    List<Account> findByUsernameAndIdGreaterThanOrderByIdAsc(String username, Long afterId, Limit limit);
+
+    boolean existsByIdAndUsername(Long id, String username);
+
+    /** Gestreifte Konten (balance_slots > 0); wenige Zeilen, nur für Hintergrundjobs. */
+    List<Account> findByBalanceSlotsGreaterThan(int slots);
+
+    /**
+     * Beträge in Cent.
+     * Bucht den Betrag nur ab, wenn genügend Guthaben vorhanden ist (ein Statement, Row-Lock inklusive).
+     * @return Anzahl geänderter Zeilen: 0 = Konto fehlt oder Guthaben reicht nicht
+     */
+    @Modifying
+    @Query(value = "UPDATE account SET balance_cents = balance_cents - :amount, version = version + 1"
+            + " WHERE id = :id AND balance_cents >= :amount", nativeQuery = true)
+    int debit(@Param("id") Long id, @Param("amount") long amount);
+
+    /**
+     * Schreibt den Betrag gut.
+     * @return Anzahl geänderter Zeilen: 0 = Konto fehlt
+     */
+    @Modifying
+    @Query(value = "UPDATE account SET balance_cents = balance_cents + :amount, version = version + 1 WHERE id = :id", nativeQuery = true)
+    int credit(@Param("id") Long id, @Param("amount") long amount);
 
-public interface AccountRepository extends JpaRepository<Account, Long> {}
+    /**
+     * Sperrt die Zeilen (SELECT ... FOR UPDATE) in aufsteigender ID-Reihenfolge.
+     * Aufrufer mit mehreren Chunks müssen die Chunks ebenfalls aufsteigend abfragen.
+     */
+    @Query(value = "SELECT id, balance_cents AS balance, balance_slots AS balanceSlots FROM account"
+            + " WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<AccountBalanceView> lockBalances(@Param("ids") Collection<Long> ids);
+}
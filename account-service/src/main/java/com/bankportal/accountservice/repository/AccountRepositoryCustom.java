@@ -0,0 +1,49 @@
+package com.bankportal.accountservice.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Ergänzungen zu AccountRepository, die direkt über JDBC laufen.
+ *
+ * Sperrreihenfolge bei gestreiften Konten: Slot-Zeilen (account_balance_slot) werden in einer
+ * Transaktion immer erst nach allen Kontozeilen gesperrt, mehrere Slots eines Kontos aufsteigend.
+ * Eine Slot-Gutschrift ist deshalb immer das letzte Statement ihrer Transaktion.
+ */
+public interface AccountRepositoryCustom {
+
+    /**
+     * Addiert je Konto das Delta (in Cent) auf den Saldo – als ein JDBC-Batch, in aufsteigender ID-Reihenfolge.
+     * @return Anzahl geänderter Zeilen je Statement (Reihenfolge wie in deltas)
+     */
+    int[] applyBalanceDeltas(SortedMap<Long, Long> deltas);
+
+    /**
+     * Schreibt den Betrag (Cent) auf einen Slot gut, ohne die Kontozeile zu sperren.
+     * @return Anzahl geänderter Zeilen: 0 = Slot existiert nicht (Konto nicht gestreift)
+     */
+    int creditSlot(Long accountId, int slot, long amount);
+
+    /** Summe der Slots eines Kontos (0, wenn nicht gestreift); ohne Sperre. */
+    long slotTotal(Long accountId);
+
+    /**
+     * Kontostand je Konto (Hauptsaldo + Slots) in einem Statement, damit ein gleichzeitiges
+     * Falten weder doppelt noch gar nicht gezählt wird. Fehlende Konten fehlen in der Map.
+     */
+    Map<Long, Long> totalBalances(Collection<Long> accountIds);
+
+    /**
+     * Verschiebt die Slots in den Hauptsaldo: sperrt die Kontozeile, dann die Slots, setzt sie auf 0
+     * und addiert die Summe auf balance_cents. Der Kontostand bleibt gleich. Nur in einer Transaktion.
+     * @return verschobener Betrag in Cent
+     */
+    long foldSlots(Long accountId);
+
+    /**
+     * Ersetzt die Slots eines Kontos durch slots leere Slots und setzt balance_slots.
+     * Vorher foldSlots aufrufen (gleiche Transaktion), sonst gehen Beträge verloren.
+     */
+    void replaceSlots(Long accountId, int slots);
+}
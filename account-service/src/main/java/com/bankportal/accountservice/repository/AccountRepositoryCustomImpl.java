@@ -0,0 +1,100 @@
+package com.bankportal.accountservice.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    private static final String APPLY_DELTA_SQL = "UPDATE account SET balance_cents = balance_cents + ?, version = version + 1 WHERE id = ?";
+    private static final String CREDIT_SLOT_SQL = "UPDATE account_balance_slot SET balance_cents = balance_cents + ?"
+            + " WHERE account_id = ? AND slot = ?";
+    private static final String INSERT_SLOT_SQL = "INSERT INTO account_balance_slot (account_id, slot, balance_cents) VALUES (?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] applyBalanceDeltas(SortedMap<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return new int[0];
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (Map.Entry<Long, Long> e : deltas.entrySet()) {
+            args.add(new Object[] { e.getValue(), e.getKey() });
+        }
+        return jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, args);
+    }
+
+    @Override
+    public int creditSlot(Long accountId, int slot, long amount) {
+        return jdbcTemplate.update(CREDIT_SLOT_SQL, amount, accountId, slot);
+    }
+
+    @Override
+    public long slotTotal(Long accountId) {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(balance_cents), 0) FROM account_balance_slot WHERE account_id = ?",
+                Long.class, accountId);
+        return total != null ? total : 0L;
+    }
+
+    @Override
+    public Map<Long, Long> totalBalances(Collection<Long> accountIds) {
+        Map<Long, Long> totals = new HashMap<>();
+        if (accountIds.isEmpty()) {
+            return totals;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(accountIds.size(), "?"));
+        jdbcTemplate.query("SELECT a.id, a.balance_cents + COALESCE(SUM(s.balance_cents), 0) FROM account a"
+                + " LEFT JOIN account_balance_slot s ON s.account_id = a.id"
+                + " WHERE a.id IN (" + placeholders + ") GROUP BY a.id, a.balance_cents",
+                rs -> {
+                    totals.put(rs.getLong(1), rs.getLong(2));
+                },
+                accountIds.toArray());
+        return totals;
+    }
+
+    @Override
+    public long foldSlots(Long accountId) {
+        // Kontozeile vor den Slots sperren, wie bei Transfers
+        if (jdbcTemplate.queryForList("SELECT id FROM account WHERE id = ? FOR UPDATE", Long.class, accountId).isEmpty()) {
+            return 0L;
+        }
+        long total = 0L;
+        for (Long slot : jdbcTemplate.queryForList(
+                "SELECT balance_cents FROM account_balance_slot WHERE account_id = ? ORDER BY slot FOR UPDATE",
+                Long.class, accountId)) {
+            total = Math.addExact(total, slot);
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        jdbcTemplate.update("UPDATE account_balance_slot SET balance_cents = 0 WHERE account_id = ?", accountId);
+        jdbcTemplate.update(APPLY_DELTA_SQL, total, accountId);
+        return total;
+    }
+
+    @Override
+    public void replaceSlots(Long accountId, int slots) {
+        jdbcTemplate.update("DELETE FROM account_balance_slot WHERE account_id = ?", accountId);
+        List<Object[]> args = new ArrayList<>(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            args.add(new Object[] { accountId, slot });
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SLOT_SQL, args);
+        }
+        jdbcTemplate.update("UPDATE account SET balance_slots = ?, version = version + 1 WHERE id = ?", slots, accountId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.bankportal.accountservice.repository;
+
+import java.time.Instant;
+
+import com.bankportal.accountservice.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /** Abgelaufene Schlüssel in einem Statement löschen (ohne sie vorher zu laden). */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+
+    /** Ledger-Modus: Status nach dem Ergebnis im Shard setzen (PENDING -> COMPLETED). */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = :status WHERE k.scopedKey = :scopedKey")
+    int updateStatus(@Param("scopedKey") String scopedKey, @Param("status") IdempotencyKey.Status status);
+}
@@ -0,0 +1,28 @@
+package com.bankportal.accountservice.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.bankportal.accountservice.model.JournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long>, JournalEntryRepositoryCustom {
+
+    /**
+     * Umsätze eines Kontos im Zeitfenster [from, to), neueste zuerst, Keyset ab (beforeAt, beforeId).
+     * Beide Zeitgrenzen sind Pflicht: PostgreSQL liest nur die Partitionen des Fensters
+     * und darin nur den Index (account_id, created_at).
+     */
+    @Query(value = "SELECT * FROM account_journal"
+            + " WHERE account_id = :accountId AND created_at >= :from AND created_at < :to"
+            + " AND (created_at, id) < (:beforeAt, :beforeId)"
+            + " ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<JournalEntry> findPage(@Param("accountId") Long accountId,
+                                @Param("from") Instant from,
+                                @Param("to") Instant to,
+                                @Param("beforeAt") Instant beforeAt,
+                                @Param("beforeId") long beforeId,
+                                @Param("limit") int limit);
+}
@@ -0,0 +1,17 @@
+package com.bankportal.accountservice.repository;
+
+import java.util.List;
+
+import com.bankportal.accountservice.model.JournalEntry;
+
+/**
+ * Ergänzungen zu JournalEntryRepository, die direkt über JDBC laufen.
+ */
+public interface JournalEntryRepositoryCustom {
+
+    /**
+     * Hängt die Einträge als ein JDBC-Batch an, ohne Persistence-Context (kein Dirty-Checking,
+     * keine verwalteten Objekte). IDs vergibt die Datenbank.
+     */
+    void appendAll(List<JournalEntry> entries);
+}
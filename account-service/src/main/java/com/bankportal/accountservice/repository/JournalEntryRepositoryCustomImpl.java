@@ -0,0 +1,34 @@
+package com.bankportal.accountservice.repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bankportal.accountservice.model.JournalEntry;
+
+public class JournalEntryRepositoryCustomImpl implements JournalEntryRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO account_journal"
+            + " (account_id, counterparty_id, amount_cents, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JournalEntryRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void appendAll(List<JournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getAccountId());
+            ps.setLong(2, entry.getCounterpartyId());
+            ps.setLong(3, entry.getAmount());
+            ps.setObject(4, OffsetDateTime.ofInstant(entry.getCreatedAt(), ZoneOffset.UTC));
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package com.bankportal.accountservice.security;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Gesperrte Access Tokens (jti) des Auth-Service. account-service prüft RS256-Tokens selbst per JWKS
+ * und sieht dabei keine Sperren; ohne diesen Abgleich gälten abgemeldete Tokens bis zu ihrem Ablauf.
+ *
+ * Alle jwt.revocation.poll-ms werden nur die Sperren seit dem letzten Abruf geholt (beim Start alle
+ * noch gültigen). Eine Sperre wirkt hier also spätestens nach einem Abrufintervall. Ist der
+ * Auth-Service nicht erreichbar, bleiben die bekannten Sperren aktiv; abgelaufene fallen heraus.
+ */
+@Component
+public class RevokedTokenFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenFeed.class);
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final URI uri;
+    private final HttpClient httpClient;
+    private final Clock clock;
+    private final ObjectMapper mapper = new ObjectMapper();
+    // jti -> Ablauf in Epoch-Millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    // "now" der letzten Antwort des Auth-Service (dessen Uhr, nicht unsere)
+    private volatile long since;
+    private volatile boolean unreachable;
+
+    @Autowired
+    public RevokedTokenFeed(@Value("${jwt.revocation-uri:}") String uri) {
+        this(StringUtils.hasText(uri) ? URI.create(uri) : null, Clock.systemUTC());
+    }
+
+    RevokedTokenFeed(URI uri, Clock clock) {
+        this.uri = uri;
+        this.clock = clock;
+        this.httpClient = uri == null ? null : HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.containsKey(jti);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-ms:5000}")
+    public void sync() {
+        if (uri == null) {
+            return;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri + "?since=" + since))
+                    .timeout(TIMEOUT)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Status " + response.statusCode());
+            }
+            apply(response.body());
+            if (unreachable) {
+                unreachable = false;
+                log.info("✅ Sperrliste wieder abgeglichen ({} Sperren)", revoked.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            // Nur beim Übergang loggen, sonst alle paar Sekunden dieselbe Zeile
+            if (!unreachable) {
+                unreachable = true;
+                log.warn("⚠️ Sperrliste von {} nicht abrufbar, bekannte Sperren bleiben aktiv: {}", uri, e.getMessage());
+            }
+        }
+        long now = clock.millis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    /** Übernimmt eine Antwort von /api/auth/revocations: {"now": ..., "revoked": [{"jti", "expiresAt"}]}. */
+    void apply(String json) throws IOException {
+        JsonNode body = mapper.readTree(json);
+        for (JsonNode entry : body.path("revoked")) {
+            String jti = entry.path("jti").asText(null);
+            if (jti != null) {
+                revoked.put(jti, entry.path("expiresAt").asLong());
+            }
+        }
+        since = body.path("now").asLong(since);
+    }
+}
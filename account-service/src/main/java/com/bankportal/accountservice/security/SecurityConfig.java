@@ -1,17 +1,20 @@
 package com.bankportal.accountservice.security;
 
 import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
-import javax.crypto.SecretKey;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
@@ -30,19 +33,51 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.bankportal.security.JwksClient;
+import com.bankportal.security.JwtKeys;
+import com.bankportal.security.JwtVerifier;
+import com.bankportal.security.KidKeyLocator;
+
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
-    // JWT Secret - sollte identisch mit dem Auth-Service sein
-    private final String jwtSecret = "mysecretkeymysecretkeymysecretkey123456";
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    // JWT Secret - muss identisch mit dem Auth-Service sein
+    @Value("${jwt.secret:mysecretkeymysecretkeymysecretkey123456}")
+    private String jwtSecret;
+
+    // Öffentliche Schlüssel des Auth-Service (RS256); leer = nur HS256 mit jwt.secret
+    @Value("${jwt.jwks-uri:}")
+    private String jwksUri;
+
+    @Value("${jwt.jwks.max-age-ms:3600000}")
+    private long jwksMaxAgeMs;
 
+    @Value("${jwt.hs256.accept:true}")
+    private boolean acceptHs256;
+
+    // Schlüssel und Parser einmal beim Start bauen, nicht pro Request.
+    // Mit JWKS prüft der Service RS256-Tokens selbst; das JWKS wird nur bei unbekannter kid
+    // (Rotation) oder nach jwt.jwks.max-age-ms neu geladen, nicht pro Request.
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public JwtVerifier jwtVerifier() {
+        if (!StringUtils.hasText(jwksUri)) {
+            return new JwtVerifier(jwtSecret);
+        }
+        KidKeyLocator locator = new KidKeyLocator(
+                new JwksClient(URI.create(jwksUri), Duration.ofSeconds(2)),
+                acceptHs256 ? JwtKeys.hmacSha(jwtSecret) : null,
+                Duration.ofMillis(jwksMaxAgeMs), Duration.ofSeconds(5));
+        return new JwtVerifier(locator, Duration.ZERO);
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtVerifier jwtVerifier,
+            RevokedTokenFeed revokedTokens) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -69,7 +104,7 @@ public class SecurityConfig {
                         
                         // Alle anderen Requests erlauben
                         .anyRequest().permitAll())
-                .addFilterBefore(new JwtAuthFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtAuthFilter(jwtVerifier, revokedTokens), UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
@@ -92,6 +127,8 @@ public class SecurityConfig {
         
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        // Paging-Header der Kontenliste für den Browser lesbar machen
+        configuration.setExposedHeaders(List.of("X-Next-Cursor", "Link", "Idempotent-Replayed"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -99,7 +136,21 @@ public class SecurityConfig {
         return source;
     }
 
-    public class JwtAuthFilter extends OncePerRequestFilter {
+    public static class JwtAuthFilter extends OncePerRequestFilter {
+
+        private final JwtVerifier verifier;
+        // null = keine Sperrprüfung (nur Signatur und Ablauf)
+        private final RevokedTokenFeed revokedTokens;
+
+        public JwtAuthFilter(JwtVerifier verifier) {
+            this(verifier, null);
+        }
+
+        public JwtAuthFilter(JwtVerifier verifier, RevokedTokenFeed revokedTokens) {
+            this.verifier = verifier;
+            this.revokedTokens = revokedTokens;
+        }
+
         @Override
         protected void doFilterInternal(
                 HttpServletRequest request,
@@ -128,13 +179,10 @@ public class SecurityConfig {
             if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
                 String token = header.substring(7);
                 try {
-                    // KORRIGIERT: JWT 0.12.3 Syntax
-                    SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-                    Claims claims = Jwts.parser()
-                            .verifyWith(key)
-                            .build()
-                            .parseSignedClaims(token)
-                            .getPayload();
+                    Claims claims = verifier.verify(token);
+                    if (revokedTokens != null && revokedTokens.isRevoked(claims.getId())) {
+                        throw new IllegalStateException("Token gesperrt (jti " + claims.getId() + ")");
+                    }
 
                     String username = claims.getSubject();
                     if (username != null) {
@@ -143,7 +191,8 @@ public class SecurityConfig {
                         SecurityContextHolder.getContext().setAuthentication(auth);
                     }
                 } catch (Exception e) {
-                    System.err.println("JWT validation failed: " + e.getMessage());
+                    // DEBUG: ungültige Tokens kommen von außen und dürfen das Log nicht fluten
+                    log.debug("JWT validation failed: {}", e.getMessage());
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     response.getWriter().write("{\"error\": \"Invalid or expired token\"}");
                     response.setContentType("application/json");
@@ -2,37 +2,122 @@ package com.bankportal.accountservice.service;
 
 import com.bankportal.accountservice.repository.AccountRepository;
 import com.bankportal.accountservice.model.Account;
+import com.bankportal.accountservice.model.IdempotencyKey;
+import com.bankportal.accountservice.model.JournalEntry;
+import com.bankportal.accountservice.model.Money;
 import com.bankportal.accountservice.dto.AccountDto;
+import com.bankportal.accountservice.dto.AccountPage;
 import com.bankportal.accountservice.dto.TransferRequest;
+import com.bankportal.accountservice.exception.AccountNotFoundException;
+import com.bankportal.accountservice.exception.InsufficientFundsException;
+import com.bankportal.accountservice.exception.SlotFoldRequiredException;
+import com.bankportal.accountservice.exception.TransferInProgressException;
+import com.bankportal.accountservice.exception.TransferOutcomeUnknownException;
+import com.bankportal.accountservice.ledger.LedgerEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.Nullable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+
+import static com.bankportal.accountservice.logging.SuccessLogSampler.SAMPLED;
 
 @Service
 @Transactional
 public class AccountService {
 
+  private static final Logger log = LoggerFactory.getLogger(AccountService.class);
+
   private final AccountRepository accountRepository;
+  private final JournalService journalService;
+  private final IdempotencyService idempotencyService;
+  private final StripedBalanceService stripedBalances;
+  private final TransferMetrics transferMetrics;
+  private final TransactionTemplate transactionTemplate;
+  // Nur bei account.transfer.mode=ledger vorhanden
+  private final LedgerEngine ledgerEngine;
+  // Nur bei account.transfer.mode=optimistic vorhanden
+  private final OptimisticRetry optimisticRetry;
+  private final int defaultPageSize;
+  private final int maxPageSize;
 
-  public AccountService(AccountRepository accountRepository) {
+  public AccountService(AccountRepository accountRepository,
+      JournalService journalService,
+      IdempotencyService idempotencyService,
+      StripedBalanceService stripedBalances,
+      TransferMetrics transferMetrics,
+      PlatformTransactionManager transactionManager,
+      @Nullable LedgerEngine ledgerEngine,
+      @Nullable OptimisticRetry optimisticRetry,
+      @Value("${account.page.default-size:100}") int defaultPageSize,
+      @Value("${account.page.max-size:1000}") int maxPageSize) {
     this.accountRepository = accountRepository;
+    this.journalService = journalService;
+    this.idempotencyService = idempotencyService;
+    this.stripedBalances = stripedBalances;
+    this.transferMetrics = transferMetrics;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.ledgerEngine = ledgerEngine;
+    this.optimisticRetry = optimisticRetry;
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
   }
 
-  public List<AccountDto> getAllAccounts() {
+  /**
+   * Eine Seite der Konten des angemeldeten Benutzers mit ID > afterId, aufsteigend nach ID.
+   * Liest limit + 1 Zeilen, um ohne COUNT zu erkennen, ob es eine weitere Seite gibt.
+   */
+  @Transactional(readOnly = true)
+  public AccountPage getAccounts(long afterId, Integer limit) {
     String currentUser = getCurrentUser();
-    System.out.println("🔍 Getting all accounts for user: " + currentUser);
+    int pageSize = limit != null ? Math.min(limit, maxPageSize) : defaultPageSize;
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("limit muss mindestens 1 sein");
+    }
+    log.debug("🔍 Getting accounts after id {} (limit {}) for user: {}", afterId, pageSize, currentUser);
+
+    List<Account> rows = accountRepository.findByUsernameAndIdGreaterThanOrderByIdAsc(
+        currentUser, afterId, Limit.of(pageSize + 1));
+    boolean hasMore = rows.size() > pageSize;
+    int count = hasMore ? pageSize : rows.size();
 
-    return accountRepository.findAll().stream()
-        .map(AccountDto::fromEntity)
-        .collect(Collectors.toList());
+    List<AccountDto> items = new ArrayList<>(count);
+    List<Long> striped = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      items.add(AccountDto.fromEntity(rows.get(i)));
+      if (rows.get(i).getBalanceSlots() > 0) {
+        striped.add(rows.get(i).getId());
+      }
+    }
+    // Gestreifte Konten: Kontostand = Hauptsaldo + Slots (eine Abfrage je Seite, nur wenn nötig)
+    if (!striped.isEmpty()) {
+      Map<Long, Long> totals = accountRepository.totalBalances(striped);
+      for (AccountDto item : items) {
+        Long total = totals.get(item.getId());
+        if (total != null) {
+          item.setBalance(total);
+        }
+      }
+    }
+    Long nextAfter = hasMore ? items.get(count - 1).getId() : null;
+    return new AccountPage(items, nextAfter);
   }
 
   public AccountDto createAccount(AccountDto dto) {
     String currentUser = getCurrentUser();
-    System.out.println("➕ Creating account for owner: " + dto.getOwner() + " by user: " + currentUser);
+    log.info(SAMPLED, "➕ Creating account for owner: {} by user: {}", dto.getOwner(), currentUser);
 
     // Validation
     if (dto.getOwner() == null || dto.getOwner().trim().isEmpty()) {
@@ -44,53 +129,296 @@ public class AccountService {
     }
 
     Account account = new Account();
+    account.setUsername(currentUser);
     account.setOwner(dto.getOwner().trim());
     account.setBalance(dto.getBalance());
 
     account = accountRepository.save(account);
-    System.out.println("✅ Account created with ID: " + account.getId());
+    log.info(SAMPLED, "✅ Account created with ID: {}", account.getId());
 
     return AccountDto.fromEntity(account);
   }
 
-  @Transactional
+  /**
+   * Transfer über zwei bedingte UPDATE-Statements (Abbuchung nur bei ausreichendem Guthaben).
+   * Die beiden Zeilen werden immer in aufsteigender ID-Reihenfolge gesperrt, damit sich
+   * gegenläufige Transfers (A->B und B->A) nicht gegenseitig blockieren (kein Deadlock).
+   *
+   * Gestreifte Empfängerkonten (StripedBalanceService) erhalten die Gutschrift auf einem Teilsaldo,
+   * ohne ihre Kontozeile zu sperren; die Gutschrift ist dann das letzte Statement.
+   *
+   * Im Optimistic-Modus werden beide Konten ohne Sperre gelesen und per Versionsprüfung
+   * geschrieben; bei einem Konflikt wiederholt OptimisticRetry die ganze Transaktion.
+   *
+   * Im Ledger-Modus geht der Transfer an die Shards des LedgerEngine; dann wird keine
+   * DB-Transaktion geöffnet, deshalb läuft nur der JPA-Pfad über das TransactionTemplate.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
   public void transfer(TransferRequest request) {
+    long start = transferMetrics.start();
+    TransferMetrics.Outcome outcome = TransferMetrics.Outcome.ERROR;
+    try {
+      execute(request);
+      outcome = TransferMetrics.Outcome.SUCCESS;
+    } catch (RuntimeException e) {
+      outcome = TransferMetrics.outcomeOf(e);
+      throw e;
+    } finally {
+      transferMetrics.stop(start, outcome, request.getAmount());
+    }
+  }
+
+  private void execute(TransferRequest request) {
     String currentUser = getCurrentUser();
-    System.out.println("💸 Processing transfer by user: " + currentUser);
+    log.info(SAMPLED, "💸 Processing transfer by user: {}", currentUser);
+    validate(request);
 
-    // Validation
+    Long fromId = request.getFromAccountId();
+    Long toId = request.getToAccountId();
+    long amount = request.getAmount();
+
+    if (ledgerEngine != null) {
+      ledgerEngine.transfer(fromId, toId, amount);
+    } else {
+      inTransaction(status -> {
+        book(fromId, toId, amount);
+        return null;
+      });
+    }
+    logCompleted(request);
+  }
+
+  /**
+   * Wie {@link #transfer(TransferRequest)}, aber höchstens einmal je Idempotency-Key des Benutzers.
+   * Ein bekannter Schlüssel wird im Speicher erkannt, ohne Transaktion und ohne Zugriff auf account.
+   * Sonst wird der Schlüssel in derselben Transaktion wie die Buchung belegt; verbucht und
+   * gespeichert werden nur erfolgreiche Überweisungen, eine gescheiterte darf wiederholt werden.
+   *
+   * Im Ledger-Modus wird der Schlüssel in einer eigenen Transaktion vor der Buchung als PENDING belegt,
+   * nach dem Commit im Shard auf COMPLETED gesetzt und bei einem Fehler wieder freigegeben. Nach einer
+   * Zeitüberschreitung ({@link TransferOutcomeUnknownException}) bleibt er belegt, bis der Shard
+   * entschieden hat. Wiederholungen, solange er PENDING ist: {@link TransferInProgressException}.
+   *
+   * @return true, wenn der Schlüssel bereits verbucht war: nichts erneut gebucht, das damalige Ergebnis gilt
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public boolean transfer(TransferRequest request, @Nullable String idempotencyKey) {
+    if (idempotencyKey == null) {
+      transfer(request);
+      return false;
+    }
+    long start = transferMetrics.start();
+    TransferMetrics.Outcome outcome = TransferMetrics.Outcome.ERROR;
+    try {
+      boolean replayed = executeOnce(request, idempotencyKey);
+      outcome = replayed ? TransferMetrics.Outcome.REPLAYED : TransferMetrics.Outcome.SUCCESS;
+      return replayed;
+    } catch (RuntimeException e) {
+      outcome = TransferMetrics.outcomeOf(e);
+      throw e;
+    } finally {
+      transferMetrics.stop(start, outcome, request.getAmount());
+    }
+  }
+
+  private boolean executeOnce(TransferRequest request, String idempotencyKey) {
+    String currentUser = getCurrentUser();
+    String scopedKey = idempotencyService.scope(currentUser, idempotencyKey);
+    Long fromId = request.getFromAccountId();
+    Long toId = request.getToAccountId();
+    long amount = request.getAmount();
+
+    if (idempotencyService.isCompleted(scopedKey, fromId, toId, amount)) {
+      log.info(SAMPLED, "🔁 Transfer already processed for idempotency key of user: {}", currentUser);
+      return true;
+    }
+    log.info(SAMPLED, "💸 Processing transfer by user: {}", currentUser);
+    validate(request);
+
+    IdempotencyKey claimed;
+    try {
+      if (ledgerEngine != null) {
+        claimed = transactionTemplate.execute(
+            status -> idempotencyService.claimPending(scopedKey, fromId, toId, amount));
+        try {
+          ledgerEngine.transfer(fromId, toId, amount);
+        } catch (TransferOutcomeUnknownException e) {
+          // Der Shard bucht ggf. noch: Schlüssel bleibt belegt, bis das Ergebnis feststeht
+          settleLater(e, scopedKey, claimed);
+          throw e;
+        } catch (RuntimeException e) {
+          // Sicher nicht gebucht (Prüfung, Guthaben, Konto fehlt, Ledger überlastet)
+          idempotencyService.release(scopedKey);
+          throw e;
+        }
+        complete(claimed);
+      } else {
+        claimed = inTransaction(status -> {
+          IdempotencyKey key = idempotencyService.claim(scopedKey, fromId, toId, amount);
+          book(fromId, toId, amount);
+          return key;
+        });
+        idempotencyService.remember(claimed);
+      }
+    } catch (DataIntegrityViolationException e) {
+      // Schlüssel schon belegt (Cache verdrängt, andere Instanz oder parallele Wiederholung);
+      // läuft die Buchung dazu noch, wirft findCompleted TransferInProgressException
+      idempotencyService.findCompleted(scopedKey, fromId, toId, amount).orElseThrow(() -> e);
+      log.info(SAMPLED, "🔁 Transfer already processed for idempotency key of user: {}", currentUser);
+      return true;
+    }
+    logCompleted(request);
+    return false;
+  }
+
+  // Gebucht ist gebucht: scheitert nur das Markieren, bleibt der Schlüssel PENDING (Wiederholungen
+  // erhalten 409 statt eines Replays) bis er nach account.idempotency.retention-hours gelöscht wird
+  private void complete(IdempotencyKey claimed) {
+    try {
+      idempotencyService.complete(claimed);
+    } catch (RuntimeException e) {
+      log.warn("⚠️ Idempotency-Key nach erfolgter Buchung nicht als verbucht markiert: {}", e.getMessage());
+    }
+  }
+
+  // Nicht auf dem Shard-Thread: release/complete gehen an die DB
+  private void settleLater(TransferOutcomeUnknownException e, String scopedKey, IdempotencyKey claimed) {
+    e.outcome().whenCompleteAsync((booked, error) -> {
+      if (error == null) {
+        complete(claimed);
+      } else {
+        log.warn("↩️ Transfer nach Zeitüberschreitung abgelehnt, Idempotency-Key wieder frei: {}", error.getMessage());
+        idempotencyService.release(scopedKey);
+      }
+    });
+  }
+
+  private static void validate(TransferRequest request) {
     if (request.getFromAccountId().equals(request.getToAccountId())) {
-      throw new RuntimeException("Quell- und Zielkonto dürfen nicht identisch sein");
+      throw new IllegalArgumentException("Quell- und Zielkonto dürfen nicht identisch sein");
     }
 
     if (request.getAmount() <= 0) {
-      throw new RuntimeException("Betrag muss positiv sein");
+      throw new IllegalArgumentException("Betrag muss positiv sein");
     }
+  }
 
-    // WICHTIG: Die genauen Fehlermeldungen die der Test erwartet
-    Account from = accountRepository.findById(request.getFromAccountId())
-        .orElseThrow(() -> new RuntimeException("Senderkonto nicht gefunden"));
+  // JPA-Pfad: eine Transaktion; im Optimistic-Modus bei Versionskonflikt komplett wiederholt.
+  // Liegt das Guthaben eines gestreiften Senders in den Slots: nach dem Rollback falten, einmal wiederholen
+  private <T> T inTransaction(TransactionCallback<T> work) {
+    try {
+      return runTransaction(work);
+    } catch (SlotFoldRequiredException e) {
+      stripedBalances.fold(e.getAccountId());
+      return runTransaction(work);
+    }
+  }
 
-    Account to = accountRepository.findById(request.getToAccountId())
-        .orElseThrow(() -> new RuntimeException("Empfängerkonto nicht gefunden"));
+  private <T> T runTransaction(TransactionCallback<T> work) {
+    if (optimisticRetry != null) {
+      return optimisticRetry.execute(() -> transactionTemplate.execute(work));
+    }
+    return transactionTemplate.execute(work);
+  }
+
+  // Nur innerhalb einer Transaktion
+  private void book(Long fromId, Long toId, long amount) {
+    if (optimisticRetry != null) {
+      bookOptimistic(fromId, toId, amount);
+    } else if (stripedBalances.slotsOf(toId) > 0) {
+      // Slot zuletzt sperren (nach allen Kontozeilen), siehe AccountRepositoryCustom
+      debit(fromId, amount);
+      creditStriped(toId, amount);
+    } else if (fromId < toId) {
+      // Niedrigere ID zuerst sperren; ein Fehler im zweiten Statement rollt das erste zurück
+      debit(fromId, amount);
+      credit(toId, amount);
+    } else {
+      credit(toId, amount);
+      debit(fromId, amount);
+    }
+    // Beide Beine im Journal, gleiche Transaktion wie die Saldo-Änderung
+    journalService.append(JournalEntry.transferLegs(fromId, toId, amount, JournalEntry.now()));
+  }
+
+  private static void logCompleted(TransferRequest request) {
+    // Money.format nur, wenn die Zeile auch geschrieben wird
+    if (log.isInfoEnabled(SAMPLED)) {
+      log.info(SAMPLED, "✅ Transfer completed: {}€ from account {} to account {}",
+          Money.format(request.getAmount()), request.getFromAccountId(), request.getToAccountId());
+    }
+  }
 
-    if (from.getBalance() < request.getAmount()) {
-      throw new RuntimeException("Nicht genügend Guthaben. Verfügbar: " +
-          from.getBalance() + "€, Benötigt: " + request.getAmount() + "€");
+  // Lesen ohne Sperre; flush schreibt UPDATE ... WHERE version = ? und scheitert mit
+  // OptimisticLockingFailureException, wenn ein Konto inzwischen geändert wurde
+  private void bookOptimistic(Long fromId, Long toId, long amount) {
+    Account from = null;
+    Account to = null;
+    for (Account account : accountRepository.findAllById(List.of(fromId, toId))) {
+      if (account.getId().equals(fromId)) {
+        from = account;
+      } else {
+        to = account;
+      }
+    }
+    if (from == null) {
+      throw new AccountNotFoundException("Senderkonto nicht gefunden");
+    }
+    if (to == null) {
+      throw new AccountNotFoundException("Empfängerkonto nicht gefunden");
+    }
+    if (from.getBalance() < amount) {
+      throw insufficientFunds(from, amount);
     }
+    long toBalance = Money.add(to.getBalance(), amount);
+    from.setBalance(from.getBalance() - amount);
+    if (to.getBalanceSlots() > 0) {
+      // Sender zuerst schreiben, Slot zuletzt; die Version des Empfängers bleibt unverändert (kein Konflikt)
+      accountRepository.flush();
+      if (stripedBalances.creditSlot(toId, to.getBalanceSlots(), amount)) {
+        return;
+      }
+    }
+    to.setBalance(toBalance);
+    accountRepository.flush();
+  }
 
-    // Perform transfer
-    double newFromBalance = from.getBalance() - request.getAmount();
-    double newToBalance = to.getBalance() + request.getAmount();
+  private void debit(Long fromId, long amount) {
+    if (accountRepository.debit(fromId, amount) == 1) {
+      return;
+    }
+    // Nur im Fehlerfall: Ursache ermitteln (Konto fehlt vs. zu wenig Guthaben)
+    Account from = accountRepository.findById(fromId)
+        .orElseThrow(() -> new AccountNotFoundException("Senderkonto nicht gefunden"));
+    throw insufficientFunds(from, amount);
+  }
 
-    from.setBalance(newFromBalance);
-    to.setBalance(newToBalance);
+  // Bei gestreiften Konten zählen die Slots mit: reichen sie, muss nur gefaltet werden
+  private InsufficientFundsException insufficientFunds(Account from, long amount) {
+    long available = from.getBalance();
+    if (from.getBalanceSlots() > 0) {
+      available = Money.add(available, accountRepository.slotTotal(from.getId()));
+      if (available >= amount) {
+        return new SlotFoldRequiredException(from.getId(),
+            "Guthaben liegt noch in Teilsalden, bitte erneut versuchen");
+      }
+    }
+    return new InsufficientFundsException("Nicht genügend Guthaben. Verfügbar: " +
+        Money.format(available) + "€, Benötigt: " + Money.format(amount) + "€");
+  }
 
-    accountRepository.save(from);
-    accountRepository.save(to);
+  // Slots können zwischenzeitlich entfernt worden sein (veraltetes Abbild): dann auf die Kontozeile
+  private void creditStriped(Long toId, long amount) {
+    int slots = stripedBalances.slotsOf(toId);
+    if (slots == 0 || !stripedBalances.creditSlot(toId, slots, amount)) {
+      credit(toId, amount);
+    }
+  }
 
-    System.out.println("✅ Transfer completed: " + request.getAmount() + "€ from account " +
-        request.getFromAccountId() + " to account " + request.getToAccountId());
+  private void credit(Long toId, long amount) {
+    if (accountRepository.credit(toId, amount) == 0) {
+      throw new AccountNotFoundException("Empfängerkonto nicht gefunden");
+    }
   }
 
   private String getCurrentUser() {
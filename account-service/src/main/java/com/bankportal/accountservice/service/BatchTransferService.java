@@ -0,0 +1,214 @@
+package com.bankportal.accountservice.service;
+
+import com.bankportal.accountservice.dto.BatchTransferRequest;
+import com.bankportal.accountservice.dto.BatchTransferResult;
+import com.bankportal.accountservice.dto.TransferRequest;
+import com.bankportal.accountservice.model.JournalEntry;
+import com.bankportal.accountservice.model.Money;
+import com.bankportal.accountservice.repository.AccountBalanceView;
+import com.bankportal.accountservice.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Sammel-Überweisungen (z. B. Gehaltsläufe) in einer Transaktion:
+ * 1. gesamten Batch vorab validieren,
+ * 2. alle beteiligten Konten in aufsteigender ID-Reihenfolge sperren (kein Deadlock mit Einzel-Transfers),
+ *    danach die Teilsalden gestreifter Konten in den Hauptsaldo falten,
+ * 3. Buchungen im Speicher anwenden,
+ * 4. Netto-Deltas je Konto als ein JDBC-Batch schreiben,
+ * 5. Journal-Einträge aller gebuchten Überweisungen anhängen.
+ */
+@Service
+public class BatchTransferService {
+
+  // Obergrenze für IN-Listen (PostgreSQL erlaubt max. 32767 Parameter je Statement)
+  private static final int LOCK_CHUNK_SIZE = 1000;
+
+  private final AccountRepository accountRepository;
+  private final JournalService journalService;
+  private final BatchTransferRequest.Mode defaultMode;
+  private final int maxBatchSize;
+  private final boolean ledgerMode;
+
+  public BatchTransferService(AccountRepository accountRepository,
+      JournalService journalService,
+      @Value("${account.batch.default-mode:ALL_OR_NOTHING}") BatchTransferRequest.Mode defaultMode,
+      @Value("${account.batch.max-size:10000}") int maxBatchSize,
+      @Value("${account.transfer.mode:jpa}") String transferMode) {
+    this.accountRepository = accountRepository;
+    this.journalService = journalService;
+    this.defaultMode = defaultMode;
+    this.maxBatchSize = maxBatchSize;
+    this.ledgerMode = "ledger".equalsIgnoreCase(transferMode);
+  }
+
+  @Transactional
+  public BatchTransferResult transferBatch(BatchTransferRequest request) {
+    if (ledgerMode) {
+      // Salden gehören dann dem In-Memory-Ledger; direkte DB-Buchungen würden an ihm vorbeilaufen
+      throw new RuntimeException("Sammel-Überweisungen sind im Ledger-Modus nicht verfügbar");
+    }
+    List<TransferRequest> transfers = request.getTransfers();
+    if (transfers == null || transfers.isEmpty()) {
+      throw new RuntimeException("Batch darf nicht leer sein");
+    }
+    if (transfers.size() > maxBatchSize) {
+      throw new RuntimeException("Batch zu groß: maximal " + maxBatchSize + " Überweisungen");
+    }
+
+    BatchTransferRequest.Mode mode = request.getMode() != null ? request.getMode() : defaultMode;
+    boolean allOrNothing = mode == BatchTransferRequest.Mode.ALL_OR_NOTHING;
+
+    BatchTransferResult result = new BatchTransferResult();
+    result.setMode(mode);
+    List<BatchTransferResult.Item> items = result.getItems();
+
+    // 1) Vorab-Validierung ohne DB-Zugriff
+    boolean anyInvalid = false;
+    SortedSet<Long> accountIds = new TreeSet<>();
+    for (int i = 0; i < transfers.size(); i++) {
+      TransferRequest t = transfers.get(i);
+      String error = validate(t);
+      if (error != null) {
+        anyInvalid = true;
+        items.add(new BatchTransferResult.Item(i, BatchTransferResult.Status.INVALID, error));
+      } else {
+        items.add(new BatchTransferResult.Item(i, BatchTransferResult.Status.NOT_EXECUTED, null));
+        accountIds.add(t.getFromAccountId());
+        accountIds.add(t.getToAccountId());
+      }
+    }
+    if (anyInvalid && allOrNothing) {
+      return finish(result, false);
+    }
+
+    // 2) Sperren in aufsteigender ID-Reihenfolge; Salden als primitive Arrays, Index per Binärsuche
+    long[] ids = accountIds.stream().mapToLong(Long::longValue).toArray();
+    long[] balances = new long[ids.length];
+    boolean[] found = new boolean[ids.length];
+    lockBalances(ids, balances, found);
+
+    // 3) Buchungen im Speicher anwenden (in Cent, ohne Allokation), Netto-Delta je Konto sammeln
+    long[] deltas = new long[ids.length];
+    for (int i = 0; i < transfers.size(); i++) {
+      BatchTransferResult.Item item = items.get(i);
+      if (item.getStatus() == BatchTransferResult.Status.INVALID) {
+        continue;
+      }
+      TransferRequest t = transfers.get(i);
+      int from = Arrays.binarySearch(ids, t.getFromAccountId());
+      int to = Arrays.binarySearch(ids, t.getToAccountId());
+      long amount = t.getAmount();
+
+      if (!found[from]) {
+        item.setStatus(BatchTransferResult.Status.NOT_FOUND);
+        item.setMessage("Senderkonto nicht gefunden");
+      } else if (!found[to]) {
+        item.setStatus(BatchTransferResult.Status.NOT_FOUND);
+        item.setMessage("Empfängerkonto nicht gefunden");
+      } else if (balances[from] < amount) {
+        item.setStatus(BatchTransferResult.Status.INSUFFICIENT_FUNDS);
+        item.setMessage("Nicht genügend Guthaben. Verfügbar: " + Money.format(balances[from]) +
+            "€, Benötigt: " + Money.format(amount) + "€");
+      } else {
+        balances[from] = Money.subtract(balances[from], amount);
+        balances[to] = Money.add(balances[to], amount);
+        deltas[from] = Money.subtract(deltas[from], amount);
+        deltas[to] = Money.add(deltas[to], amount);
+        item.setStatus(BatchTransferResult.Status.BOOKED);
+        continue;
+      }
+
+      if (allOrNothing) {
+        // Noch nichts geschrieben: bereits "gebuchte" Einträge zurücksetzen, Sperren enden mit der Transaktion
+        for (BatchTransferResult.Item other : items) {
+          if (other.getStatus() == BatchTransferResult.Status.BOOKED) {
+            other.setStatus(BatchTransferResult.Status.NOT_EXECUTED);
+          }
+        }
+        return finish(result, false);
+      }
+    }
+
+    // 4) Ein JDBC-Batch für alle geänderten Konten
+    TreeMap<Long, Long> changed = new TreeMap<>();
+    for (int i = 0; i < ids.length; i++) {
+      if (deltas[i] != 0) {
+        changed.put(ids[i], deltas[i]);
+      }
+    }
+    accountRepository.applyBalanceDeltas(changed);
+
+    // 5) Journal: beide Beine je gebuchter Überweisung, gleiche Transaktion, Inserts als JDBC-Batch
+    Instant at = JournalEntry.now();
+    List<JournalEntry> journal = new ArrayList<>();
+    for (int i = 0; i < transfers.size(); i++) {
+      if (items.get(i).getStatus() == BatchTransferResult.Status.BOOKED) {
+        TransferRequest t = transfers.get(i);
+        journal.addAll(JournalEntry.transferLegs(t.getFromAccountId(), t.getToAccountId(), t.getAmount(), at));
+      }
+    }
+    journalService.append(journal);
+    return finish(result, true);
+  }
+
+  private void lockBalances(long[] ids, long[] balances, boolean[] found) {
+    List<Integer> striped = new ArrayList<>();
+    for (int start = 0; start < ids.length; start += LOCK_CHUNK_SIZE) {
+      int end = Math.min(ids.length, start + LOCK_CHUNK_SIZE);
+      List<Long> chunk = new ArrayList<>(end - start);
+      for (int i = start; i < end; i++) {
+        chunk.add(ids[i]);
+      }
+      for (AccountBalanceView row : accountRepository.lockBalances(chunk)) {
+        int index = Arrays.binarySearch(ids, start, end, row.getId());
+        balances[index] = row.getBalance();
+        found[index] = true;
+        if (row.getBalanceSlots() > 0) {
+          striped.add(index);
+        }
+      }
+    }
+    // Slots erst nach allen Kontozeilen sperren (siehe AccountRepositoryCustom); Gutschriften des Batches
+    // gehen danach direkt auf die bereits gesperrte Kontozeile
+    for (int index : striped) {
+      balances[index] = Money.add(balances[index], accountRepository.foldSlots(ids[index]));
+    }
+  }
+
+  private static String validate(TransferRequest t) {
+    if (t == null || t.getFromAccountId() == null || t.getToAccountId() == null) {
+      return "Quell- und Zielkonto müssen angegeben sein";
+    }
+    if (t.getFromAccountId().equals(t.getToAccountId())) {
+      return "Quell- und Zielkonto dürfen nicht identisch sein";
+    }
+    if (t.getAmount() <= 0) {
+      return "Betrag muss positiv sein";
+    }
+    return null;
+  }
+
+  private static BatchTransferResult finish(BatchTransferResult result, boolean committed) {
+    int booked = 0;
+    for (BatchTransferResult.Item item : result.getItems()) {
+      if (item.getStatus() == BatchTransferResult.Status.BOOKED) {
+        booked++;
+      }
+    }
+    result.setCommitted(committed);
+    result.setBooked(booked);
+    result.setFailed(result.getItems().size() - booked);
+    return result;
+  }
+}
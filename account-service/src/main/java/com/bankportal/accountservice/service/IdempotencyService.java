@@ -0,0 +1,147 @@
+package com.bankportal.accountservice.service;
+
+import com.bankportal.accountservice.exception.IdempotencyKeyReusedException;
+import com.bankportal.accountservice.exception.TransferInProgressException;
+import com.bankportal.accountservice.model.IdempotencyKey;
+import com.bankportal.accountservice.repository.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Idempotency-Keys für Überweisungen.
+ *
+ * Verbuchte Schlüssel liegen in einem begrenzten Cache (TTL = account.idempotency.retention-hours):
+ * eine Wiederholung kostet dann nur einen Speicherzugriff. Verbindlich ist die Tabelle idempotency_key;
+ * ihr Primärschlüssel greift, wenn der Cache den Schlüssel nicht (mehr) kennt, etwa nach einem
+ * Neustart oder auf einer anderen Instanz. Im Ledger-Modus steht der Schlüssel bis zum Commit im Shard
+ * auf PENDING; Wiederholungen in dieser Zeit erhalten {@link TransferInProgressException}, kein Replay.
+ */
+@Service
+public class IdempotencyService {
+
+  private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+  static final int MAX_KEY_LENGTH = 100;
+
+  private final IdempotencyKeyRepository repository;
+  private final Cache<String, IdempotencyKey> completed;
+  private final Duration retention;
+
+  public IdempotencyService(IdempotencyKeyRepository repository,
+      @Value("${account.idempotency.cache-size:100000}") long cacheSize,
+      @Value("${account.idempotency.retention-hours:24}") long retentionHours) {
+    this.repository = repository;
+    this.retention = Duration.ofHours(retentionHours);
+    this.completed = Caffeine.newBuilder()
+        .maximumSize(cacheSize)
+        .expireAfterWrite(retention)
+        .build();
+  }
+
+  /** Schlüssel des Clients prüfen und dem Benutzer zuordnen. */
+  public String scope(String username, String key) {
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException("Idempotency-Key muss 1 bis " + MAX_KEY_LENGTH + " Zeichen lang sein");
+    }
+    return username + ":" + key;
+  }
+
+  /**
+   * Nur Speicher: true, wenn die Überweisung zu diesem Schlüssel bereits verbucht ist.
+   * @throws IdempotencyKeyReusedException wenn der Schlüssel zu einer anderen Überweisung gehört
+   */
+  public boolean isCompleted(String scopedKey, Long fromId, Long toId, long amount) {
+    IdempotencyKey done = completed.getIfPresent(scopedKey);
+    if (done == null) {
+      return false;
+    }
+    verify(done, fromId, toId, amount);
+    return true;
+  }
+
+  /**
+   * Belegt den Schlüssel in der laufenden Transaktion, vor jeder Buchung. Ist er schon verbucht
+   * (oder bucht eine parallele Wiederholung gerade), scheitert das INSERT am Primärschlüssel
+   * (DataIntegrityViolationException) und die Transaktion rollt zurück.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public IdempotencyKey claim(String scopedKey, Long fromId, Long toId, long amount) {
+    return repository.saveAndFlush(new IdempotencyKey(scopedKey, fromId, toId, amount, Instant.now()));
+  }
+
+  /**
+   * Ledger-Modus: belegt den Schlüssel als PENDING in eigener Transaktion, bevor der Shard bucht.
+   * Verbucht ist er erst nach {@link #complete(IdempotencyKey)}.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public IdempotencyKey claimPending(String scopedKey, Long fromId, Long toId, long amount) {
+    return repository.saveAndFlush(new IdempotencyKey(scopedKey, fromId, toId, amount, Instant.now(),
+        IdempotencyKey.Status.PENDING));
+  }
+
+  /** Ledger-Modus: nach dem Commit im Shard als verbucht markieren und im Speicher halten. */
+  @Transactional
+  public void complete(IdempotencyKey key) {
+    repository.updateStatus(key.getScopedKey(), IdempotencyKey.Status.COMPLETED);
+    key.setStatus(IdempotencyKey.Status.COMPLETED);
+    remember(key);
+  }
+
+  /** Nach dem Commit: verbuchten Schlüssel für Wiederholungen im Speicher halten. */
+  public void remember(IdempotencyKey key) {
+    completed.put(key.getScopedKey(), key);
+  }
+
+  /**
+   * Nach einem gescheiterten claim: den bereits verbuchten Schlüssel laden und merken.
+   * Leer, wenn es ihn nicht (mehr) gibt.
+   * @throws IdempotencyKeyReusedException wenn der Schlüssel zu einer anderen Überweisung gehört
+   * @throws TransferInProgressException wenn die Buchung zu diesem Schlüssel noch läuft (PENDING)
+   */
+  @Transactional(readOnly = true)
+  public Optional<IdempotencyKey> findCompleted(String scopedKey, Long fromId, Long toId, long amount) {
+    Optional<IdempotencyKey> done = repository.findById(scopedKey);
+    done.ifPresent(key -> {
+      verify(key, fromId, toId, amount);
+      if (!key.isCompleted()) {
+        // Kann noch scheitern und den Schlüssel freigeben: kein "erfolgreich" melden
+        throw new TransferInProgressException(
+            "Überweisung zu diesem Idempotency-Key läuft noch, bitte später mit demselben Key wiederholen");
+      }
+      remember(key);
+    });
+    return done;
+  }
+
+  /** Gibt einen belegten Schlüssel wieder frei (Ledger-Modus: Buchung nach dem Belegen gescheitert). */
+  @Transactional
+  public void release(String scopedKey) {
+    repository.deleteById(scopedKey);
+  }
+
+  @Scheduled(fixedDelayString = "${account.idempotency.purge-interval-ms:3600000}")
+  @Transactional
+  public void purgeExpired() {
+    int deleted = repository.deleteOlderThan(Instant.now().minus(retention));
+    if (deleted > 0) {
+      log.info("🧹 {} abgelaufene Idempotency-Keys gelöscht", deleted);
+    }
+  }
+
+  private static void verify(IdempotencyKey key, Long fromId, Long toId, long amount) {
+    if (!key.matches(fromId, toId, amount)) {
+      throw new IdempotencyKeyReusedException("Idempotency-Key wurde bereits für eine andere Überweisung verwendet");
+    }
+  }
+}
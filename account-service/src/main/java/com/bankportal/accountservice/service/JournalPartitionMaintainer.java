@@ -0,0 +1,80 @@
+package com.bankportal.accountservice.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Legt Monatspartitionen von account_journal (UTC) für den laufenden und die nächsten
+ * account.journal.partitions-ahead Monate an. Tut nichts, wenn die Tabelle nicht partitioniert ist
+ * (z. B. H2 oder von Hibernate angelegt).
+ */
+@Component
+public class JournalPartitionMaintainer {
+
+  private static final Logger log = LoggerFactory.getLogger(JournalPartitionMaintainer.class);
+
+  private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int monthsAhead;
+
+  public JournalPartitionMaintainer(JdbcTemplate jdbcTemplate,
+      @Value("${account.journal.partitions-ahead:3}") int monthsAhead) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.monthsAhead = monthsAhead;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    ensurePartitions();
+  }
+
+  @Scheduled(cron = "${account.journal.partition-cron:0 0 3 * * *}", zone = "UTC")
+  public void ensurePartitions() {
+    try {
+      if (!isPartitioned()) {
+        return;
+      }
+      YearMonth month = YearMonth.now(ZoneOffset.UTC);
+      for (int i = 0; i <= monthsAhead; i++) {
+        createPartition(month.plusMonths(i));
+      }
+    } catch (RuntimeException e) {
+      // Kein Startabbruch: Zeilen ohne passende Partition landen in account_journal_default
+      log.error("❌ Journal-Partitionen konnten nicht angelegt werden: {}", e.getMessage());
+    }
+  }
+
+  private boolean isPartitioned() {
+    Integer count = jdbcTemplate.queryForObject(
+        "SELECT count(*) FROM information_schema.tables WHERE table_name = 'pg_partitioned_table'"
+            + " AND table_schema = 'pg_catalog'", Integer.class);
+    if (count == null || count == 0) {
+      return false;
+    }
+    Integer partitioned = jdbcTemplate.queryForObject(
+        "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('account_journal')",
+        Integer.class);
+    return partitioned != null && partitioned > 0;
+  }
+
+  // Namen und Grenzen stammen nur aus YearMonth, daher kein Injektionsrisiko im DDL-String
+  private void createPartition(YearMonth month) {
+    LocalDate start = month.atDay(1);
+    LocalDate end = month.plusMonths(1).atDay(1);
+    String name = "account_journal_" + month.format(SUFFIX);
+    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF account_journal"
+        + " FOR VALUES FROM ('" + start + " 00:00:00+00') TO ('" + end + " 00:00:00+00')");
+  }
+}
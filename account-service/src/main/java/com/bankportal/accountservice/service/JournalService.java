@@ -0,0 +1,106 @@
+package com.bankportal.accountservice.service;
+
+import com.bankportal.accountservice.dto.JournalCursor;
+import com.bankportal.accountservice.dto.JournalEntryDto;
+import com.bankportal.accountservice.dto.JournalPage;
+import com.bankportal.accountservice.exception.AccountNotFoundException;
+import com.bankportal.accountservice.model.JournalEntry;
+import com.bankportal.accountservice.repository.AccountRepository;
+import com.bankportal.accountservice.repository.JournalEntryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transaktionsjournal: schreibt die Beine jedes Transfers (nur anhängen) und liest die Umsatzhistorie.
+ */
+@Service
+public class JournalService {
+
+  private final JournalEntryRepository journalRepository;
+  private final AccountRepository accountRepository;
+  private final Duration defaultWindow;
+  private final Duration maxWindow;
+  private final int defaultPageSize;
+  private final int maxPageSize;
+
+  public JournalService(JournalEntryRepository journalRepository,
+      AccountRepository accountRepository,
+      @Value("${account.journal.default-window-days:30}") int defaultWindowDays,
+      @Value("${account.journal.max-window-days:366}") int maxWindowDays,
+      @Value("${account.journal.default-page-size:50}") int defaultPageSize,
+      @Value("${account.journal.max-page-size:500}") int maxPageSize) {
+    this.journalRepository = journalRepository;
+    this.accountRepository = accountRepository;
+    this.defaultWindow = Duration.ofDays(defaultWindowDays);
+    this.maxWindow = Duration.ofDays(maxWindowDays);
+    this.defaultPageSize = defaultPageSize;
+    this.maxPageSize = maxPageSize;
+  }
+
+  /**
+   * Hängt die Einträge in der laufenden Transaktion an (Pflicht: gleiche Transaktion wie die Saldo-Änderung),
+   * sofort als ein JDBC-Batch.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void append(List<JournalEntry> entries) {
+    journalRepository.appendAll(entries);
+  }
+
+  /**
+   * Umsätze eines eigenen Kontos im Zeitfenster [from, to), neueste zuerst.
+   * Ohne Angaben: die letzten account.journal.default-window-days Tage.
+   */
+  @Transactional(readOnly = true)
+  public JournalPage history(Long accountId, Instant from, Instant to, String before, Integer limit) {
+    String currentUser = getCurrentUser();
+    Instant end = to != null ? to : Instant.now();
+    Instant start = from != null ? from : end.minus(defaultWindow);
+    if (!start.isBefore(end)) {
+      throw new IllegalArgumentException("from muss vor to liegen");
+    }
+    if (Duration.between(start, end).compareTo(maxWindow) > 0) {
+      throw new IllegalArgumentException("Zeitfenster zu groß: maximal " + maxWindow.toDays() + " Tage");
+    }
+    int pageSize = limit != null ? Math.min(limit, maxPageSize) : defaultPageSize;
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("limit muss mindestens 1 sein");
+    }
+    if (!accountRepository.existsByIdAndUsername(accountId, currentUser)) {
+      throw new AccountNotFoundException("Konto nicht gefunden");
+    }
+
+    // Erste Seite: alles vor dem Fensterende
+    JournalCursor cursor = JournalCursor.decode(before);
+    Instant beforeAt = cursor != null ? cursor.getCreatedAt() : end;
+    long beforeId = cursor != null ? cursor.getId() : Long.MAX_VALUE;
+
+    List<JournalEntry> rows = journalRepository.findPage(accountId, start, end, beforeAt, beforeId, pageSize + 1);
+    boolean hasMore = rows.size() > pageSize;
+    int count = hasMore ? pageSize : rows.size();
+
+    List<JournalEntryDto> items = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      items.add(JournalEntryDto.fromEntity(rows.get(i)));
+    }
+    String nextCursor = null;
+    if (hasMore) {
+      JournalEntry last = rows.get(count - 1);
+      nextCursor = new JournalCursor(last.getCreatedAt(), last.getId()).encode();
+    }
+    return new JournalPage(items, nextCursor);
+  }
+
+  private String getCurrentUser() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    return auth != null ? auth.getName() : "system";
+  }
+}
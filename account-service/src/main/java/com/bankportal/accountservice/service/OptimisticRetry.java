@@ -0,0 +1,89 @@
+package com.bankportal.accountservice.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.bankportal.accountservice.exception.TransferConflictException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wiederholungsstrategie für optimistische Transfers (account.transfer.mode=optimistic).
+ *
+ * Scheitert eine Transaktion an einer Versionsprüfung, wird sie komplett neu ausgeführt
+ * (neu lesen, neu prüfen, neu schreiben), nach einer Pause mit exponentiellem Backoff und
+ * vollem Jitter: zufällig zwischen 0 und min(max-backoff, initial-backoff * 2^(Versuch-1)).
+ * Der Jitter verhindert, dass kollidierende Transfers im Gleichtakt erneut kollidieren.
+ *
+ * Metriken: account.transfer.optimistic.retries (Wiederholungen) und
+ * account.transfer.optimistic.giveups (nach max-attempts aufgegeben).
+ */
+@Component
+@ConditionalOnProperty(name = "account.transfer.mode", havingValue = "optimistic")
+public class OptimisticRetry {
+
+  private final int maxAttempts;
+  private final long initialBackoffMs;
+  private final long maxBackoffMs;
+  private final Counter retries;
+  private final Counter giveUps;
+
+  public OptimisticRetry(MeterRegistry meterRegistry,
+      @Value("${account.transfer.optimistic.max-attempts:5}") int maxAttempts,
+      @Value("${account.transfer.optimistic.initial-backoff-ms:2}") long initialBackoffMs,
+      @Value("${account.transfer.optimistic.max-backoff-ms:100}") long maxBackoffMs) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("account.transfer.optimistic.max-attempts muss mindestens 1 sein");
+    }
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffMs = initialBackoffMs;
+    this.maxBackoffMs = maxBackoffMs;
+    this.retries = Counter.builder("account.transfer.optimistic.retries")
+        .description("Wiederholte optimistische Transfers nach Versionskonflikt")
+        .register(meterRegistry);
+    this.giveUps = Counter.builder("account.transfer.optimistic.giveups")
+        .description("Optimistische Transfers, die nach allen Versuchen aufgegeben wurden")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Führt action aus und wiederholt sie bei Versionskonflikten. action muss eine eigene
+   * Transaktion sein, damit jeder Versuch frisch liest.
+   *
+   * @throws TransferConflictException wenn auch der letzte Versuch kollidiert
+   */
+  public <T> T execute(Supplier<T> action) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return action.get();
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt >= maxAttempts) {
+          giveUps.increment();
+          throw new TransferConflictException(
+              "Konto wird gerade von einer anderen Überweisung geändert, bitte erneut versuchen", e);
+        }
+        retries.increment();
+        backoff(attempt, e);
+      }
+    }
+  }
+
+  private void backoff(int attempt, OptimisticLockingFailureException cause) {
+    long cap = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 30));
+    if (cap <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TransferConflictException("Überweisung abgebrochen", cause);
+    }
+  }
+}
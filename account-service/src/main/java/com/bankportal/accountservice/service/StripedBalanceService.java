@@ -0,0 +1,150 @@
+package com.bankportal.accountservice.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bankportal.accountservice.exception.AccountNotFoundException;
+import com.bankportal.accountservice.model.Account;
+import com.bankportal.accountservice.repository.AccountRepository;
+
+/**
+ * Gestreifte Konten für stark bebuchte Empfänger (z. B. Händler-Abrechnung, Gebührenkonto).
+ *
+ * Gutschriften gehen reihum auf einen von N Teilsalden (account_balance_slot) statt auf die
+ * Kontozeile und warten damit nicht mehr aufeinander. Abbuchungen laufen weiter über den Hauptsaldo;
+ * reicht er nicht, faltet AccountService die Slots vorher hinein. Zusätzlich faltet ein
+ * Hintergrundjob alle account.striping.fold-interval-ms die Slots aller gestreiften Konten.
+ *
+ * Welche Konten gestreift sind, hält ein Abbild im Speicher (beim Start und bei jedem Faltlauf aus
+ * der DB geladen). Ist es veraltet, landen Gutschriften auf der Kontozeile: langsamer, aber korrekt.
+ */
+@Service
+public class StripedBalanceService {
+
+  private static final Logger log = LoggerFactory.getLogger(StripedBalanceService.class);
+
+  private final AccountRepository accountRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final int maxSlots;
+  private final boolean ledgerMode;
+  private final AtomicInteger nextSlot = new AtomicInteger();
+  // Konto-ID -> Anzahl Slots; wird nur ersetzt, nie verändert
+  private volatile Map<Long, Integer> striped = Map.of();
+
+  public StripedBalanceService(AccountRepository accountRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${account.striping.max-slots:64}") int maxSlots,
+      @Value("${account.transfer.mode:jpa}") String transferMode) {
+    this.accountRepository = accountRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.maxSlots = maxSlots;
+    this.ledgerMode = "ledger".equalsIgnoreCase(transferMode);
+  }
+
+  /** Anzahl Slots laut Speicher-Abbild; 0 = Gutschrift auf die Kontozeile. */
+  public int slotsOf(Long accountId) {
+    return striped.getOrDefault(accountId, 0);
+  }
+
+  /**
+   * Schreibt den Betrag auf den nächsten Slot (reihum) gut. Nur in einer Transaktion und
+   * als letztes Statement, siehe AccountRepositoryCustom.
+   * @return false, wenn das Konto keine Slots (mehr) hat; dann auf die Kontozeile buchen
+   */
+  public boolean creditSlot(Long accountId, int slots, long amount) {
+    int slot = Math.floorMod(nextSlot.getAndIncrement(), slots);
+    return accountRepository.creditSlot(accountId, slot, amount) == 1;
+  }
+
+  /**
+   * Teilt ein eigenes Konto in slots Teilsalden auf (0 = Streifen aufheben). Vorhandene Slots
+   * werden zuerst in den Hauptsaldo gefaltet; der Kontostand bleibt gleich.
+   */
+  @Transactional
+  public void configure(Long accountId, int slots) {
+    if (ledgerMode) {
+      // Salden gehören dann dem In-Memory-Ledger, der Zeilen-Contention ohnehin nicht kennt
+      throw new RuntimeException("Teilsalden sind im Ledger-Modus nicht verfügbar");
+    }
+    if (slots < 0 || slots > maxSlots) {
+      throw new IllegalArgumentException("slots muss zwischen 0 und " + maxSlots + " liegen");
+    }
+    String currentUser = getCurrentUser();
+    if (!accountRepository.existsByIdAndUsername(accountId, currentUser)) {
+      throw new AccountNotFoundException("Konto nicht gefunden");
+    }
+    accountRepository.foldSlots(accountId);
+    accountRepository.replaceSlots(accountId, slots);
+
+    Map<Long, Integer> updated = new HashMap<>(striped);
+    if (slots > 0) {
+      updated.put(accountId, slots);
+    } else {
+      updated.remove(accountId);
+    }
+    striped = Map.copyOf(updated);
+    log.info("🧩 Account {} now has {} balance slots (user: {})", accountId, slots, currentUser);
+  }
+
+  /**
+   * Faltet die Slots eines Kontos in einer eigenen Transaktion in den Hauptsaldo.
+   * Ohne Guthaben in den Slots wird die Kontozeile nicht gesperrt.
+   * @return verschobener Betrag in Cent
+   */
+  public long fold(Long accountId) {
+    if (accountRepository.slotTotal(accountId) == 0L) {
+      return 0L;
+    }
+    Long moved = transactionTemplate.execute(status -> accountRepository.foldSlots(accountId));
+    return moved != null ? moved : 0L;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    foldAll();
+  }
+
+  /** Lädt die gestreiften Konten neu und faltet ihre Slots, jedes Konto in einer eigenen Transaktion. */
+  @Scheduled(fixedDelayString = "${account.striping.fold-interval-ms:10000}",
+      initialDelayString = "${account.striping.fold-interval-ms:10000}")
+  public void foldAll() {
+    Map<Long, Integer> current = new HashMap<>();
+    try {
+      for (Account account : accountRepository.findByBalanceSlotsGreaterThan(0)) {
+        current.put(account.getId(), account.getBalanceSlots());
+      }
+    } catch (RuntimeException e) {
+      log.error("❌ Gestreifte Konten konnten nicht geladen werden: {}", e.getMessage());
+      return;
+    }
+    striped = Map.copyOf(current);
+
+    for (Long accountId : current.keySet()) {
+      try {
+        fold(accountId);
+      } catch (RuntimeException e) {
+        // Nächster Lauf versucht es erneut; die Beträge bleiben bis dahin in den Slots
+        log.error("❌ Teilsalden von Konto {} konnten nicht gefaltet werden: {}", accountId, e.getMessage());
+      }
+    }
+  }
+
+  private String getCurrentUser() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    return auth != null ? auth.getName() : "system";
+  }
+}
@@ -1,16 +1,96 @@
 -- src/main/resources/init.sql
 -- Database initialization for Account Service
 
--- Create accounts table if it doesn't exist
+-- Create accounts table if it doesn't exist (Saldo in Cent)
 CREATE TABLE IF NOT EXISTS account (
     id BIGSERIAL PRIMARY KEY,
     owner VARCHAR(255) NOT NULL,
-    balance DOUBLE PRECISION NOT NULL DEFAULT 0.0
+    username VARCHAR(50),
+    balance_cents BIGINT NOT NULL DEFAULT 0
 );
 
+-- Migration: balance DOUBLE PRECISION (Euro) -> balance_cents BIGINT (Cent)
+-- Idempotent; auch manuell ausführbar (psql -f init.sql), z. B. vor dem Start mit ddl-auto=validate.
+-- DO-Block in einfachen Anführungszeichen, damit der Skript-Splitter die inneren ';' nicht trennt.
+ALTER TABLE account ADD COLUMN IF NOT EXISTS balance_cents BIGINT NOT NULL DEFAULT 0;
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = ''account'' AND column_name = ''balance'') THEN
+        UPDATE account SET balance_cents = ROUND(balance::numeric * 100)::BIGINT;
+        ALTER TABLE account DROP COLUMN balance;
+    END IF;
+END';
+
+-- Konten je Benutzer (JWT-Subject). Bestehende Konten ohne username tauchen in keiner
+-- Kontenliste auf, bis sie einem Benutzer zugeordnet werden.
+ALTER TABLE account ADD COLUMN IF NOT EXISTS username VARCHAR(50);
+
+-- Versionsspalte für optimistisches Locking (account.transfer.mode=optimistic)
+ALTER TABLE account ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Anzahl Teilsalden gestreifter Konten (0 = nicht gestreift), siehe account_balance_slot
+ALTER TABLE account ADD COLUMN IF NOT EXISTS balance_slots INTEGER NOT NULL DEFAULT 0;
+
+-- Kontenliste (WHERE username = ? AND id > ? ORDER BY id LIMIT ?) als Index-Only-Scan:
+-- INCLUDE enthält alle weiteren Spalten der Entity. Ein älterer Index ohne balance_slots wird ersetzt.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_indexes
+                   WHERE indexname = ''idx_account_username_id'' AND indexdef LIKE ''%balance_slots%'') THEN
+        DROP INDEX IF EXISTS idx_account_username_id;
+        CREATE INDEX idx_account_username_id ON account (username, id)
+            INCLUDE (owner, balance_cents, version, balance_slots);
+    END IF;
+END';
+
+-- Teilsalden stark bebuchter Konten: Gutschriften verteilen sich auf die Slots statt auf eine
+-- Kontozeile; Kontostand = account.balance_cents + Summe der Slots. Gefaltet wird im Hintergrund.
+CREATE TABLE IF NOT EXISTS account_balance_slot (
+    account_id BIGINT NOT NULL REFERENCES account (id),
+    slot INTEGER NOT NULL,
+    balance_cents BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (account_id, slot)
+);
+
+-- Transaktionsjournal: nur anhängen, nach Monat partitioniert (created_at).
+-- Der Primärschlüssel muss die Partitionsspalte enthalten. Monatspartitionen legt der
+-- JournalPartitionMaintainer im Voraus an; DEFAULT fängt alles außerhalb davon auf.
+-- Alte Monate lassen sich per DETACH PARTITION / DROP TABLE archivieren, ohne DELETE.
+CREATE SEQUENCE IF NOT EXISTS account_journal_seq;
+CREATE TABLE IF NOT EXISTS account_journal (
+    id BIGINT NOT NULL DEFAULT nextval('account_journal_seq'),
+    account_id BIGINT NOT NULL,
+    counterparty_id BIGINT NOT NULL,
+    amount_cents BIGINT NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+CREATE TABLE IF NOT EXISTS account_journal_default PARTITION OF account_journal DEFAULT;
+-- Tabellen aus einem früheren Stand ohne DEFAULT (IDs wurden damals von Hibernate vergeben)
+ALTER TABLE account_journal ALTER COLUMN id SET DEFAULT nextval('account_journal_seq');
+
+-- Umsatzhistorie (WHERE account_id = ? AND created_at in [from, to) ORDER BY created_at DESC, id DESC)
+-- als Index-Only-Scan je Partition
+CREATE INDEX IF NOT EXISTS idx_journal_account_created ON account_journal (account_id, created_at)
+    INCLUDE (id, counterparty_id, amount_cents);
+
+-- Idempotency-Keys von Überweisungen (POST /api/accounts/transfer mit Header Idempotency-Key).
+-- Werden nach account.idempotency.retention-hours gelöscht.
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    scoped_key VARCHAR(160) PRIMARY KEY,
+    from_account_id BIGINT NOT NULL,
+    to_account_id BIGINT NOT NULL,
+    amount_cents BIGINT NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+-- Ledger-Modus: PENDING bis zum Commit im Shard; bestehende Zeilen sind verbucht
+ALTER TABLE idempotency_key ADD COLUMN IF NOT EXISTS status VARCHAR(16) NOT NULL DEFAULT 'COMPLETED';
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_created ON idempotency_key (created_at);
+
 -- Insert some sample data for testing (optional)
-INSERT INTO account (owner, balance) VALUES 
-    ('Max Mustermann', 1000.0),
-    ('Anna Schmidt', 2500.0),
-    ('John Doe', 500.0)
-ON CONFLICT DO NOTHING;
\ No newline at end of file
+INSERT INTO account (owner, username, balance_cents) VALUES 
+    ('Max Mustermann', 'testuser', 100000),
+    ('Anna Schmidt', 'testuser', 250000),
+    ('John Doe', 'testuser', 50000)
+ON CONFLICT DO NOTHING;
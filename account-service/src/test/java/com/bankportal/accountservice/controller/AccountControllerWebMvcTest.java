@@ -1,8 +1,21 @@
 package com.bankportal.accountservice.controller;
 
+import com.bankportal.accountservice.dto.AccountCursor;
 import com.bankportal.accountservice.dto.AccountDto;
+import com.bankportal.accountservice.dto.AccountPage;
+import com.bankportal.accountservice.dto.BatchTransferRequest;
+import com.bankportal.accountservice.dto.BatchTransferResult;
+import com.bankportal.accountservice.dto.JournalEntryDto;
+import com.bankportal.accountservice.dto.JournalPage;
 import com.bankportal.accountservice.dto.TransferRequest;
+import com.bankportal.accountservice.exception.AccountNotFoundException;
+import com.bankportal.accountservice.exception.IdempotencyKeyReusedException;
+import com.bankportal.accountservice.exception.TransferInProgressException;
+import com.bankportal.accountservice.exception.TransferOutcomeUnknownException;
 import com.bankportal.accountservice.service.AccountService;
+import com.bankportal.accountservice.service.BatchTransferService;
+import com.bankportal.accountservice.service.JournalService;
+import com.bankportal.accountservice.service.StripedBalanceService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -22,11 +35,16 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ActiveProfiles("test")
@@ -60,26 +78,55 @@ class AccountControllerWebMvcTest {
 
     // Service wird gemockt – keine Repos/JPA nötig
     @MockBean AccountService accountService;
+    @MockBean BatchTransferService batchTransferService;
+    @MockBean JournalService journalService;
+    @MockBean StripedBalanceService stripedBalanceService;
 
     @Test
     void getAll_returns200AndList() throws Exception {
         var a = new AccountDto();
-        a.setId(1L); a.setOwner("Max"); a.setBalance(100.0);
+        a.setId(1L); a.setOwner("Max"); a.setBalance(10000);
 
-        Mockito.when(accountService.getAllAccounts()).thenReturn(List.of(a));
+        Mockito.when(accountService.getAccounts(0L, null)).thenReturn(new AccountPage(List.of(a), null));
 
         mvc.perform(get("/api/accounts"))
            .andExpect(status().isOk())
            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
            .andExpect(jsonPath("$[0].id").value(1))
            .andExpect(jsonPath("$[0].owner").value("Max"))
-           .andExpect(jsonPath("$[0].balance").value(100.0));
+           .andExpect(jsonPath("$[0].balance").value(100.0))
+           .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getAll_setztCursorHeaderUndFolgtIhm() throws Exception {
+        var a = new AccountDto();
+        a.setId(42L); a.setOwner("Max");
+        String cursor = AccountCursor.encode(42L);
+
+        Mockito.when(accountService.getAccounts(0L, 1)).thenReturn(new AccountPage(List.of(a), 42L));
+        Mockito.when(accountService.getAccounts(42L, 1)).thenReturn(new AccountPage(List.of(), null));
+
+        mvc.perform(get("/api/accounts").param("limit", "1"))
+           .andExpect(status().isOk())
+           .andExpect(header().string("X-Next-Cursor", cursor))
+           .andExpect(header().string("Link", "</api/accounts?after=" + cursor + "&limit=1>; rel=\"next\""));
+
+        mvc.perform(get("/api/accounts").param("after", cursor).param("limit", "1"))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void getAll_returns400ForInvalidCursor() throws Exception {
+        mvc.perform(get("/api/accounts").param("after", "kaputt!"))
+           .andExpect(status().isBadRequest());
     }
 
     @Test
     void create_returns200AndCreatedDto() throws Exception {
-        var payload = new AccountDto(); payload.setOwner("Anna"); payload.setBalance(200.0);
-        var created = new AccountDto(); created.setId(99L); created.setOwner("Anna"); created.setBalance(200.0);
+        var payload = new AccountDto(); payload.setOwner("Anna"); payload.setBalance(20000);
+        var created = new AccountDto(); created.setId(99L); created.setOwner("Anna"); created.setBalance(20000);
 
         Mockito.when(accountService.createAccount(any(AccountDto.class))).thenReturn(created);
 
@@ -95,7 +142,7 @@ class AccountControllerWebMvcTest {
     @Test
     void transfer_returns200OnSuccess() throws Exception {
         var req = new TransferRequest();
-        req.setFromAccountId(1L); req.setToAccountId(2L); req.setAmount(80.0);
+        req.setFromAccountId(1L); req.setToAccountId(2L); req.setAmount(8000);
 
         mvc.perform(post("/api/accounts/transfer")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -103,4 +150,139 @@ class AccountControllerWebMvcTest {
            .andExpect(status().isOk())
            .andExpect(content().string(Matchers.containsString("✅"))); // ggf. anpassen
     }
+
+    @Test
+    void transfer_replayMitIdempotencyKeyLiefertGleicheAntwort() throws Exception {
+        Mockito.when(accountService.transfer(any(TransferRequest.class), eq("k-1"))).thenReturn(true);
+
+        mvc.perform(post("/api/accounts/transfer")
+                .header("Idempotency-Key", "k-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromAccountId\":1,\"toAccountId\":2,\"amount\":80.0}"))
+           .andExpect(status().isOk())
+           .andExpect(header().string("Idempotent-Replayed", "true"))
+           .andExpect(content().string(Matchers.containsString("✅")));
+    }
+
+    @Test
+    void transfer_returns202WhenLedgerOutcomeUnknown() throws Exception {
+        Mockito.when(accountService.transfer(any(TransferRequest.class), eq("k-1")))
+               .thenThrow(new TransferOutcomeUnknownException("Zeitüberschreitung im Ledger nach 5000 ms", new CompletableFuture<>()));
+
+        mvc.perform(post("/api/accounts/transfer")
+                .header("Idempotency-Key", "k-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromAccountId\":1,\"toAccountId\":2,\"amount\":90.0}"))
+           .andExpect(status().isAccepted())
+           .andExpect(content().string(Matchers.containsString("Idempotency-Key")));
+    }
+
+    @Test
+    void transfer_returns409WhileSameKeyIsStillBooking() throws Exception {
+        Mockito.when(accountService.transfer(any(TransferRequest.class), eq("k-1")))
+               .thenThrow(new TransferInProgressException("Überweisung zu diesem Idempotency-Key läuft noch"));
+
+        mvc.perform(post("/api/accounts/transfer")
+                .header("Idempotency-Key", "k-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromAccountId\":1,\"toAccountId\":2,\"amount\":90.0}"))
+           .andExpect(status().isConflict())
+           .andExpect(header().string("Retry-After", "1"))
+           .andExpect(header().doesNotExist("Idempotent-Replayed"));
+    }
+
+    @Test
+    void transfer_returns422WhenIdempotencyKeyReused() throws Exception {
+        Mockito.when(accountService.transfer(any(TransferRequest.class), eq("k-1")))
+               .thenThrow(new IdempotencyKeyReusedException("Idempotency-Key wurde bereits für eine andere Überweisung verwendet"));
+
+        mvc.perform(post("/api/accounts/transfer")
+                .header("Idempotency-Key", "k-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromAccountId\":1,\"toAccountId\":2,\"amount\":90.0}"))
+           .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void transferBatch_returns200WithItemResults() throws Exception {
+        var result = new BatchTransferResult();
+        result.setMode(BatchTransferRequest.Mode.BEST_EFFORT);
+        result.setCommitted(true);
+        result.setBooked(1);
+        result.getItems().add(new BatchTransferResult.Item(0, BatchTransferResult.Status.BOOKED, null));
+
+        Mockito.when(batchTransferService.transferBatch(any(BatchTransferRequest.class))).thenReturn(result);
+
+        mvc.perform(post("/api/accounts/transfers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"mode":"BEST_EFFORT","transfers":[{"fromAccountId":1,"toAccountId":2,"amount":10.0}]}
+                    """))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.committed").value(true))
+           .andExpect(jsonPath("$.items[0].status").value("BOOKED"));
+    }
+
+    @Test
+    void transferBatch_returns400WhenRejected() throws Exception {
+        var result = new BatchTransferResult();
+        result.setMode(BatchTransferRequest.Mode.ALL_OR_NOTHING);
+        result.getItems().add(new BatchTransferResult.Item(0, BatchTransferResult.Status.INSUFFICIENT_FUNDS, "Nicht genügend Guthaben"));
+
+        Mockito.when(batchTransferService.transferBatch(any(BatchTransferRequest.class))).thenReturn(result);
+
+        mvc.perform(post("/api/accounts/transfers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"transfers":[{"fromAccountId":1,"toAccountId":2,"amount":10.0}]}
+                    """))
+           .andExpect(status().isBadRequest())
+           .andExpect(jsonPath("$.committed").value(false))
+           .andExpect(jsonPath("$.items[0].status").value("INSUFFICIENT_FUNDS"));
+    }
+
+    @Test
+    void transactions_returns200WithCursorHeaders() throws Exception {
+        var e = new JournalEntryDto();
+        e.setId(7L); e.setAccountId(1L); e.setCounterpartyAccountId(2L); e.setAmount(-1050);
+        e.setCreatedAt(Instant.parse("2026-02-01T10:00:00Z"));
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+
+        Mockito.when(journalService.history(eq(1L), eq(from), isNull(), isNull(), eq(1)))
+               .thenReturn(new JournalPage(List.of(e), "abc"));
+
+        mvc.perform(get("/api/accounts/1/transactions").param("from", "2026-01-01T00:00:00Z").param("limit", "1"))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$[0].amount").value(-10.5))
+           .andExpect(jsonPath("$[0].counterpartyAccountId").value(2))
+           .andExpect(header().string("X-Next-Cursor", "abc"))
+           .andExpect(header().string("Link",
+                   "</api/accounts/1/transactions?before=abc&from=2026-01-01T00:00:00Z&limit=1>; rel=\"next\""));
+    }
+
+    @Test
+    void balanceSlots_returns204AndDelegates() throws Exception {
+        mvc.perform(put("/api/accounts/5/balance-slots").param("slots", "8"))
+           .andExpect(status().isNoContent());
+
+        Mockito.verify(stripedBalanceService).configure(5L, 8);
+    }
+
+    @Test
+    void balanceSlots_returns400ForInvalidCount() throws Exception {
+        Mockito.doThrow(new IllegalArgumentException("slots muss zwischen 0 und 64 liegen"))
+               .when(stripedBalanceService).configure(5L, 500);
+
+        mvc.perform(put("/api/accounts/5/balance-slots").param("slots", "500"))
+           .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void transactions_returns404ForForeignAccount() throws Exception {
+        Mockito.when(journalService.history(eq(2L), any(), any(), any(), any()))
+               .thenThrow(new AccountNotFoundException("Konto nicht gefunden"));
+
+        mvc.perform(get("/api/accounts/2/transactions"))
+           .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,49 @@
+package com.bankportal.accountservice.dto;
+
+import com.bankportal.accountservice.model.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cent-Beträge: JSON bleibt dezimal, intern long; Überläufe und Bruchteile von Cent werden abgelehnt.
+ */
+class MoneyJsonTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void serialisiertCentAlsDezimalzahl() throws Exception {
+        AccountDto dto = new AccountDto();
+        dto.setOwner("Max");
+        dto.setBalance(100050);
+
+        String json = mapper.writeValueAsString(dto);
+
+        assertTrue(json.contains("\"balance\":1000.50"), json);
+    }
+
+    @Test
+    void liestZahlenUndStrings() throws Exception {
+        assertEquals(1999, mapper.readValue("{\"amount\":19.99}", TransferRequest.class).getAmount());
+        assertEquals(2000, mapper.readValue("{\"amount\":20}", TransferRequest.class).getAmount());
+        assertEquals(250, mapper.readValue("{\"balance\":\"2.5\"}", AccountDto.class).getBalance());
+        assertEquals(0, mapper.readValue("{\"amount\":null}", TransferRequest.class).getAmount());
+    }
+
+    @Test
+    void lehntMehrAlsZweiNachkommastellenAb() {
+        assertThrows(InvalidFormatException.class,
+                () -> mapper.readValue("{\"amount\":0.001}", TransferRequest.class));
+    }
+
+    @Test
+    void rechnetMitUeberlaufpruefung() {
+        assertEquals(300, Money.add(100, 200));
+        assertEquals("-0.05", Money.format(-5));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+    }
+}
@@ -3,8 +3,7 @@ package com.bankportal.accountservice.it;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.bankportal.security.JwtSigner;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -17,10 +16,7 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
-import java.time.Instant;
-import java.util.Date;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -40,7 +36,7 @@ class AccountServiceIntegrationTest {
     r.add("spring.datasource.password", postgres::getPassword);
     r.add("spring.jpa.hibernate.ddl-auto", () -> "update");
     // wichtig: dieselbe Secret-Quelle wie produktiv (Property oder env),
-    // SecurityConfig nutzt hartes Secret – daher hier identisch setzen:
+    // SecurityConfig liest jwt.secret – daher hier identisch setzen:
     r.add("jwt.secret", () -> "mysecretkeymysecretkeymysecretkey123456");
   }
 
@@ -49,15 +45,9 @@ class AccountServiceIntegrationTest {
   ObjectMapper om = new ObjectMapper();
 
   private String bearer() {
-    // Gleiches Secret wie SecurityConfig (siehe Code) -> Token gültig. 
-    Key key = Keys.hmacShaKeyFor("mysecretkeymysecretkeymysecretkey123456".getBytes(StandardCharsets.UTF_8));
-    var now = Instant.now();
-    var token = Jwts.builder()
-        .subject("itest-user")
-        .issuedAt(Date.from(now))
-        .expiration(Date.from(now.plusSeconds(3600)))
-        .signWith(key)
-        .compact();
+    // Gleiches Secret wie jwt.secret oben -> Token gültig.
+    var token = new JwtSigner("mysecretkeymysecretkeymysecretkey123456", "auth-service", Duration.ofHours(1))
+        .sign("itest-user", Map.of());
     return "Bearer " + token;
   }
 
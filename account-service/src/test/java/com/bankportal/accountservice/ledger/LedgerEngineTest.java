@@ -0,0 +1,207 @@
+package com.bankportal.accountservice.ledger;
+
+import com.bankportal.accountservice.exception.AccountNotFoundException;
+import com.bankportal.accountservice.exception.InsufficientFundsException;
+import com.bankportal.accountservice.exception.TransferOutcomeUnknownException;
+import com.bankportal.accountservice.model.Account;
+import com.bankportal.accountservice.model.JournalEntry;
+import com.bankportal.accountservice.repository.AccountRepository;
+import com.bankportal.accountservice.repository.JournalEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für LedgerEngine mit 4 Shards: IDs 1 und 5 liegen im selben Shard, 1 und 2 nicht.
+ * Repository und TransactionManager sind gemockt; geschriebene Deltas werden aufsummiert.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LedgerEngineTest {
+
+    @Mock
+    AccountRepository repo;
+
+    @Mock
+    JournalEntryRepository journalRepo;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    LedgerEngine engine;
+    final Map<Long, Long> persisted = new ConcurrentHashMap<>();
+    final List<JournalEntry> journal = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(repo.findById(anyLong())).thenReturn(Optional.empty());
+        for (long id = 1; id <= 8; id++) {
+            when(repo.findById(id)).thenReturn(Optional.of(account(id, 100)));
+        }
+        when(repo.applyBalanceDeltas(any())).thenAnswer(inv -> {
+            SortedMap<Long, Long> deltas = inv.getArgument(0);
+            deltas.forEach((id, delta) -> persisted.merge(id, delta, Long::sum));
+            return new int[deltas.size()];
+        });
+        doAnswer(inv -> {
+            List<JournalEntry> entries = inv.getArgument(0);
+            journal.addAll(entries);
+            return null;
+        }).when(journalRepo).appendAll(any());
+
+        engine = new LedgerEngine(repo, journalRepo, transactionManager, 4, 10, 1000, 5000);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        engine.stop();
+    }
+
+    @Test
+    void transfer_innerhalbEinesShards() {
+        engine.transfer(1L, 5L, 30);
+
+        assertEquals(70L, engine.balance(1L).orElseThrow());
+        assertEquals(130L, engine.balance(5L).orElseThrow());
+    }
+
+    @Test
+    void transfer_ueberShardGrenzenMitReserveUndCommit() {
+        engine.transfer(1L, 2L, 40);
+
+        assertEquals(60L, engine.balance(1L).orElseThrow());
+        assertEquals(140L, engine.balance(2L).orElseThrow());
+    }
+
+    @Test
+    void transfer_wirftBeiZuWenigGuthaben() {
+        assertThrows(InsufficientFundsException.class, () -> engine.transfer(1L, 2L, 150));
+
+        assertEquals(100L, engine.balance(1L).orElseThrow());
+        assertEquals(100L, engine.balance(2L).orElseThrow());
+    }
+
+    @Test
+    void transfer_abortGibtReservierungFreiWennEmpfaengerFehlt() {
+        Exception ex = assertThrows(AccountNotFoundException.class, () -> engine.transfer(1L, 42L, 50));
+
+        assertEquals("Empfängerkonto nicht gefunden", ex.getMessage());
+        assertEquals(100L, engine.balance(1L).orElseThrow());
+    }
+
+    @Test
+    void transfer_wirftWennSenderFehlt() {
+        assertThrows(AccountNotFoundException.class, () -> engine.transfer(42L, 1L, 10));
+    }
+
+    @Test
+    void transfer_zeitueberschreitungMeldetOffenesErgebnis() throws InterruptedException {
+        engine.stop();
+        engine = new LedgerEngine(repo, journalRepo, transactionManager, 4, 10, 1000, 100);
+        engine.start();
+        // Laden des Senders dauert länger als der Timeout; 3 und 7 liegen im selben Shard
+        when(repo.findById(3L)).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return Optional.of(account(3L, 100));
+        });
+
+        TransferOutcomeUnknownException ex = assertThrows(TransferOutcomeUnknownException.class,
+                () -> engine.transfer(3L, 7L, 10));
+
+        // Der Shard bucht trotzdem zu Ende
+        ex.outcome().join();
+        assertEquals(90L, engine.balance(3L).orElseThrow());
+        assertEquals(110L, engine.balance(7L).orElseThrow());
+    }
+
+    @Test
+    void flush_schreibtNettoDeltasJeKonto() {
+        engine.transfer(1L, 2L, 10);
+        engine.transfer(2L, 1L, 4);
+        engine.transfer(1L, 5L, 1);
+
+        engine.flush();
+
+        assertEquals(-7L, persisted.get(1L));
+        assertEquals(6L, persisted.get(2L));
+        assertEquals(1L, persisted.get(5L));
+
+        // Journal: zwei Beine je Transfer, auch über Shard-Grenzen
+        assertEquals(6, journal.size());
+        assertEquals(-7L, journal.stream().filter(e -> e.getAccountId() == 1L).mapToLong(JournalEntry::getAmount).sum());
+        assertEquals(0L, journal.stream().mapToLong(JournalEntry::getAmount).sum());
+    }
+
+    @Test
+    void abort_schreibtKeinJournal() {
+        assertThrows(AccountNotFoundException.class, () -> engine.transfer(1L, 42L, 50));
+
+        engine.flush();
+
+        assertTrue(journal.isEmpty());
+    }
+
+    @Test
+    void parallelTransfers_erhaltenGesamtsumme() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    long from = 1 + random.nextInt(8);
+                    long to = 1 + (from + random.nextInt(7)) % 8;
+                    try {
+                        engine.transfer(from, to, 1 + random.nextInt(20));
+                    } catch (InsufficientFundsException e) {
+                        // erwartet bei leeren Konten
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long total = 0;
+        for (long id = 1; id <= 8; id++) {
+            long balance = engine.balance(id).orElseThrow();
+            assertTrue(balance >= 0, "Kein Konto darf negativ werden");
+            total += balance;
+        }
+        assertEquals(800L, total);
+
+        engine.flush();
+        assertEquals(0L, persisted.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(0L, journal.stream().mapToLong(JournalEntry::getAmount).sum());
+    }
+
+    private static Account account(long id, long balance) {
+        Account a = new Account();
+        a.setId(id);
+        a.setOwner("Konto " + id);
+        a.setBalance(balance);
+        return a;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bankportal.accountservice.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für RequestCorrelationFilter und SuccessLogSampler (ohne Spring).
+ */
+class RequestCorrelationFilterTest {
+
+    private final SuccessLogSampler sampler = new SuccessLogSampler();
+    private final ch.qos.logback.classic.Logger logger = new LoggerContext().getLogger("test");
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void requestId_uebernimmtHeaderUndRaeumtMdcAuf() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/accounts/transfer");
+        request.addHeader(RequestCorrelationFilter.HEADER, "nginx-4711");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        new RequestCorrelationFilter(1.0).doFilter(request, response,
+                new MockFilterChain() {
+                    @Override
+                    public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                        seen.set(MDC.get(RequestCorrelationFilter.REQUEST_ID));
+                        assertEquals("true", MDC.get(RequestCorrelationFilter.SAMPLED));
+                    }
+                });
+
+        assertEquals("nginx-4711", seen.get());
+        assertEquals("nginx-4711", response.getHeader(RequestCorrelationFilter.HEADER));
+        assertNull(MDC.get(RequestCorrelationFilter.REQUEST_ID));
+        assertNull(MDC.get(RequestCorrelationFilter.SAMPLED));
+    }
+
+    @Test
+    void requestId_verwirftUnsichereHeader() {
+        String generated = RequestCorrelationFilter.requestId("abc\n{\"level\":\"ERROR\"}");
+        assertEquals(32, generated.length());
+        assertTrue(generated.matches("[0-9a-f]+"));
+        assertEquals(32, RequestCorrelationFilter.requestId("x".repeat(65)).length());
+        assertNotEquals(generated, RequestCorrelationFilter.requestId(null));
+    }
+
+    @Test
+    void sampler_verwirftErfolgsmeldungenNichtGezogenerRequests() {
+        MDC.put(RequestCorrelationFilter.REQUEST_ID, "r1");
+
+        assertEquals(FilterReply.DENY,
+                sampler.decide(SuccessLogSampler.SAMPLED, logger, Level.INFO, "✅", null, null));
+        // Ohne Marker (Warnungen, Fehler) wird nie gesampelt
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(null, logger, Level.WARN, "❌", null, null));
+
+        MDC.put(RequestCorrelationFilter.SAMPLED, "true");
+        assertEquals(FilterReply.NEUTRAL,
+                sampler.decide(SuccessLogSampler.SAMPLED, logger, Level.INFO, "✅", null, null));
+    }
+
+    @Test
+    void sampler_ausserhalbVonRequestsNeutral() {
+        assertEquals(FilterReply.NEUTRAL,
+                sampler.decide(SuccessLogSampler.SAMPLED, logger, Level.INFO, "🧹", null, null));
+    }
+}
@@ -5,12 +5,15 @@ import com.bankportal.accountservice.model.Account;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @Testcontainers
@@ -33,10 +36,37 @@ class AccountRepositoryDataJpaTest {
   @Test
   void saveAndFind_roundtrip() {
     var a = new Account();
-    a.setOwner("Max"); a.setBalance(123.45);
+    a.setOwner("Max"); a.setBalance(12345);
     var saved = repo.save(a);
 
     assertThat(saved.getId()).isNotNull();
     assertThat(repo.findById(saved.getId())).isPresent();
   }
+
+  @Test
+  void debit_nurBeiAusreichendemGuthaben() {
+    var a = new Account();
+    a.setOwner("Erika"); a.setBalance(10000);
+    var saved = repo.saveAndFlush(a);
+
+    assertThat(repo.debit(saved.getId(), 15000L)).isZero();   // zu wenig Guthaben
+    assertThat(repo.debit(saved.getId(), 6000L)).isEqualTo(1);
+    assertThat(repo.credit(saved.getId(), 1000L)).isEqualTo(1);
+    assertThat(repo.credit(-1L, 1000L)).isZero();              // Konto existiert nicht
+  }
+
+  @Test
+  void findByUsername_liefertNurEigeneKontenSeitenweise() {
+    for (String user : List.of("erika", "otto", "erika", "erika")) {
+      var a = new Account();
+      a.setOwner(user); a.setUsername(user);
+      repo.save(a);
+    }
+
+    var firstPage = repo.findByUsernameAndIdGreaterThanOrderByIdAsc("erika", 0L, Limit.of(2));
+    assertThat(firstPage).hasSize(2).allMatch(a -> a.getUsername().equals("erika"));
+
+    var rest = repo.findByUsernameAndIdGreaterThanOrderByIdAsc("erika", firstPage.get(1).getId(), Limit.of(2));
+    assertThat(rest).hasSize(1);
+  }
 }
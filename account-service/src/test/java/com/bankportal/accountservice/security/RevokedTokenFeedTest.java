@@ -0,0 +1,94 @@
+package com.bankportal.accountservice.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.bankportal.accountservice.security.SecurityConfig.JwtAuthFilter;
+import com.bankportal.security.JwtSigner;
+import com.bankportal.security.JwtVerifier;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für RevokedTokenFeed und die Sperrprüfung im JwtAuthFilter (ohne Spring, ohne Netz).
+ */
+class RevokedTokenFeedTest {
+
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkey123456";
+
+    private final JwtVerifier verifier = new JwtVerifier(SECRET);
+    private final JwtSigner signer = new JwtSigner(SECRET, "auth-service", Duration.ofMinutes(5));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void apply_uebernimmtSperrenUndAbgelaufeneFallenBeimAbgleichHeraus() throws Exception {
+        Instant now = Instant.parse("2025-01-01T12:00:00Z");
+        // Ohne URI ruft sync() nichts ab, räumt aber auch nicht auf – daher eine nicht erreichbare
+        RevokedTokenFeed feed = new RevokedTokenFeed(URI.create("http://127.0.0.1:9/api/auth/revocations"),
+                Clock.fixed(now, ZoneOffset.UTC));
+
+        feed.apply("""
+                {"now": 1, "revoked": [
+                  {"jti": "gueltig", "expiresAt": %d},
+                  {"jti": "abgelaufen", "expiresAt": %d}]}
+                """.formatted(now.plusSeconds(60).toEpochMilli(), now.minusSeconds(1).toEpochMilli()));
+        assertTrue(feed.isRevoked("gueltig"));
+        assertTrue(feed.isRevoked("abgelaufen"));
+        assertFalse(feed.isRevoked(null));
+
+        feed.sync();
+
+        assertTrue(feed.isRevoked("gueltig"), "Bekannte Sperren bleiben, auch wenn der Abruf scheitert");
+        assertFalse(feed.isRevoked("abgelaufen"));
+        assertEquals(1, feed.size());
+    }
+
+    @Test
+    void filter_lehntGesperrtesTokenMit401Ab() throws Exception {
+        String token = signer.sign("alice", Map.of());
+        RevokedTokenFeed feed = new RevokedTokenFeed(null, Clock.systemUTC());
+        feed.apply("{\"now\": 1, \"revoked\": [{\"jti\": \"%s\", \"expiresAt\": %d}]}"
+                .formatted(verifier.verify(token).getId(), Instant.now().plusSeconds(300).toEpochMilli()));
+
+        MockHttpServletResponse response = filter(new JwtAuthFilter(verifier, feed), token);
+
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void filter_laesstNichtGesperrtesTokenDurch() throws Exception {
+        String token = signer.sign("alice", Map.of());
+        RevokedTokenFeed feed = new RevokedTokenFeed(null, Clock.systemUTC());
+        feed.apply("{\"now\": 1, \"revoked\": [{\"jti\": \"anderes\", \"expiresAt\": %d}]}"
+                .formatted(Instant.now().plusSeconds(300).toEpochMilli()));
+
+        MockHttpServletResponse response = filter(new JwtAuthFilter(verifier, feed), token);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("alice", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    private static MockHttpServletResponse filter(JwtAuthFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
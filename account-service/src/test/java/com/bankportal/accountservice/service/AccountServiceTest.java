@@ -3,19 +3,44 @@ package com.bankportal.accountservice.service;
 import com.bankportal.accountservice.repository.AccountRepository;
 import com.bankportal.accountservice.model.Account;
 import com.bankportal.accountservice.dto.AccountDto;
+import com.bankportal.accountservice.dto.AccountPage;
 import com.bankportal.accountservice.dto.TransferRequest;
+import com.bankportal.accountservice.exception.InsufficientFundsException;
+import com.bankportal.accountservice.exception.TransferInProgressException;
+import com.bankportal.accountservice.exception.TransferOutcomeUnknownException;
+import com.bankportal.accountservice.ledger.LedgerEngine;
+import com.bankportal.accountservice.model.IdempotencyKey;
+import com.bankportal.accountservice.model.JournalEntry;
+import com.bankportal.accountservice.repository.IdempotencyKeyRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,7 +55,21 @@ class AccountServiceTest {
     @Mock
     AccountRepository repo;
 
-    @InjectMocks
+    @Mock
+    JournalService journal;
+
+    @Mock
+    IdempotencyService idempotency;
+
+    @Mock
+    StripedBalanceService striped;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    TransferMetrics metrics = new TransferMetrics(meters);
+
     AccountService service;
 
     Account max;   // Beispiel-Dummy
@@ -38,6 +77,9 @@ class AccountServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Seitengröße: Standard 2, Maximum 5
+        service = new AccountService(repo, journal, idempotency, striped, metrics, transactionManager, null, null, 2, 5);
+
         max = new Account();
         max.setId(1L);
         max.setOwner("Max");
@@ -51,17 +93,60 @@ class AccountServiceTest {
 
     @Test
     void getAllAccounts_gibtDtosZurueck() {
-        when(repo.findAll()).thenReturn(Arrays.asList(max));
+        when(repo.findByUsernameAndIdGreaterThanOrderByIdAsc("system", 0L, Limit.of(3))).thenReturn(Arrays.asList(max));
 
-        List<AccountDto> result = service.getAllAccounts();
+        AccountPage page = service.getAccounts(0L, null);
+        List<AccountDto> result = page.getItems();
 
         assertEquals(1, result.size(), "Es sollte genau 1 Konto geben");
         assertEquals("Max", result.get(0).getOwner());
         assertEquals(100, result.get(0).getBalance());
-        verify(repo, times(1)).findAll();
+        assertNull(page.getNextAfter(), "Keine weitere Seite");
+        verify(repo, times(1)).findByUsernameAndIdGreaterThanOrderByIdAsc("system", 0L, Limit.of(3));
         verifyNoMoreInteractions(repo);
     }
 
+    @Test
+    void getAccounts_liefertCursorWennWeitereSeiteExistiert() {
+        Account third = new Account();
+        third.setId(3L);
+        third.setOwner("Tom");
+        // limit 2 -> es werden 3 Zeilen gelesen; die dritte zeigt nur an, dass es weitergeht
+        when(repo.findByUsernameAndIdGreaterThanOrderByIdAsc("system", 0L, Limit.of(3))).thenReturn(Arrays.asList(max, anna, third));
+
+        AccountPage page = service.getAccounts(0L, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getNextAfter());
+    }
+
+    @Test
+    void getAccounts_liefertNurKontenDesAngemeldetenBenutzers() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("anna", null, List.of()));
+        try {
+            when(repo.findByUsernameAndIdGreaterThanOrderByIdAsc("anna", 0L, Limit.of(3))).thenReturn(List.of(anna));
+
+            AccountPage page = service.getAccounts(0L, null);
+
+            assertEquals(List.of(2L), page.getItems().stream().map(AccountDto::getId).toList());
+            verify(repo).findByUsernameAndIdGreaterThanOrderByIdAsc("anna", 0L, Limit.of(3));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void getAccounts_begrenztLimitAufMaximum() {
+        when(repo.findByUsernameAndIdGreaterThanOrderByIdAsc("system", 7L, Limit.of(6))).thenReturn(List.of());
+
+        AccountPage page = service.getAccounts(7L, 10_000);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(repo).findByUsernameAndIdGreaterThanOrderByIdAsc("system", 7L, Limit.of(6));
+        assertThrows(IllegalArgumentException.class, () -> service.getAccounts(0L, 0));
+    }
+
     @Test
     void createAccount_legtdatenAnUndGibtDtoZurueck() {
         // Eingabedaten (DTO)
@@ -90,6 +175,7 @@ class AccountServiceTest {
         Account saved = captor.getValue();
         assertEquals("Anna", saved.getOwner());
         assertEquals(200, saved.getBalance());
+        assertEquals("system", saved.getUsername(), "Konto gehört dem angemeldeten Benutzer");
         verifyNoMoreInteractions(repo);
     }
 
@@ -100,10 +186,12 @@ class AccountServiceTest {
         req.setToAccountId(2L);
         req.setAmount(100);
 
+        when(repo.debit(1L, 100L)).thenReturn(0);                  // Abbuchung greift nicht
         when(repo.findById(1L)).thenReturn(Optional.empty()); // Sender nicht gefunden
 
         Exception ex = assertThrows(RuntimeException.class, () -> service.transfer(req));
         assertTrue(ex.getMessage().toLowerCase().contains("sender"), "Fehlermeldung sollte Sender erwähnen");
+        verify(repo).debit(1L, 100L);
         verify(repo).findById(1L);
         verifyNoMoreInteractions(repo);
     }
@@ -115,16 +203,16 @@ class AccountServiceTest {
         req.setToAccountId(2L);
         req.setAmount(50);
 
-        when(repo.findById(1L)).thenReturn(Optional.of(max));      // Sender vorhanden
-        when(repo.findById(2L)).thenReturn(Optional.empty());      // Empfänger fehlt
+        when(repo.debit(1L, 50L)).thenReturn(1);   // Sender vorhanden
+        when(repo.credit(2L, 50L)).thenReturn(0);  // Empfänger fehlt
 
         Exception ex = assertThrows(RuntimeException.class, () -> service.transfer(req));
         assertTrue(ex.getMessage().toLowerCase().contains("empfänger")
                 || ex.getMessage().toLowerCase().contains("empfaenger"),
                 "Fehlermeldung sollte Empfänger erwähnen");
 
-        verify(repo, times(1)).findById(1L);
-        verify(repo, times(1)).findById(2L);
+        verify(repo, times(1)).debit(1L, 50L);
+        verify(repo, times(1)).credit(2L, 50L);
         verifyNoMoreInteractions(repo);
     }
 
@@ -133,59 +221,386 @@ class AccountServiceTest {
         TransferRequest req = new TransferRequest();
         req.setFromAccountId(1L);
         req.setToAccountId(2L);
-        req.setAmount(100); // Max hat nur 100 -> Grenzfall; passe ggf. auf 101 an, falls Service strikt > prüft
+        req.setAmount(100);
 
         // Setze bewusst zu kleines Guthaben
         max.setBalance(50);
 
+        when(repo.debit(1L, 100L)).thenReturn(0);
         when(repo.findById(1L)).thenReturn(Optional.of(max));
-        when(repo.findById(2L)).thenReturn(Optional.of(anna));
 
         Exception ex = assertThrows(RuntimeException.class, () -> service.transfer(req));
         assertTrue(ex.getMessage().toLowerCase().contains("nicht genügend")
                 || ex.getMessage().toLowerCase().contains("nicht genug"),
                 "Fehlermeldung sollte mangelndes Guthaben erwähnen");
 
+        verify(repo, times(1)).debit(1L, 100L);
         verify(repo, times(1)).findById(1L);
-        verify(repo, times(1)).findById(2L);
-        // Kein save(), weil Transaktion abgebrochen
-        verify(repo, never()).save(any(Account.class));
+        // Keine Gutschrift, weil Abbuchung fehlgeschlagen
+        verify(repo, never()).credit(any(), anyLong());
         verifyNoMoreInteractions(repo);
+
+        assertEquals(1, meters.timer("account.transfer", "outcome", "insufficient_funds").count());
+        assertEquals(0, meters.summary("account.transfer.amount").count());
+        assertEquals(0.0, meters.get("account.transfer.inflight").gauge().value());
+    }
+
+    @Test
+    void transfer_zaehltUngueltigeAnfrageAlsValidation() {
+        TransferRequest req = new TransferRequest();
+        req.setFromAccountId(1L);
+        req.setToAccountId(1L);
+        req.setAmount(10);
+
+        assertThrows(IllegalArgumentException.class, () -> service.transfer(req));
+
+        assertEquals(1, meters.timer("account.transfer", "outcome", "validation").count());
+        verifyNoInteractions(repo);
     }
 
     @Test
-    void transfer_buchtBetragUmUndSpeichertBeideKonten() {
+    void transfer_buchtMitZweiStatementsUm() {
         // Erfolgreicher Transfer 80 von Max -> Anna
         TransferRequest req = new TransferRequest();
         req.setFromAccountId(1L);
         req.setToAccountId(2L);
         req.setAmount(80);
 
-        max.setBalance(150);
-        anna.setBalance(20);
-
-        when(repo.findById(1L)).thenReturn(Optional.of(max));
-        when(repo.findById(2L)).thenReturn(Optional.of(anna));
-        when(repo.save(any(Account.class))).thenAnswer(inv -> inv.getArgument(0)); // passt gespeichertes Objekt durch
+        when(repo.debit(1L, 80L)).thenReturn(1);
+        when(repo.credit(2L, 80L)).thenReturn(1);
 
         // Act
         service.transfer(req);
 
-        // In-Memory Salden prüfen
-        assertEquals(70, max.getBalance(), "Sender-Saldo muss reduziert sein");
-        assertEquals(100, anna.getBalance(), "Empfänger-Saldo muss erhöht sein");
+        // Genau zwei Statements: Abbuchung (niedrigere ID) vor Gutschrift, kein Lesen/Speichern
+        InOrder order = inOrder(repo);
+        order.verify(repo).debit(1L, 80L);
+        order.verify(repo).credit(2L, 80L);
+        verifyNoMoreInteractions(repo);
 
-        // Es sollten zwei Saves erfolgt sein: Sender + Empfänger
-        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
-        verify(repo, times(2)).save(captor.capture());
-        List<Account> savedEntities = captor.getAllValues();
+        // Beide Beine landen in derselben Transaktion im Journal
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<JournalEntry>> legs = ArgumentCaptor.forClass(List.class);
+        verify(journal).append(legs.capture());
+        assertEquals(-80L, legs.getValue().get(0).getAmount());
+        assertEquals(2L, legs.getValue().get(0).getCounterpartyId());
+        assertEquals(80L, legs.getValue().get(1).getAmount());
+        assertEquals(legs.getValue().get(0).getCreatedAt(), legs.getValue().get(1).getCreatedAt());
+
+        // Metriken: Erfolg mit Betrag, nichts mehr in Bearbeitung
+        assertEquals(1, meters.timer("account.transfer", "outcome", "success").count());
+        assertEquals(80.0, meters.summary("account.transfer.amount").totalAmount());
+        assertEquals(0.0, meters.get("account.transfer.inflight").gauge().value());
+    }
 
-        // IDs prüfen (Reihenfolge egal)
-        assertTrue(savedEntities.stream().anyMatch(a -> a.getId().equals(1L) && a.getBalance() == 70));
-        assertTrue(savedEntities.stream().anyMatch(a -> a.getId().equals(2L) && a.getBalance() == 100));
+    @Test
+    void transfer_sperrtImmerZuerstDieNiedrigereId() {
+        // Transfer 30 von Anna (2) -> Max (1): Gutschrift auf ID 1 muss zuerst laufen
+        TransferRequest req = new TransferRequest();
+        req.setFromAccountId(2L);
+        req.setToAccountId(1L);
+        req.setAmount(30);
 
-        verify(repo, times(1)).findById(1L);
-        verify(repo, times(1)).findById(2L);
+        when(repo.credit(1L, 30L)).thenReturn(1);
+        when(repo.debit(2L, 30L)).thenReturn(1);
+
+        service.transfer(req);
+
+        InOrder order = inOrder(repo);
+        order.verify(repo).credit(1L, 30L);
+        order.verify(repo).debit(2L, 30L);
         verifyNoMoreInteractions(repo);
     }
+
+    @Test
+    void getAccounts_zeigtBeiGestreiftenKontenDenGesamtsaldo() {
+        max.setBalanceSlots(4);
+        when(repo.findByUsernameAndIdGreaterThanOrderByIdAsc("system", 0L, Limit.of(3))).thenReturn(List.of(max, anna));
+        when(repo.totalBalances(List.of(1L))).thenReturn(Map.of(1L, 350L));
+
+        AccountPage page = service.getAccounts(0L, null);
+
+        assertEquals(350, page.getItems().get(0).getBalance(), "Hauptsaldo 100 + Slots 250");
+        assertEquals(200, page.getItems().get(1).getBalance());
+    }
+
+    @Test
+    void transfer_gutschriftAufGestreiftesKontoGehtAufEinenSlot() {
+        // Empfänger 1 ist gestreift: trotz niedrigerer ID erst abbuchen, die Slot-Gutschrift kommt zuletzt
+        when(striped.slotsOf(1L)).thenReturn(4);
+        when(repo.debit(2L, 30L)).thenReturn(1);
+        when(striped.creditSlot(1L, 4, 30L)).thenReturn(true);
+
+        service.transfer(request(2L, 1L, 30));
+
+        InOrder order = inOrder(repo, striped);
+        order.verify(repo).debit(2L, 30L);
+        order.verify(striped).creditSlot(1L, 4, 30L);
+        verify(repo, never()).credit(any(), anyLong());
+        verify(journal).append(any());
+    }
+
+    @Test
+    void transfer_faltetSlotsDesSendersUndWiederholt() {
+        // Hauptsaldo 50 reicht nicht für 100, mit den Slots (70) schon
+        max.setBalance(50);
+        max.setBalanceSlots(4);
+        when(repo.debit(1L, 100L)).thenReturn(0).thenReturn(1);
+        when(repo.findById(1L)).thenReturn(Optional.of(max));
+        when(repo.slotTotal(1L)).thenReturn(70L);
+        when(repo.credit(2L, 100L)).thenReturn(1);
+
+        service.transfer(request(1L, 2L, 100));
+
+        InOrder order = inOrder(repo, striped);
+        order.verify(repo).debit(1L, 100L);
+        order.verify(striped).fold(1L);
+        order.verify(repo).debit(1L, 100L);
+        order.verify(repo).credit(2L, 100L);
+        verify(journal, times(1)).append(any());
+    }
+
+    @Test
+    void transfer_gestreifterSenderOhneGenugGuthabenAuchInDenSlots() {
+        max.setBalance(50);
+        max.setBalanceSlots(4);
+        when(repo.debit(1L, 100L)).thenReturn(0);
+        when(repo.findById(1L)).thenReturn(Optional.of(max));
+        when(repo.slotTotal(1L)).thenReturn(20L);
+
+        Exception ex = assertThrows(InsufficientFundsException.class, () -> service.transfer(request(1L, 2L, 100)));
+
+        assertTrue(ex.getMessage().contains("Verfügbar: 0.70"), ex.getMessage());
+        verify(striped, never()).fold(any());
+    }
+
+    @Test
+    void transfer_imLedgerModusOhneDbZugriff() {
+        LedgerEngine ledger = mock(LedgerEngine.class);
+        AccountService ledgerService = new AccountService(repo, journal, idempotency, striped, metrics, transactionManager, ledger, null, 2, 5);
+
+        TransferRequest req = new TransferRequest();
+        req.setFromAccountId(1L);
+        req.setToAccountId(2L);
+        req.setAmount(80);
+
+        ledgerService.transfer(req);
+
+        verify(ledger).transfer(1L, 2L, 80L);
+        verifyNoInteractions(repo, journal, transactionManager);
+    }
+
+    @Test
+    void transferMitKey_wiederholungAusDemCacheBuchtNichts() {
+        TransferRequest req = request(1L, 2L, 80);
+        when(idempotency.scope("system", "k1")).thenReturn("system:k1");
+        when(idempotency.isCompleted("system:k1", 1L, 2L, 80L)).thenReturn(true);
+
+        assertTrue(service.transfer(req, "k1"));
+
+        // Nur der Speicherzugriff: keine Transaktion, keine Kontozeile
+        verifyNoInteractions(repo, journal, transactionManager);
+        verify(idempotency, never()).claim(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void transferMitKey_neuerKeyWirdMitDerBuchungBelegt() {
+        TransferRequest req = request(1L, 2L, 80);
+        IdempotencyKey key = new IdempotencyKey("system:k1", 1L, 2L, 80L, Instant.now());
+        when(idempotency.scope("system", "k1")).thenReturn("system:k1");
+        when(idempotency.claim("system:k1", 1L, 2L, 80L)).thenReturn(key);
+        when(repo.debit(1L, 80L)).thenReturn(1);
+        when(repo.credit(2L, 80L)).thenReturn(1);
+
+        assertFalse(service.transfer(req, "k1"));
+
+        // Schlüssel zuerst belegen, dann buchen; erst nach dem Commit in den Cache
+        InOrder order = inOrder(idempotency, repo);
+        order.verify(idempotency).claim("system:k1", 1L, 2L, 80L);
+        order.verify(repo).debit(1L, 80L);
+        order.verify(repo).credit(2L, 80L);
+        order.verify(idempotency).remember(key);
+    }
+
+    @Test
+    void transferMitKey_schonVerbuchterKeyInDerDbGiltAlsWiederholung() {
+        TransferRequest req = request(1L, 2L, 80);
+        IdempotencyKey key = new IdempotencyKey("system:k1", 1L, 2L, 80L, Instant.now());
+        when(idempotency.scope("system", "k1")).thenReturn("system:k1");
+        when(idempotency.claim("system:k1", 1L, 2L, 80L)).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotency.findCompleted("system:k1", 1L, 2L, 80L)).thenReturn(Optional.of(key));
+
+        assertTrue(service.transfer(req, "k1"));
+
+        verifyNoInteractions(repo, journal);
+        verify(idempotency, never()).remember(any());
+    }
+
+    @Test
+    void transferMitKey_gescheiterteBuchungSpeichertKeinenKey() {
+        TransferRequest req = request(1L, 2L, 80);
+        when(idempotency.scope("system", "k1")).thenReturn("system:k1");
+        when(repo.debit(1L, 80L)).thenReturn(0);
+        when(repo.findById(1L)).thenReturn(Optional.of(max));
+
+        assertThrows(RuntimeException.class, () -> service.transfer(req, "k1"));
+
+        verify(idempotency, never()).remember(any());
+    }
+
+    @Test
+    void transferMitKey_imLedgerModusGibtKeyBeiFehlerFrei() {
+        LedgerEngine ledger = mock(LedgerEngine.class);
+        AccountService ledgerService = new AccountService(repo, journal, idempotency, striped, metrics, transactionManager, ledger, null, 2, 5);
+        when(idempotency.scope("system", "k1")).thenReturn("system:k1");
+        doThrow(new RuntimeException("Nicht genügend Guthaben")).when(ledger).transfer(1L, 2L, 80L);
+
+        assertThrows(RuntimeException.class, () -> ledgerService.transfer(request(1L, 2L, 80), "k1"));
+
+        verify(idempotency).claimPending("system:k1", 1L, 2L, 80L);
+        verify(idempotency).release("system:k1");
+        verify(idempotency, never()).complete(any());
+    }
+
+    @Test
+    void transferMitKey_imLedgerModusErstNachDerBuchungVerbucht() {
+        LedgerEngine ledger = mock(LedgerEngine.class);
+        AccountService ledgerService = new AccountService(repo, journal, idempotency, striped, metrics, transactionManager, ledger, null, 2, 5);
+        IdempotencyKey key = new IdempotencyKey("system:k1", 1L, 2L, 80L, Instant.now(), IdempotencyKey.Status.PENDING);
+        when(idempotency.scope("system", "k1")).thenReturn("system:k1");
+        when(idempotency.claimPending("system:k1", 1L, 2L, 80L)).thenReturn(key);
+
+        assertFalse(ledgerService.transfer(request(1L, 2L, 80), "k1"));
+
+        // PENDING belegen, im Shard buchen, dann erst COMPLETED
+        InOrder order = inOrder(idempotency, ledger);
+        order.verify(idempotency).claimPending("system:k1", 1L, 2L, 80L);
+        order.verify(ledger).transfer(1L, 2L, 80L);
+        order.verify(idempotency).complete(key);
+        verify(idempotency, never()).claim(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void transferMitKey_wiederholungWaehrendLedgerBuchungIstKeinReplay() throws Exception {
+        // Echter IdempotencyService; die Tabelle als Map mit Primärschlüssel-Verhalten
+        Map<String, IdempotencyKey> rows = new ConcurrentHashMap<>();
+        IdempotencyKeyRepository keyRepo = mock(IdempotencyKeyRepository.class);
+        when(keyRepo.saveAndFlush(any())).thenAnswer(inv -> {
+            IdempotencyKey key = inv.getArgument(0);
+            if (rows.putIfAbsent(key.getScopedKey(), key) != null) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return key;
+        });
+        when(keyRepo.findById(any())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.<String>getArgument(0))));
+        when(keyRepo.updateStatus(any(), any())).thenAnswer(inv -> {
+            rows.get(inv.<String>getArgument(0)).setStatus(inv.getArgument(1));
+            return 1;
+        });
+        IdempotencyService keys = new IdempotencyService(keyRepo, 100, 24);
+
+        LedgerEngine ledger = mock(LedgerEngine.class);
+        CountDownLatch booking = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        doAnswer(inv -> {
+            booking.countDown();
+            commit.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(ledger).transfer(1L, 2L, 80L);
+        AccountService ledgerService = new AccountService(repo, journal, keys, striped, metrics, transactionManager, ledger, null, 2, 5);
+
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> first = client.submit(() -> ledgerService.transfer(request(1L, 2L, 80), "k1"));
+            assertTrue(booking.await(5, TimeUnit.SECONDS));
+
+            // Shard bucht noch (und könnte ablehnen): Wiederholung darf nicht "erfolgreich" melden
+            assertThrows(TransferInProgressException.class, () -> ledgerService.transfer(request(1L, 2L, 80), "k1"));
+            assertEquals(IdempotencyKey.Status.PENDING, rows.get("system:k1").getStatus());
+
+            commit.countDown();
+            assertFalse(first.get(5, TimeUnit.SECONDS));
+
+            // Jetzt verbucht: Wiederholung ist ein Replay, ohne zweite Buchung
+            assertTrue(ledgerService.transfer(request(1L, 2L, 80), "k1"));
+            assertEquals(IdempotencyKey.Status.COMPLETED, rows.get("system:k1").getStatus());
+            verify(ledger, times(1)).transfer(1L, 2L, 80L);
+            assertEquals(1, meters.timer("account.transfer", "outcome", "in_progress").count());
+        } finally {
+            client.shutdownNow();
+        }
+    }
+
+    @Test
+    void transferMitKey_imLedgerModusBehaeltKeyBeiZeitueberschreitung() {
+        LedgerEngine ledger = mock(LedgerEngine.class);
+        AccountService ledgerService = new AccountService(repo, journal, idempotency, striped, metrics, transactionManager, ledger, null, 2, 5);
+        IdempotencyKey key = new IdempotencyKey("system:k1", 1L, 2L, 80L, Instant.now());
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        when(idempotency.scope("system", "k1")).thenReturn("system:k1");
+        when(idempotency.claimPending("system:k1", 1L, 2L, 80L)).thenReturn(key);
+        doThrow(new TransferOutcomeUnknownException("Zeitüberschreitung im Ledger nach 5000 ms", outcome))
+                .when(ledger).transfer(1L, 2L, 80L);
+
+        assertThrows(TransferOutcomeUnknownException.class, () -> ledgerService.transfer(request(1L, 2L, 80), "k1"));
+        verify(idempotency, never()).release(any());
+        verify(idempotency, never()).complete(any());
+
+        // Shard bucht doch noch: Key wird verbucht, Wiederholungen mit ihm sind Replays
+        outcome.complete(null);
+        verify(idempotency, timeout(1000)).complete(key);
+        verify(idempotency, never()).release(any());
+        assertEquals(1, meters.timer("account.transfer", "outcome", "unknown").count());
+    }
+
+    @Test
+    void transferMitKey_imLedgerModusGibtKeyFreiWennShardSpaeterAblehnt() {
+        LedgerEngine ledger = mock(LedgerEngine.class);
+        AccountService ledgerService = new AccountService(repo, journal, idempotency, striped, metrics, transactionManager, ledger, null, 2, 5);
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        when(idempotency.scope("system", "k1")).thenReturn("system:k1");
+        doThrow(new TransferOutcomeUnknownException("Zeitüberschreitung im Ledger nach 5000 ms", outcome))
+                .when(ledger).transfer(1L, 2L, 80L);
+
+        assertThrows(TransferOutcomeUnknownException.class, () -> ledgerService.transfer(request(1L, 2L, 80), "k1"));
+
+        outcome.completeExceptionally(new InsufficientFundsException("Nicht genügend Guthaben"));
+        verify(idempotency, timeout(1000)).release("system:k1");
+        verify(idempotency, never()).complete(any());
+    }
+
+    @Test
+    void transfer_imOptimisticModusOhneSperreMitWiederholung() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AccountService optimistic = new AccountService(repo, journal, idempotency, striped, metrics, transactionManager, null,
+                new OptimisticRetry(registry, 3, 0, 0), 2, 5);
+        // Jeder Versuch liest frisch (nach Rollback): neue Objekte je Aufruf
+        when(repo.findAllById(List.of(1L, 2L))).thenAnswer(inv -> List.of(copy(max, 100), copy(anna, 0)));
+        // Erster Versuch kollidiert beim Flush, der zweite geht durch
+        doThrow(new OptimisticLockingFailureException("Version geändert")).doNothing().when(repo).flush();
+
+        optimistic.transfer(request(1L, 2L, 80));
+
+        assertEquals(1.0, registry.counter("account.transfer.optimistic.retries").count());
+        verify(repo, times(2)).findAllById(List.of(1L, 2L));
+        verify(repo, never()).debit(any(), anyLong());
+        verify(repo, never()).credit(any(), anyLong());
+        verify(journal, times(1)).append(any());
+    }
+
+    private static Account copy(Account source, long balance) {
+        Account a = new Account();
+        a.setId(source.getId());
+        a.setOwner(source.getOwner());
+        a.setBalance(balance);
+        return a;
+    }
+
+    private static TransferRequest request(Long from, Long to, long amount) {
+        TransferRequest req = new TransferRequest();
+        req.setFromAccountId(from);
+        req.setToAccountId(to);
+        req.setAmount(amount);
+        return req;
+    }
 }
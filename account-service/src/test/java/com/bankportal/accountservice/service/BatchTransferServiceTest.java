@@ -0,0 +1,149 @@
+package com.bankportal.accountservice.service;
+
+import com.bankportal.accountservice.dto.BatchTransferRequest;
+import com.bankportal.accountservice.dto.BatchTransferResult;
+import com.bankportal.accountservice.dto.TransferRequest;
+import com.bankportal.accountservice.model.JournalEntry;
+import com.bankportal.accountservice.repository.AccountBalanceView;
+import com.bankportal.accountservice.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für BatchTransferService (Repository gemockt).
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchTransferServiceTest {
+
+    @Mock
+    AccountRepository repo;
+
+    @Mock
+    JournalService journal;
+
+    BatchTransferService service() {
+        return new BatchTransferService(repo, journal, BatchTransferRequest.Mode.ALL_OR_NOTHING, 100, "jpa");
+    }
+
+    @Test
+    void allOrNothing_ungueltigerEintragVerwirftBatchOhneDbZugriff() {
+        BatchTransferRequest req = batch(null, transfer(1L, 2L, 10), transfer(3L, 3L, 10));
+
+        BatchTransferResult result = service().transferBatch(req);
+
+        assertFalse(result.isCommitted());
+        assertEquals(BatchTransferResult.Status.NOT_EXECUTED, result.getItems().get(0).getStatus());
+        assertEquals(BatchTransferResult.Status.INVALID, result.getItems().get(1).getStatus());
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void allOrNothing_zuWenigGuthabenSchreibtNichts() {
+        when(repo.lockBalances(anyCollection())).thenReturn(List.of(view(1L, 100), view(2L, 0), view(3L, 0)));
+
+        BatchTransferResult result = service().transferBatch(
+                batch(null, transfer(1L, 2L, 60), transfer(1L, 3L, 60)));
+
+        assertFalse(result.isCommitted());
+        assertEquals(0, result.getBooked());
+        assertEquals(BatchTransferResult.Status.NOT_EXECUTED, result.getItems().get(0).getStatus());
+        assertEquals(BatchTransferResult.Status.INSUFFICIENT_FUNDS, result.getItems().get(1).getStatus());
+        verify(repo, never()).applyBalanceDeltas(any());
+        verifyNoInteractions(journal);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void bestEffort_buchtGueltigeEintraegeAlsNettoDeltas() {
+        when(repo.lockBalances(anyCollection())).thenReturn(List.of(view(1L, 100), view(2L, 0)));
+
+        BatchTransferResult result = service().transferBatch(batch(BatchTransferRequest.Mode.BEST_EFFORT,
+                transfer(1L, 2L, 30),
+                transfer(2L, 1L, 10),
+                transfer(1L, 9L, 5),      // Empfänger fehlt
+                transfer(1L, 2L, 500)));  // zu wenig Guthaben
+
+        assertTrue(result.isCommitted());
+        assertEquals(2, result.getBooked());
+        assertEquals(2, result.getFailed());
+        assertEquals(BatchTransferResult.Status.NOT_FOUND, result.getItems().get(2).getStatus());
+        assertEquals(BatchTransferResult.Status.INSUFFICIENT_FUNDS, result.getItems().get(3).getStatus());
+
+        ArgumentCaptor<SortedMap<Long, Long>> deltas = ArgumentCaptor.forClass(SortedMap.class);
+        verify(repo).applyBalanceDeltas(deltas.capture());
+        assertEquals(-20L, deltas.getValue().get(1L));
+        assertEquals(20L, deltas.getValue().get(2L));
+        assertEquals(List.of(1L, 2L), new ArrayList<>(deltas.getValue().keySet()));
+
+        // Journal: je gebuchter Überweisung zwei Beine, fehlgeschlagene Einträge fehlen
+        ArgumentCaptor<List<JournalEntry>> legs = ArgumentCaptor.forClass(List.class);
+        verify(journal).append(legs.capture());
+        assertEquals(4, legs.getValue().size());
+        assertEquals(List.of(-30L, 30L, -10L, 10L),
+                legs.getValue().stream().map(JournalEntry::getAmount).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void sperrtKontenAufsteigendNachId() {
+        when(repo.lockBalances(anyCollection())).thenReturn(List.of(view(3L, 10), view(7L, 10), view(9L, 10)));
+
+        service().transferBatch(batch(null, transfer(9L, 3L, 1), transfer(7L, 9L, 1)));
+
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.forClass(List.class);
+        verify(repo).lockBalances(ids.capture());
+        assertEquals(List.of(3L, 7L, 9L), ids.getValue());
+    }
+
+    @Test
+    void zuGrosserBatchWirdAbgelehnt() {
+        BatchTransferService small = new BatchTransferService(repo, journal, BatchTransferRequest.Mode.ALL_OR_NOTHING, 1, "jpa");
+
+        assertThrows(RuntimeException.class,
+                () -> small.transferBatch(batch(null, transfer(1L, 2L, 1), transfer(2L, 1L, 1))));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void imLedgerModusNichtVerfuegbar() {
+        BatchTransferService ledger = new BatchTransferService(repo, journal, BatchTransferRequest.Mode.ALL_OR_NOTHING, 100, "ledger");
+
+        assertThrows(RuntimeException.class, () -> ledger.transferBatch(batch(null, transfer(1L, 2L, 1))));
+        verifyNoInteractions(repo);
+    }
+
+    private static BatchTransferRequest batch(BatchTransferRequest.Mode mode, TransferRequest... transfers) {
+        BatchTransferRequest req = new BatchTransferRequest();
+        req.setMode(mode);
+        req.setTransfers(List.of(transfers));
+        return req;
+    }
+
+    private static TransferRequest transfer(Long from, Long to, long amount) {
+        TransferRequest t = new TransferRequest();
+        t.setFromAccountId(from);
+        t.setToAccountId(to);
+        t.setAmount(amount);
+        return t;
+    }
+
+    private static AccountBalanceView view(Long id, long balance) {
+        return new AccountBalanceView() {
+            public Long getId() { return id; }
+            public long getBalance() { return balance; }
+            public int getBalanceSlots() { return 0; }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.bankportal.accountservice.service;
+
+import com.bankportal.accountservice.exception.IdempotencyKeyReusedException;
+import com.bankportal.accountservice.exception.TransferInProgressException;
+import com.bankportal.accountservice.model.IdempotencyKey;
+import com.bankportal.accountservice.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für IdempotencyService (Repository gemockt, echter Caffeine-Cache).
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    IdempotencyKeyRepository repo;
+
+    IdempotencyService service() {
+        return new IdempotencyService(repo, 10, 24);
+    }
+
+    @Test
+    void scope_trenntBenutzerUndPrueftLaenge() {
+        IdempotencyService service = service();
+
+        assertEquals("anna:abc", service.scope("anna", "abc"));
+        assertThrows(IllegalArgumentException.class, () -> service.scope("anna", " "));
+        assertThrows(IllegalArgumentException.class, () -> service.scope("anna", "x".repeat(101)));
+    }
+
+    @Test
+    void isCompleted_nurAusDemSpeicher() {
+        IdempotencyService service = service();
+        assertFalse(service.isCompleted("anna:k", 1L, 2L, 50));
+
+        service.remember(new IdempotencyKey("anna:k", 1L, 2L, 50, Instant.now()));
+
+        assertTrue(service.isCompleted("anna:k", 1L, 2L, 50));
+        assertThrows(IdempotencyKeyReusedException.class, () -> service.isCompleted("anna:k", 1L, 2L, 51));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void findCompleted_laedtAusDerDbUndMerktSichDenKey() {
+        IdempotencyService service = service();
+        when(repo.findById("anna:k")).thenReturn(Optional.of(new IdempotencyKey("anna:k", 1L, 2L, 50, Instant.now())));
+
+        assertTrue(service.findCompleted("anna:k", 1L, 2L, 50).isPresent());
+
+        assertTrue(service.isCompleted("anna:k", 1L, 2L, 50));
+        verify(repo, times(1)).findById("anna:k");
+    }
+
+    @Test
+    void findCompleted_offenerKeyIstKeinReplay() {
+        IdempotencyService service = service();
+        when(repo.findById("anna:k")).thenReturn(Optional.of(
+                new IdempotencyKey("anna:k", 1L, 2L, 50, Instant.now(), IdempotencyKey.Status.PENDING)));
+
+        assertThrows(TransferInProgressException.class, () -> service.findCompleted("anna:k", 1L, 2L, 50));
+        // Anderer Inhalt bleibt ein Missbrauch des Keys, auch während die Buchung läuft
+        assertThrows(IdempotencyKeyReusedException.class, () -> service.findCompleted("anna:k", 1L, 2L, 51));
+        assertFalse(service.isCompleted("anna:k", 1L, 2L, 50));
+    }
+
+    @Test
+    void complete_setztStatusUndMerktSichDenKey() {
+        IdempotencyService service = service();
+        IdempotencyKey key = new IdempotencyKey("anna:k", 1L, 2L, 50, Instant.now(), IdempotencyKey.Status.PENDING);
+
+        service.complete(key);
+
+        verify(repo).updateStatus("anna:k", IdempotencyKey.Status.COMPLETED);
+        assertTrue(key.isCompleted());
+        assertTrue(service.isCompleted("anna:k", 1L, 2L, 50));
+    }
+}
@@ -0,0 +1,97 @@
+package com.bankportal.accountservice.service;
+
+import com.bankportal.accountservice.dto.JournalCursor;
+import com.bankportal.accountservice.dto.JournalPage;
+import com.bankportal.accountservice.exception.AccountNotFoundException;
+import com.bankportal.accountservice.model.JournalEntry;
+import com.bankportal.accountservice.repository.AccountRepository;
+import com.bankportal.accountservice.repository.JournalEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für die Umsatzhistorie (Repositories gemockt, ohne Security-Kontext = "system").
+ */
+@ExtendWith(MockitoExtension.class)
+class JournalServiceTest {
+
+    @Mock
+    JournalEntryRepository journalRepo;
+
+    @Mock
+    AccountRepository accountRepo;
+
+    JournalService service;
+
+    final Instant to = Instant.parse("2026-03-01T00:00:00Z");
+    final Instant from = to.minus(Duration.ofDays(10));
+
+    @BeforeEach
+    void setUp() {
+        // Fenster: Standard 30 Tage, Maximum 60; Seitengröße: Standard 2, Maximum 3
+        service = new JournalService(journalRepo, accountRepo, 30, 60, 2, 3);
+    }
+
+    @Test
+    void history_liefertSeiteUndCursorDesLetztenEintrags() {
+        when(accountRepo.existsByIdAndUsername(1L, "system")).thenReturn(true);
+        when(journalRepo.findPage(1L, from, to, to, Long.MAX_VALUE, 3)).thenReturn(List.of(
+                entry(12L, to.minusSeconds(1)), entry(11L, to.minusSeconds(2)), entry(10L, to.minusSeconds(3))));
+
+        JournalPage page = service.history(1L, from, to, null, null);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(-500L, page.getItems().get(0).getAmount());
+        JournalCursor next = JournalCursor.decode(page.getNextCursor());
+        assertEquals(11L, next.getId());
+        assertEquals(to.minusSeconds(2), next.getCreatedAt());
+    }
+
+    @Test
+    void history_folgtDemCursorBisZurLetztenSeite() {
+        Instant at = to.minusSeconds(2);
+        when(accountRepo.existsByIdAndUsername(1L, "system")).thenReturn(true);
+        when(journalRepo.findPage(1L, from, to, at, 11L, 4)).thenReturn(List.of(entry(10L, to.minusSeconds(3))));
+
+        JournalPage page = service.history(1L, from, to, new JournalCursor(at, 11L).encode(), 50);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void history_fremdesKontoGiltAlsNichtGefunden() {
+        when(accountRepo.existsByIdAndUsername(1L, "system")).thenReturn(false);
+
+        assertThrows(AccountNotFoundException.class, () -> service.history(1L, from, to, null, null));
+        verifyNoInteractions(journalRepo);
+    }
+
+    @Test
+    void history_lehntUngueltigeFensterAb() {
+        assertThrows(IllegalArgumentException.class, () -> service.history(1L, to, from, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.history(1L, to.minus(Duration.ofDays(61)), to, null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.history(1L, from, to, null, 0));
+        verify(journalRepo, never()).findPage(anyLong(), any(), any(), any(), anyLong(), anyInt());
+    }
+
+    private static JournalEntry entry(long id, Instant at) {
+        JournalEntry e = new JournalEntry(1L, 2L, -500L, at);
+        e.setId(id);
+        return e;
+    }
+}
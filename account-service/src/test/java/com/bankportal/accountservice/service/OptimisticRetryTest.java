@@ -0,0 +1,61 @@
+package com.bankportal.accountservice.service;
+
+import com.bankportal.accountservice.exception.TransferConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Wiederholung bei Versionskonflikten: Anzahl Versuche und Metriken.
+ */
+class OptimisticRetryTest {
+
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    final OptimisticRetry retry = new OptimisticRetry(registry, 3, 1, 2);
+
+    @Test
+    void wiederholtBisZumErfolg() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("Version geändert");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, registry.counter("account.transfer.optimistic.retries").count());
+        assertEquals(0.0, registry.counter("account.transfer.optimistic.giveups").count());
+    }
+
+    @Test
+    void gibtNachMaxAttemptsAuf() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(TransferConflictException.class, () -> retry.execute(() -> {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("Version geändert");
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1.0, registry.counter("account.transfer.optimistic.giveups").count());
+    }
+
+    @Test
+    void andereFehlerWerdenNichtWiederholt() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.execute(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("kein Konflikt");
+        }));
+
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,104 @@
+package com.bankportal.accountservice.service;
+
+import com.bankportal.accountservice.exception.AccountNotFoundException;
+import com.bankportal.accountservice.model.Account;
+import com.bankportal.accountservice.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für gestreifte Konten (Repository gemockt, ohne Security-Kontext = "system").
+ */
+@ExtendWith(MockitoExtension.class)
+class StripedBalanceServiceTest {
+
+    @Mock
+    AccountRepository repo;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    StripedBalanceService service;
+
+    @BeforeEach
+    void setUp() {
+        // Höchstens 8 Slots je Konto
+        service = new StripedBalanceService(repo, transactionManager, 8, "jpa");
+    }
+
+    @Test
+    void configure_faltetVorhandeneSlotsUndLegtNeueAn() {
+        when(repo.existsByIdAndUsername(5L, "system")).thenReturn(true);
+
+        service.configure(5L, 4);
+
+        InOrder order = inOrder(repo);
+        order.verify(repo).foldSlots(5L);
+        order.verify(repo).replaceSlots(5L, 4);
+        assertEquals(4, service.slotsOf(5L));
+
+        service.configure(5L, 0);
+        assertEquals(0, service.slotsOf(5L));
+    }
+
+    @Test
+    void configure_prueftAnzahlEigentuemerUndModus() {
+        assertThrows(IllegalArgumentException.class, () -> service.configure(5L, 9));
+        assertThrows(IllegalArgumentException.class, () -> service.configure(5L, -1));
+        assertThrows(AccountNotFoundException.class, () -> service.configure(6L, 2));
+        assertThrows(RuntimeException.class,
+                () -> new StripedBalanceService(repo, transactionManager, 8, "ledger").configure(5L, 2));
+        verify(repo, never()).replaceSlots(anyLong(), anyInt());
+    }
+
+    @Test
+    void creditSlot_verteiltReihumUndMeldetFehlendeSlots() {
+        when(repo.creditSlot(eq(5L), anyInt(), eq(10L))).thenReturn(1);
+
+        for (int i = 0; i < 6; i++) {
+            assertTrue(service.creditSlot(5L, 3, 10L));
+        }
+
+        verify(repo, times(2)).creditSlot(5L, 0, 10L);
+        verify(repo, times(2)).creditSlot(5L, 1, 10L);
+        verify(repo, times(2)).creditSlot(5L, 2, 10L);
+
+        when(repo.creditSlot(7L, 0, 10L)).thenReturn(0);
+        assertFalse(service.creditSlot(7L, 1, 10L));
+    }
+
+    @Test
+    void foldAll_laedtGestreifteKontenUndSperrtNurBeiGuthabenInDenSlots() {
+        when(repo.findByBalanceSlotsGreaterThan(0)).thenReturn(List.of(striped(5L, 4), striped(6L, 2)));
+        when(repo.slotTotal(5L)).thenReturn(300L);
+        when(repo.slotTotal(6L)).thenReturn(0L);
+        when(repo.foldSlots(5L)).thenReturn(300L);
+
+        service.foldAll();
+
+        assertEquals(4, service.slotsOf(5L));
+        assertEquals(2, service.slotsOf(6L));
+        verify(repo).foldSlots(5L);
+        verify(repo, never()).foldSlots(6L);
+    }
+
+    private static Account striped(Long id, int slots) {
+        Account a = new Account();
+        a.setId(id);
+        a.setBalanceSlots(slots);
+        return a;
+    }
+}
@@ -1,11 +1,14 @@
 package com.bankportal.authservice;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.bankportal.authservice.security.PasswordHashingBusyException;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -14,6 +17,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage());
     }
 
+    // BCrypt-Pool ausgelastet: Last abwerfen statt Tomcat-Threads zu blockieren
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handleHashingBusy(PasswordHashingBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGeneral(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Fehler: " + ex.getMessage());
@@ -0,0 +1,82 @@
+package com.bankportal.authservice.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.bankportal.security.JwtKeys;
+import com.bankportal.security.JwtSigner;
+import com.bankportal.security.JwtVerifier;
+import com.bankportal.security.KeyRing;
+import com.bankportal.security.KidKeyLocator;
+
+/**
+ * Signer und Verifier werden einmal beim Start gebaut (Schlüssel + Parser) und von
+ * JwtService, JwtUtil und JwtFilter gemeinsam genutzt.
+ *
+ * Tokens werden mit RS256 signiert (kid im Header); die öffentlichen Schlüssel stehen unter
+ * /.well-known/jwks.json, damit der Account-Service lokal prüfen kann. HS256-Tokens mit jwt.secret
+ * werden weiter akzeptiert, solange jwt.hs256.accept gesetzt ist (Übergang, bis alte Tokens abgelaufen sind).
+ */
+@Configuration
+public class JwtConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtConfig.class);
+
+    @Value("${jwt.secret:mysecretkeymysecretkeymysecretkey123456}")
+    private String secret;
+
+    @Value("${jwt.expiration-ms:300000}")
+    private long expirationMs;
+
+    // PKCS#8-PEM-Dateien, kommagetrennt; die erste signiert, alle stehen im JWKS
+    @Value("${jwt.rsa.private-keys:}")
+    private List<String> privateKeyFiles;
+
+    @Value("${jwt.hs256.accept:true}")
+    private boolean acceptHs256;
+
+    @Bean
+    public KeyRing jwtKeyRing() {
+        List<String> pems = new ArrayList<>();
+        for (String file : privateKeyFiles) {
+            if (file.isBlank()) {
+                continue;
+            }
+            try {
+                pems.add(Files.readString(Path.of(file.trim())));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Signaturschlüssel nicht lesbar: " + file, e);
+            }
+        }
+        if (pems.isEmpty()) {
+            // Ohne gemeinsame Schlüssel erkennt eine zweite Instanz (oder ein Neustart) die Tokens nicht
+            log.warn("⚠️ jwt.rsa.private-keys nicht gesetzt: temporärer RSA-Schlüssel (nur Entwicklung)");
+            return KeyRing.generate();
+        }
+        return KeyRing.fromPem(pems);
+    }
+
+    @Bean
+    public JwtSigner jwtSigner(KeyRing keyRing) {
+        return new JwtSigner(keyRing, "auth-service", Duration.ofMillis(expirationMs));
+    }
+
+    @Bean
+    public JwtVerifier jwtVerifier(KeyRing keyRing) {
+        // Eigene Schlüssel liegen im Speicher; die Quelle ändert sich nicht, daher lange maxAge
+        KidKeyLocator locator = new KidKeyLocator(keyRing::publicKeys,
+                acceptHs256 ? JwtKeys.hmacSha(secret) : null, Duration.ofDays(1), Duration.ofSeconds(5));
+        return new JwtVerifier(locator, Duration.ZERO);
+    }
+}
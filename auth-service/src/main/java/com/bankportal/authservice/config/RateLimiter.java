@@ -0,0 +1,40 @@
+package com.bankportal.authservice.config;
+
+/**
+ * Entscheidet pro Request, ob (IP, Endpunktklasse) noch ein Token hat.
+ * Lokal: {@link TokenBucketLimiter}; über alle Replikas: {@link RedisRateLimiter}.
+ */
+public interface RateLimiter {
+
+    Decision tryAcquire(String client, EndpointClass endpoint);
+
+    /** Endpunktklassen mit eigener Kapazität (Tokens pro Fenster). */
+    enum EndpointClass {
+        LOGIN(5), REGISTER(3), VALIDATE(1000), DEFAULT(10);
+
+        final int capacity;
+
+        EndpointClass(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int capacity() {
+            return capacity;
+        }
+
+        public static EndpointClass of(String uri) {
+            if (uri.contains("/login")) {
+                return LOGIN;
+            } else if (uri.contains("/register")) {
+                return REGISTER;
+            } else if (uri.contains("/validate")) {
+                return VALIDATE;
+            }
+            return DEFAULT;
+        }
+    }
+
+    /** Ergebnis einer Anfrage; nanosUntilFull/nanosUntilRetry für die RateLimit-Header. */
+    record Decision(boolean allowed, int limit, int remaining, long nanosUntilRetry, long nanosUntilFull) {
+    }
+}
@@ -1,88 +1,138 @@
 package com.bankportal.authservice.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import com.bankportal.authservice.config.RateLimiter.Decision;
+import com.bankportal.authservice.config.RateLimiter.EndpointClass;
+import com.bankportal.authservice.service.AuthMetrics;
+
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class RateLimitingConfig implements WebMvcConfigurer {
 
+    private static final Logger log = LoggerFactory.getLogger(RateLimitingConfig.class);
+
+    // Harte Obergrenze für gehaltene Buckets (IP x Endpunktklasse)
+    @Value("${auth.rate-limit.max-entries:100000}")
+    private long maxEntries;
+
+    // Gemeinsame Limits aller Replikas über Redis (sonst pro Instanz)
+    @Value("${auth.rate-limit.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${auth.rate-limit.redis.batch-max:20}")
+    private int redisBatchMax;
+
+    @Value("${auth.rate-limit.redis.lease-ms:1000}")
+    private long redisLeaseMs;
+
+    @Value("${auth.rate-limit.redis.retry-ms:5000}")
+    private long redisRetryMs;
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+    private final ObjectProvider<AuthMetrics> metrics;
+
+    public RateLimitingConfig(ObjectProvider<StringRedisTemplate> redisTemplate, ObjectProvider<AuthMetrics> metrics) {
+        this.redisTemplate = redisTemplate;
+        this.metrics = metrics;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        TokenBucketLimiter local = new TokenBucketLimiter(RateLimitingInterceptor.WINDOW, maxEntries);
+        if (!redisEnabled) {
+            return local;
+        }
+        StringRedisTemplate template = redisTemplate.getIfAvailable();
+        if (template == null) {
+            log.warn("⚠️ auth.rate-limit.redis.enabled ohne Redis-Verbindung – lokale Limits");
+            return local;
+        }
+        log.info("🌐 Rate Limiting über Redis (Batch bis {}, Lease {} ms)", redisBatchMax, redisLeaseMs);
+        return new RedisRateLimiter(new RedisTokenStore(template), local, RateLimitingInterceptor.WINDOW,
+                maxEntries, redisBatchMax, Duration.ofMillis(redisLeaseMs), Duration.ofMillis(redisRetryMs));
+    }
+
     @Bean
     public RateLimitingInterceptor rateLimitingInterceptor() {
-        return new RateLimitingInterceptor();
+        return new RateLimitingInterceptor(rateLimiter(), metrics.getIfAvailable(() -> AuthMetrics.NOOP));
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(rateLimitingInterceptor())
                 .addPathPatterns("/api/auth/**")
-                .excludePathPatterns("/api/auth/validate", "/actuator/**");
+                .excludePathPatterns("/api/auth/validate", "/api/auth/revocations", "/actuator/**");
     }
 
     public static class RateLimitingInterceptor implements HandlerInterceptor {
         
-        // Rate limiting storage: IP -> Request count
-        private final ConcurrentHashMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
-        
-        // Configuration
-        private static final int MAX_REQUESTS_PER_MINUTE = 10;
-        private static final int WINDOW_SIZE_MINUTES = 1;
+        // Kapazität pro Endpunktklasse siehe TokenBucketLimiter.EndpointClass; volle Auffüllung in einem Fenster
+        static final Duration WINDOW = Duration.ofMinutes(1);
+        private static final long DEFAULT_MAX_ENTRIES = 100_000;
         
-        // Scheduler for cleanup
-        private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+        private final RateLimiter limiter;
+        private final AuthMetrics metrics;
         
         public RateLimitingInterceptor() {
-            // Clean up old entries every minute
-            scheduler.scheduleAtFixedRate(this::cleanupOldEntries, 1, 1, TimeUnit.MINUTES);
+            this(new TokenBucketLimiter(WINDOW, DEFAULT_MAX_ENTRIES));
+        }
+        
+        public RateLimitingInterceptor(RateLimiter limiter) {
+            this(limiter, AuthMetrics.NOOP);
+        }
+        
+        public RateLimitingInterceptor(RateLimiter limiter, AuthMetrics metrics) {
+            this.limiter = limiter;
+            this.metrics = metrics;
         }
 
         @Override
         public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
             
-            String clientIp = getClientIpAddress(request);
-            String endpoint = request.getRequestURI();
-            
-            // Different limits for different endpoints
-            int maxRequests = getMaxRequestsForEndpoint(endpoint);
+            // Async-Login/Register: der Re-Dispatch mit dem Ergebnis ist kein neuer Request
+            if (request.getDispatcherType() == DispatcherType.ASYNC) {
+                return true;
+            }
             
-            // Get current request count for this IP
-            AtomicInteger requestCount = requestCounts.computeIfAbsent(clientIp, k -> new AtomicInteger(0));
+            String clientIp = getClientIpAddress(request);
+            EndpointClass endpoint = EndpointClass.of(request.getRequestURI());
+            Decision decision = limiter.tryAcquire(clientIp, endpoint);
             
-            int currentCount = requestCount.incrementAndGet();
+            response.setHeader("X-RateLimit-Limit", String.valueOf(decision.limit()));
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+            // Zeitpunkt (ms), zu dem der Bucket wieder voll ist
+            response.setHeader("X-RateLimit-Reset", String.valueOf(
+                    System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(decision.nanosUntilFull())));
             
-            if (currentCount > maxRequests) {
+            if (!decision.allowed()) {
                 // Rate limit exceeded - HTTP 429 Too Many Requests
+                metrics.rateLimited(endpoint);
+                long retryAfter = Math.max(1, (decision.nanosUntilRetry() + 999_999_999L) / 1_000_000_000L);
+                response.setHeader("Retry-After", String.valueOf(retryAfter));
                 response.setStatus(429);
                 response.setContentType("application/json");
                 response.getWriter().write(String.format(
-                    "{\"error\":\"Rate limit exceeded\",\"limit\":%d,\"window\":\"%d minutes\",\"retry_after\":60}",
-                    maxRequests, WINDOW_SIZE_MINUTES
+                    "{\"error\":\"Rate limit exceeded\",\"limit\":%d,\"window\":\"%d minutes\",\"retry_after\":%d}",
+                    decision.limit(), WINDOW.toMinutes(), retryAfter
                 ));
-                
-                // Add rate limiting headers
-                response.setHeader("X-RateLimit-Limit", String.valueOf(maxRequests));
-                response.setHeader("X-RateLimit-Remaining", "0");
-                response.setHeader("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() + 60000));
-                response.setHeader("Retry-After", "60");
-                
                 return false;
             }
             
-            // Add rate limiting headers for successful requests
-            response.setHeader("X-RateLimit-Limit", String.valueOf(maxRequests));
-            response.setHeader("X-RateLimit-Remaining", String.valueOf(maxRequests - currentCount));
-            response.setHeader("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() + 60000));
-            
             return true;
         }
         
@@ -100,23 +150,5 @@ public class RateLimitingConfig implements WebMvcConfigurer {
             
             return request.getRemoteAddr();
         }
-        
-        private int getMaxRequestsForEndpoint(String endpoint) {
-            // Different rate limits for different endpoints
-            if (endpoint.contains("/login")) {
-                return 5; // Stricter limit for login attempts
-            } else if (endpoint.contains("/register")) {
-                return 3; // Very strict for registration
-            } else if (endpoint.contains("/validate")) {
-                return 1000; // High limit for internal validation
-            }
-            
-            return MAX_REQUESTS_PER_MINUTE; // Default limit
-        }
-        
-        private void cleanupOldEntries() {
-            // Reset all counters every minute (sliding window)
-            requestCounts.clear();
-        }
     }
 }
@@ -0,0 +1,150 @@
+package com.bankportal.authservice.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rate Limiting über alle Replikas: die Buckets liegen in Redis (ein Lua-Skript pro Reservierung),
+ * damit das Limit nicht mit der Anzahl der auth-service-Instanzen multipliziert wird.
+ *
+ * Near-Cache: pro Redis-Aufruf werden bis zu batch-max Tokens auf einmal reserviert (höchstens ein
+ * Zehntel der Kapazität, also 1 für Login/Register) und lokal verbraucht, bis die Lease abläuft.
+ * Nicht verbrauchte Tokens verfallen – das Limit wird dadurch nur strenger, nie lockerer.
+ * Eine Ablehnung wird bis zum nächsten freien Token lokal gemerkt, so kostet ein Angreifer keine
+ * Redis-Aufrufe. Ist Redis nicht erreichbar, gelten für retry-ms die lokalen Limits.
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    /** Atomare Reservierung im gemeinsamen Bucket (Redis oder Ersatz im Test). */
+    interface TokenStore {
+        Grant reserve(String bucket, long intervalMicros, int capacity, int wanted);
+    }
+
+    /** granted = 0: abgelehnt, microsUntilRetry bis zum nächsten Token. */
+    record Grant(int granted, long microsUntilRetry, long microsUntilFull, int remaining) {
+    }
+
+    private record Key(String client, EndpointClass endpoint) {
+    }
+
+    /** Lokal reservierte Tokens bzw. gemerkte Ablehnung (denied) bis validUntil. */
+    private static final class Lease {
+        final AtomicInteger tokens;
+        final boolean denied;
+        final long validUntil;
+        final int remoteRemaining;
+        final long fullAt;
+
+        Lease(int tokens, boolean denied, long validUntil, int remoteRemaining, long fullAt) {
+            this.tokens = new AtomicInteger(tokens);
+            this.denied = denied;
+            this.validUntil = validUntil;
+            this.remoteRemaining = remoteRemaining;
+            this.fullAt = fullAt;
+        }
+    }
+
+    private final TokenStore store;
+    private final RateLimiter fallback;
+    private final long windowMicros;
+    private final int batchMax;
+    private final long leaseNanos;
+    private final long retryNanos;
+    private final Ticker ticker;
+    private final Cache<Key, Lease> leases;
+
+    private volatile long redisDownUntil;
+    private volatile boolean redisDown;
+
+    public RedisRateLimiter(TokenStore store, RateLimiter fallback, Duration window, long maxEntries,
+            int batchMax, Duration lease, Duration retry) {
+        this(store, fallback, window, maxEntries, batchMax, lease, retry, Ticker.systemTicker());
+    }
+
+    RedisRateLimiter(TokenStore store, RateLimiter fallback, Duration window, long maxEntries,
+            int batchMax, Duration lease, Duration retry, Ticker ticker) {
+        this.store = store;
+        this.fallback = fallback;
+        this.windowMicros = TimeUnit.NANOSECONDS.toMicros(window.toNanos());
+        this.batchMax = Math.max(1, batchMax);
+        this.leaseNanos = lease.toNanos();
+        this.retryNanos = retry.toNanos();
+        this.ticker = ticker;
+        // Ablehnungen gelten höchstens ein Fenster lang, Leases kürzer
+        this.leases = Caffeine.newBuilder()
+                .expireAfterWrite(window.toNanos(), TimeUnit.NANOSECONDS)
+                .maximumSize(maxEntries)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public Decision tryAcquire(String client, EndpointClass endpoint) {
+        long now = ticker.read();
+        if (redisDown && now - redisDownUntil < 0) {
+            return fallback.tryAcquire(client, endpoint);
+        }
+        int capacity = endpoint.capacity;
+        Key key = new Key(client, endpoint);
+
+        Lease lease = leases.getIfPresent(key);
+        if (lease != null && now - lease.validUntil < 0) {
+            if (lease.denied) {
+                // Gemerkte Ablehnung: bis zum nächsten Token kein Redis-Aufruf
+                return new Decision(false, capacity, 0, lease.validUntil - now, lease.fullAt - now);
+            }
+            int left = lease.tokens.getAndDecrement();
+            if (left > 0) {
+                return new Decision(true, capacity, left - 1 + lease.remoteRemaining, 0, lease.fullAt - now);
+            }
+        }
+
+        Grant grant;
+        try {
+            grant = store.reserve(endpoint.name().toLowerCase() + ":" + client,
+                    windowMicros / capacity, capacity, batch(capacity));
+        } catch (RuntimeException e) {
+            markDown(now, e);
+            return fallback.tryAcquire(client, endpoint);
+        }
+        markUp();
+
+        long fullAt = now + TimeUnit.MICROSECONDS.toNanos(grant.microsUntilFull());
+        if (grant.granted() <= 0) {
+            long retryAt = now + TimeUnit.MICROSECONDS.toNanos(grant.microsUntilRetry());
+            leases.put(key, new Lease(0, true, retryAt, 0, fullAt));
+            return new Decision(false, capacity, 0, retryAt - now, fullAt - now);
+        }
+        leases.put(key, new Lease(grant.granted() - 1, false, now + leaseNanos, grant.remaining(), fullAt));
+        return new Decision(true, capacity, grant.granted() - 1 + grant.remaining(), 0, fullAt - now);
+    }
+
+    private int batch(int capacity) {
+        return Math.max(1, Math.min(batchMax, capacity / 10));
+    }
+
+    private void markDown(long now, RuntimeException e) {
+        redisDownUntil = now + retryNanos;
+        if (!redisDown) {
+            redisDown = true;
+            log.warn("⚠️ Redis für Rate Limiting nicht erreichbar, lokale Limits aktiv: {}", e.getMessage());
+        }
+    }
+
+    private void markUp() {
+        if (redisDown) {
+            redisDown = false;
+            log.info("✅ Redis für Rate Limiting wieder erreichbar");
+        }
+    }
+}
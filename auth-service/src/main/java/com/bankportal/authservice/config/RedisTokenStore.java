@@ -0,0 +1,34 @@
+package com.bankportal.authservice.config;
+
+import java.util.List;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/** Reserviert Tokens über scripts/rate_limit.lua (EVALSHA, ein Roundtrip pro Reservierung). */
+class RedisTokenStore implements RedisRateLimiter.TokenStore {
+
+    private static final String PREFIX = "auth:ratelimit:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/rate_limit.lua"), List.class);
+
+    private final StringRedisTemplate redis;
+
+    RedisTokenStore(StringRedisTemplate redis) {
+        this.redis = redis;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public RedisRateLimiter.Grant reserve(String bucket, long intervalMicros, int capacity, int wanted) {
+        List<Long> r = redis.execute(SCRIPT, List.of(PREFIX + bucket),
+                Long.toString(intervalMicros), Integer.toString(capacity), Integer.toString(wanted));
+        if (r == null || r.size() < 4) {
+            throw new IllegalStateException("Unerwartete Antwort vom Rate-Limit-Skript: " + r);
+        }
+        return new RedisRateLimiter.Grant(r.get(0).intValue(), r.get(1), r.get(2), r.get(3).intValue());
+    }
+}
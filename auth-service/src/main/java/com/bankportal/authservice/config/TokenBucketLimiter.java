@@ -0,0 +1,71 @@
+package com.bankportal.authservice.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Token Bucket pro (IP, Endpunktklasse), ohne Locks und ohne Scheduler.
+ *
+ * Der Zustand eines Buckets ist ein einziger Zeitstempel: der Zeitpunkt, zu dem er wieder voll wäre.
+ * Die Tokens ergeben sich daraus lazy beim nächsten Zugriff (GCRA); ein Request ist ein CAS.
+ * Da ein Bucket nach einem Fenster ohne Zugriff ohnehin voll ist, verliert das Entfernen inaktiver
+ * Einträge nichts; maxEntries begrenzt den Speicher hart (bei Überlauf fliegen die ältesten raus).
+ */
+public class TokenBucketLimiter implements RateLimiter {
+
+    private record Key(String client, EndpointClass endpoint) {
+    }
+
+    private final long windowNanos;
+    private final Ticker ticker;
+    private final Cache<Key, AtomicLong> buckets;
+
+    public TokenBucketLimiter(Duration window, long maxEntries) {
+        this(window, maxEntries, Ticker.systemTicker());
+    }
+
+    TokenBucketLimiter(Duration window, long maxEntries, Ticker ticker) {
+        this.windowNanos = window.toNanos();
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(windowNanos, TimeUnit.NANOSECONDS)
+                .maximumSize(maxEntries)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public Decision tryAcquire(String client, EndpointClass endpoint) {
+        int capacity = endpoint.capacity;
+        long interval = windowNanos / capacity;
+        long burst = interval * capacity;
+        // Neuer Bucket ist voll: "voll ab" liegt in der Vergangenheit
+        AtomicLong fullAt = buckets.get(new Key(client, endpoint), k -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = ticker.read();
+            long current = fullAt.get();
+            long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long next = base + interval;
+            long debt = next - now;
+            if (debt > burst) {
+                // Kein Token: frühestens in (debt - burst) ns wieder eins
+                return new Decision(false, capacity, 0, debt - burst, base - now);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return new Decision(true, capacity, (int) ((burst - debt) / interval), 0, debt);
+            }
+        }
+    }
+
+    /** Anzahl gehaltener Buckets (für Tests/Monitoring). */
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,42 @@
+package com.bankportal.authservice.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bankportal.authservice.dto.UserImportResult;
+import com.bankportal.authservice.service.UserImportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Benutzerverwaltung (nur ROLE_ADMIN)")
+public class AdminUserController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final UserImportService userImportService;
+
+    @PostMapping(value = "/import", consumes = { "text/csv", NDJSON }, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Benutzer-Massenimport",
+        description = "CSV (username,password[,role], Kopfzeile optional) oder NDJSON ({\"username\",\"password\",\"role\"}). "
+            + "Der Body wird gestreamt; Antwort mit Ergebnis pro Zeile (CREATED, DUPLICATE, INVALID, FAILED)."
+    )
+    public UserImportResult importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        UserImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? UserImportService.Format.NDJSON : UserImportService.Format.CSV;
+        return userImportService.importUsers(body, format);
+    }
+}
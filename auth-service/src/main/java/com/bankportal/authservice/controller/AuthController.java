@@ -3,9 +3,13 @@ package com.bankportal.authservice.controller;
 
 import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,8 +18,10 @@ import lombok.RequiredArgsConstructor;
 
 import com.bankportal.authservice.dto.LoginRequest;
 import com.bankportal.authservice.dto.LoginResponse;
+import com.bankportal.authservice.dto.RefreshRequest;
 import com.bankportal.authservice.dto.RegisterRequest;
 import com.bankportal.authservice.model.UserEntity;
+import com.bankportal.authservice.security.PasswordHashingBusyException;
 import com.bankportal.authservice.service.AuthService;
 
 @RestController
@@ -27,31 +33,63 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping(value = "/register", consumes = "application/json", produces = "text/plain")
-    @Operation(summary = "Registrieren", description = "Erzeugt einen neuen Benutzer", security = {})
-    public ResponseEntity<String> register(@Valid @RequestBody RegisterRequest req) {
+    @Operation(summary = "Registrieren", description = "Erzeugt einen neuen Benutzer (503, wenn das Hashing ausgelastet ist)", security = {})
+    public CompletableFuture<ResponseEntity<String>> register(@Valid @RequestBody RegisterRequest req) {
         // Delegiere an Service, dort wird Validierung + Encoding durchgeführt
         UserEntity newUser = new UserEntity();
         newUser.setUsername(req.getUsername());
         // Rohes Passwort setzen; Service encodiert und setzt ROLE_USER
         newUser.setPassword(req.getPassword());
 
-        authService.register(newUser);
-
-        return ResponseEntity
-                .created(URI.create("/api/users"))
-                .body("✅ Benutzer erfolgreich registriert");
+        // Asynchron: der Tomcat-Thread ist frei, solange BCrypt rechnet; Fehler -> GlobalExceptionHandler
+        return authService.register(newUser)
+                .thenApply(saved -> ResponseEntity
+                        .created(URI.create("/api/users"))
+                        .body("✅ Benutzer erfolgreich registriert"));
     }
 
     @PostMapping(value = "/login", consumes = "application/json", produces = "application/json")
-    @Operation(summary = "Login", description = "Gibt JWT zurück", security = {})
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    @Operation(summary = "Login", description = "Gibt Access Token (kurzlebig) und Refresh Token zurück (503, wenn das Hashing ausgelastet ist)", security = {})
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        CompletableFuture<LoginResponse> login;
         try {
-            LoginResponse loginResponse = authService.login(request);
-            return ResponseEntity.ok(loginResponse);
+            login = authService.login(request);
         } catch (Exception e) {
-            // Keine Details zum Grund (Timing-/User-Leak vermeiden)
+            login = CompletableFuture.failedFuture(e);
+        }
+        return login.<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof PasswordHashingBusyException) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body(Map.of("error", "⏳ Anmeldung derzeit überlastet, bitte erneut versuchen"));
+                    }
+                    // Keine Details zum Grund (Timing-/User-Leak vermeiden)
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                            .body(Map.of("error", "❌ Login fehlgeschlagen"));
+                });
+    }
+
+    @PostMapping(value = "/refresh", consumes = "application/json", produces = "application/json")
+    @Operation(summary = "Token erneuern", description = "Tauscht ein Refresh Token (einmal verwendbar) gegen ein neues Token-Paar", security = {})
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        try {
+            return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+        } catch (BadCredentialsException e) {
+            // Unbekannt, abgelaufen oder wiederverwendet – der Client muss sich neu anmelden
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "❌ Login fehlgeschlagen"));
+                    .body(Map.of("error", "❌ Refresh Token ungültig"));
         }
     }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Sperrt das Access Token aus dem Authorization-Header und das Refresh Token aus dem Body", security = {})
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+            @RequestBody(required = false) RefreshRequest request) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,34 @@
+package com.bankportal.authservice.controller;
+
+import java.time.Duration;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bankportal.security.KeyRing;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "JWKS", description = "Öffentliche Schlüssel zur lokalen Token-Prüfung")
+public class JwksController {
+
+    private final KeyRing keyRing;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "JSON Web Key Set",
+        description = "Öffentliche RSA-Schlüssel (kid = JWK-Thumbprint), mit denen Services RS256-Tokens selbst prüfen."
+    )
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(keyRing.jwksJson());
+    }
+}
@@ -0,0 +1,46 @@
+package com.bankportal.authservice.controller;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bankportal.authservice.security.RevocationList;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Sperrliste", description = "Gesperrte Access Tokens für Services, die Tokens selbst prüfen")
+public class RevocationController {
+
+    private final RevocationList revocationList;
+
+    @GetMapping(value = "/api/auth/revocations", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Gesperrte Token-IDs seit einem Zeitpunkt",
+        description = "Liefert jti und Ablauf (Epoch-Millis) aller noch gültigen Sperren ab since. "
+                + "now ist das since für den nächsten Abruf; der Server rechnet einen Puffer ein.",
+        security = {}
+    )
+    public ResponseEntity<Map<String, Object>> revocations(@RequestParam(defaultValue = "0") long since) {
+        // Vor der Abfrage nehmen: was währenddessen gesperrt wird, kommt beim nächsten Abruf
+        long now = Instant.now().toEpochMilli();
+        List<Map<String, Object>> revoked = revocationList.revokedSince(Instant.ofEpochMilli(since)).stream()
+                .map(entry -> Map.<String, Object>of(
+                        "jti", entry.getJti(),
+                        "expiresAt", entry.getExpiresAt().toEpochMilli()))
+                .toList();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(Map.of("now", now, "revoked", revoked));
+    }
+}
@@ -1,6 +1,8 @@
 package com.bankportal.authservice.controller;
 
 import com.bankportal.authservice.security.JwtUtil;
+import com.bankportal.authservice.service.AuthMetrics;
+import com.bankportal.authservice.service.AuthMetrics.Validation;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -10,6 +12,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,9 +22,48 @@ import java.util.Map;
 @Tag(name = "JWT Validation", description = "Endpunkte für JWT-Token Validierung (API Gateway)")
 public class ValidationController {
 
+    private static final String BEARER = "Bearer ";
+
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private AuthMetrics metrics;
+
+    @GetMapping(value = "/validate", params = "mode=gateway")
+    @Operation(
+        summary = "JWT Token Validierung (Gateway-Modus)",
+        description = "Schnellpfad für nginx auth_request: ein Parse, kein Body, Ergebnis nur in Status und Headern."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Token ist gültig (X-User enthält den Benutzer)"),
+        @ApiResponse(responseCode = "401", description = "Token fehlt, ist ungültig oder abgelaufen")
+    })
+    public void validateTokenGateway(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            HttpServletResponse response) {
+        long start = metrics.start();
+        // Direkt auf die Response schreiben: kein ResponseEntity, keine Map, kein JSON
+        if (authHeader == null || !authHeader.startsWith(BEARER)) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader("X-Auth-Status", "missing_token");
+            metrics.validation(start, Validation.MISSING_TOKEN);
+            return;
+        }
+        // extractUsername prüft Signatur und Ablauf und liefert null bei ungültigem Token
+        String username = jwtUtil.extractUsername(authHeader.substring(BEARER.length()));
+        if (username == null || username.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader("X-Auth-Status", "invalid");
+            metrics.validation(start, Validation.INVALID);
+            return;
+        }
+        metrics.validation(start, Validation.VALID);
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+        response.setHeader("X-User", username);
+        response.setHeader("X-Auth-Status", "valid");
+    }
+
     @GetMapping("/validate")
     @Operation(
         summary = "JWT Token Validierung",
@@ -35,11 +78,13 @@ public class ValidationController {
             @RequestHeader(value = "Authorization", required = false) String authHeader,
             @RequestHeader(value = "X-Original-URI", required = false) String originalUri) {
         
+        long start = metrics.start();
         Map<String, Object> response = new HashMap<>();
         
         try {
             // Check if Authorization header exists
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                metrics.validation(start, Validation.MISSING_TOKEN);
                 response.put("valid", false);
                 response.put("error", "No valid Authorization header");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
@@ -50,27 +95,20 @@ public class ValidationController {
             // Extract token
             String token = authHeader.substring(7);
             
-            // Validate token using existing JwtUtil method
-            if (!jwtUtil.isTokenValid(token)) {
-                response.put("valid", false);
-                response.put("error", "Token is invalid or expired");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .header("X-Auth-Status", "invalid")
-                    .body(response);
-            }
-            
-            // Extract user information
+            // Ein Parse: null bei ungültigem/abgelaufenem Token oder fehlendem Subject
             String username = jwtUtil.extractUsername(token);
             
             if (username == null || username.isEmpty()) {
+                metrics.validation(start, Validation.INVALID);
                 response.put("valid", false);
-                response.put("error", "Invalid token payload");
+                response.put("error", "Token is invalid or expired");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .header("X-Auth-Status", "invalid")
                     .body(response);
             }
             
             // Token is valid
+            metrics.validation(start, Validation.VALID);
             response.put("valid", true);
             response.put("username", username);
             response.put("original_uri", originalUri);
@@ -81,6 +119,7 @@ public class ValidationController {
                 .body(response);
                 
         } catch (Exception e) {
+            metrics.validation(start, Validation.INVALID);
             response.put("valid", false);
             response.put("error", "Token validation failed: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
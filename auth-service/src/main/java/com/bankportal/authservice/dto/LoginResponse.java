@@ -1,10 +1,21 @@
 package com.bankportal.authservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
 @Data
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class LoginResponse {
     private String token;
-}
\ No newline at end of file
+    // Einmal verwendbar: /api/auth/refresh liefert ein neues Paar
+    private String refreshToken;
+    // Gültigkeit des Access Tokens in Sekunden
+    private Long expiresIn;
+
+    public LoginResponse(String token) {
+        this(token, null, null);
+    }
+}
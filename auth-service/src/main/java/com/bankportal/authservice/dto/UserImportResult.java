@@ -0,0 +1,42 @@
+package com.bankportal.authservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Ergebnis eines Massenimports: Zähler und ein Eintrag pro Datenzeile (ohne Passwort). */
+@Getter @Setter
+public class UserImportResult {
+
+    public enum Status { CREATED, DUPLICATE, INVALID, FAILED }
+
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private int failed;
+    private List<Row> rows = new ArrayList<>();
+
+    @Getter @Setter
+    @NoArgsConstructor @AllArgsConstructor
+    public static class Row {
+        // 1-basiert, Kopfzeile und Leerzeilen nicht mitgezählt
+        private int row;
+        private String username;
+        private Status status;
+        private String message;
+    }
+
+    public void add(Row row) {
+        rows.add(row);
+        switch (row.getStatus()) {
+            case CREATED -> created++;
+            case DUPLICATE -> duplicates++;
+            case INVALID -> invalid++;
+            case FAILED -> failed++;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bankportal.authservice.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Refresh Token (nur der SHA-256 wird gespeichert). Alle Tokens einer Anmeldung teilen die familyId:
+ * wird ein bereits eingelöstes Token erneut vorgelegt, sperrt das die ganze Familie.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "refresh_tokens")
+public class RefreshTokenEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Gesetzt, sobald das Token gegen ein neues getauscht wurde
+    @Column(name = "used_at")
+    private Instant usedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+}
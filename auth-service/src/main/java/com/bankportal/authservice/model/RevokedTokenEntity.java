@@ -0,0 +1,33 @@
+package com.bankportal.authservice.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** Gesperrtes Access Token (jti) bis zu seinem eigenen Ablauf; danach ist der Eintrag überflüssig. */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"))
+public class RevokedTokenEntity {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    public RevokedTokenEntity(String jti, Instant expiresAt, Instant revokedAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bankportal.authservice.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bankportal.authservice.model.RefreshTokenEntity;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    Optional<RefreshTokenEntity> findByTokenHash(String tokenHash);
+
+    /** Löst das Token genau einmal ein: 0, wenn es schon benutzt wurde (auch bei parallelen Aufrufen). */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshTokenEntity t SET t.usedAt = :now WHERE t.id = :id AND t.usedAt IS NULL AND t.revoked = false")
+    int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshTokenEntity t SET t.revoked = true WHERE t.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Transactional
+    int deleteByExpiresAtBefore(Instant cutoff);
+}
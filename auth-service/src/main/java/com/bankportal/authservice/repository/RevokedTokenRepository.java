@@ -0,0 +1,20 @@
+package com.bankportal.authservice.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bankportal.authservice.model.RevokedTokenEntity;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+
+    /** Sperren seit dem letzten Abgleich (auch von anderen Instanzen), die noch nicht abgelaufen sind. */
+    List<RevokedTokenEntity> findByRevokedAtGreaterThanEqualAndExpiresAtAfter(Instant since, Instant now);
+
+    @Modifying
+    @Transactional
+    int deleteByExpiresAtBefore(Instant cutoff);
+}
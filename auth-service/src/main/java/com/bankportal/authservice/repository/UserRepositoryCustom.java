@@ -0,0 +1,23 @@
+package com.bankportal.authservice.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.bankportal.authservice.model.UserEntity;
+
+/**
+ * Ergänzungen zu UserRepository für den Massenimport, die direkt über JDBC laufen.
+ */
+public interface UserRepositoryCustom {
+
+    /** Welche der Namen es schon gibt – eine Abfrage über den Unique-Index statt einer pro Benutzer. */
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    /**
+     * Legt die Benutzer (Hash und Rolle bereits gesetzt) ohne Persistence-Context an: auf PostgreSQL per
+     * COPY, sonst als ein JDBC-Batch. IDs vergibt die Datenbank. Ein doppelter Name lässt den ganzen
+     * Aufruf scheitern (DataIntegrityViolationException).
+     */
+    void insertAll(List<UserEntity> users);
+}
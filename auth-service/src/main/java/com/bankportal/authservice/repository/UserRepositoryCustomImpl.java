@@ -0,0 +1,81 @@
+package com.bankportal.authservice.repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.bankportal.authservice.model.UserEntity;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String COPY_SQL = "COPY users (username, password_hash, role) FROM STDIN (FORMAT csv)";
+    private static final String INSERT_SQL = "INSERT INTO users (username, password_hash, role) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public UserRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT username FROM users WHERE username IN (:names)", Map.of("names", usernames), String.class));
+    }
+
+    @Override
+    public void insertAll(List<UserEntity> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Boolean copied = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            if (!con.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            // SQLException (z. B. unique_violation) übersetzt JdbcTemplate in DataIntegrityViolationException
+            try {
+                con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(toCsv(users)));
+            } catch (IOException e) {
+                throw new SQLException("COPY fehlgeschlagen", e);
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(copied)) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, users, users.size(), (ps, user) -> {
+                ps.setString(1, user.getUsername());
+                ps.setString(2, user.getPasswordHash());
+                ps.setString(3, user.getRole());
+            });
+        }
+    }
+
+    // CSV für COPY: jedes Feld in Anführungszeichen, damit Kommas/Zeilenumbrüche im Namen nichts verschieben
+    private static String toCsv(List<UserEntity> users) {
+        StringBuilder csv = new StringBuilder(users.size() * 96);
+        for (UserEntity user : users) {
+            appendField(csv, user.getUsername()).append(',');
+            appendField(csv, user.getPasswordHash()).append(',');
+            appendField(csv, user.getRole()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static StringBuilder appendField(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
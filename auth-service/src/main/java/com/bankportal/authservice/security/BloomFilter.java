@@ -0,0 +1,81 @@
+package com.bankportal.authservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom-Filter für Strings, lock-frei: put und mightContain dürfen parallel laufen.
+ *
+ * false heißt sicher "nicht enthalten", true nur "vielleicht" (Fehlerrate etwa fpp, solange nicht
+ * mehr als expectedInsertions Werte eingetragen sind). Entfernen geht nicht – dafür wird neu gebaut.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    public BloomFilter(int expectedInsertions, double fpp) {
+        int n = Math.max(1, expectedInsertions);
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, (m + 63) & ~63L);
+        this.words = new AtomicLongArray((int) (m >>> 6));
+        this.bits = m;
+        this.hashes = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = hash >>> 32 | hash << 32;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                if (words.compareAndSet(word, current, current | mask)) {
+                    break;
+                }
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = hash >>> 32 | hash << 32;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int hashFunctions() {
+        return hashes;
+    }
+
+    long bitSize() {
+        return bits;
+    }
+
+    // FNV-1a über die UTF-8-Bytes, danach der fmix64-Finalizer (MurmurHash3) für gut verteilte Bits
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -4,22 +4,30 @@ import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.*;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.bankportal.authservice.service.JwtService;
-import com.bankportal.authservice.service.UserDetailsServiceImpl;
-
 import java.io.IOException;
 
+/**
+ * Authentifiziert allein aus den geprüften Claims (sub, roles): keine DB-Abfrage pro Request.
+ * Wiederholte Tokens kommen aus dem {@link VerifiedTokenCache}. Wer aktuelle Benutzerdaten braucht,
+ * lädt sie über UserDetailsServiceImpl (mit eigenem Cache).
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+
+    // Der Validierungs-Endpunkt prüft das Token selbst; hier kein zweiter Parse und kein User-Lookup
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/api/auth/validate");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -28,19 +36,14 @@ public class JwtFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtService.extractUsername(token);
-        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(token)) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Signatur und Ablauf werden dabei geprüft; ungültiges Token -> anonym weiter, Security entscheidet
+            VerifiedTokenCache.Result result = tokenCache.verify(authHeader.substring(7));
+            if (result.username() != null) {
                 var authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        result.username(), null, AuthorityUtils.createAuthorityList(result.roles()));
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -2,104 +2,62 @@
 package com.bankportal.authservice.security;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import com.bankportal.security.JwtSigner;
+import com.bankportal.security.JwtVerifier;
+
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
-    @Value("${jwt.secret:mysecretkeymysecretkeymysecretkey123456}")
-    private String secret;
-
-    @Value("${jwt.expiration-ms:86400000}")
-    private long jwtExpirationMs;
-
-    private Key key() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-    }
+    // Einmal gebaut (JwtConfig): kein Schlüssel-/Parser-Aufbau pro Aufruf
+    private final JwtSigner signer;
+    private final JwtVerifier verifier;
+    // Wiederholte Prüfungen desselben Tokens (nginx auth_request) ohne erneute Signaturprüfung
+    private final VerifiedTokenCache tokenCache;
 
     public String generateToken(String username, Set<String> roles) {
-        return Jwts.builder()
-            .setSubject(username)
-            .claim("roles", roles)
-            .setIssuedAt(new Date())
-            .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-            .signWith(key())
-            .compact();
+        return signer.sign(username, Map.of("roles", roles));
     }
 
-    public Jws<Claims> validateToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
+    /** Claims eines gültigen Tokens; wirft JwtException bei ungültigen oder abgelaufenen Tokens. */
+    public Claims validateToken(String token) {
+        return verifier.verify(token);
     }
 
     public String extractUsername(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-            return claims.getSubject();
-        } catch (Exception e) {
-            return null;
-        }
+        return tokenCache.verify(token).username();
     }
 
     public boolean isTokenExpired(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-            return claims.getExpiration().before(new Date());
-        } catch (Exception e) {
-            return true; // Consider invalid tokens as expired
-        }
+        return !tokenCache.verify(token).valid(); // Consider invalid tokens as expired
     }
 
     public boolean isTokenValid(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return tokenCache.verify(token).valid();
     }
 
     public Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+            return verifier.verify(token);
         } catch (Exception e) {
             return null;
         }
     }
 
     public Date extractExpiration(String token) {
-        try {
-            Claims claims = extractAllClaims(token);
-            return claims != null ? claims.getExpiration() : null;
-        } catch (Exception e) {
-            return null;
-        }
+        Claims claims = extractAllClaims(token);
+        return claims != null ? claims.getExpiration() : null;
     }
 
-    @SuppressWarnings("unchecked")
     public Set<String> extractRoles(String token) {
-        try {
-            Claims claims = extractAllClaims(token);
-            return claims != null ? (Set<String>) claims.get("roles") : null;
-        } catch (Exception e) {
-            return null;
-        }
+        VerifiedTokenCache.Result result = tokenCache.verify(token);
+        return result.valid() ? new LinkedHashSet<>(result.roles()) : null;
     }
 }
@@ -0,0 +1,138 @@
+package com.bankportal.authservice.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * BCrypt auf einem eigenen, begrenzten Pool statt auf Tomcat-Threads: ein Login-Ansturm belegt
+ * höchstens auth.hashing.threads Kerne, /validate bleibt bedienbar. Ist die Warteschlange voll,
+ * scheitert der Aufruf sofort mit {@link PasswordHashingBusyException} (-> 503).
+ *
+ * Die Kosten werden beim Start auf auth.bcrypt.target-ms kalibriert (oder fest mit auth.bcrypt.cost);
+ * Hashes mit anderen Kosten meldet {@link #needsRehash(String)}.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    static final int MIN_COST = 10;
+    static final int MAX_COST = 16;
+
+    private final PasswordEncoder encoder;
+    private final int cost;
+    private final Executor executor;
+
+    @Autowired
+    public PasswordHasher(@Value("${auth.bcrypt.cost:0}") int cost,
+            @Value("${auth.bcrypt.target-ms:100}") long targetMs,
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity) {
+        this.cost = cost > 0 ? cost : calibrate(Duration.ofMillis(targetMs));
+        this.encoder = new BCryptPasswordEncoder(this.cost);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads(), new ThreadPoolExecutor.AbortPolicy());
+        log.info("🔐 BCrypt-Kosten {}, Pool {} Threads, Warteschlange {}", this.cost, poolSize, queueCapacity);
+    }
+
+    PasswordHasher(PasswordEncoder encoder, int cost, Executor executor) {
+        this.encoder = encoder;
+        this.cost = cost;
+        this.executor = executor;
+    }
+
+    /** Encoder mit den kalibrierten Kosten (auch für Spring Security). */
+    public PasswordEncoder encoder() {
+        return encoder;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String hash) {
+        return submit(() -> encoder.matches(rawPassword, hash));
+    }
+
+    /** true, wenn der Hash mit anderen Kosten als den aktuellen erzeugt wurde. */
+    public boolean needsRehash(String hash) {
+        // Format $2a$NN$...
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(6) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6)) != cost;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ThreadPoolExecutor pool) {
+            pool.shutdown();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new PasswordHashingBusyException("Anmeldung derzeit überlastet, bitte erneut versuchen"));
+        }
+    }
+
+    /**
+     * Höchste Kosten, deren Hash das Zeitbudget nicht überschreitet. Gemessen wird bei MIN_COST
+     * (bestes von drei Läufen, wegen JIT); jede Stufe verdoppelt die Zeit.
+     */
+    static int calibrate(Duration target) {
+        String salt = BCrypt.gensalt(MIN_COST);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("kalibrierung", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        int cost = MIN_COST;
+        while (cost < MAX_COST && best * 2 <= target.toNanos()) {
+            best *= 2;
+            cost++;
+        }
+        return cost;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
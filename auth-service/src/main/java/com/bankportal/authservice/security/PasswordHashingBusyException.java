@@ -0,0 +1,11 @@
+package com.bankportal.authservice.security;
+
+/**
+ * Der BCrypt-Pool ist ausgelastet (Warteschlange voll); der Aufrufer soll es später erneut versuchen.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,124 @@
+package com.bankportal.authservice.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.bankportal.authservice.model.RevokedTokenEntity;
+import com.bankportal.authservice.repository.RevokedTokenRepository;
+
+/**
+ * Gesperrte Access Tokens (jti), gemeinsam für JwtFilter und /api/auth/validate (über den
+ * {@link VerifiedTokenCache}).
+ *
+ * Der Normalfall "nicht gesperrt" kostet nur den Bloom-Filter (ein Hash, k Bit-Tests); erst bei
+ * einem Treffer wird in der exakten Map nachgesehen. Neue Sperren werden sofort eingetragen, die
+ * anderer Instanzen kommen alle jwt.revocation.poll-ms aus der Tabelle revoked_tokens. Neu gebaut
+ * wird der Filter nur, wenn abgelaufene Einträge herausfallen oder er zu voll wird.
+ *
+ * Services, die Tokens lokal per JWKS prüfen, holen die Sperren über {@link #revokedSince(Instant)}.
+ */
+@Component
+public class RevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationList.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    // Abgleich ab Wasserzeichen minus Puffer: Uhren der Instanzen und späte Commits
+    private static final Duration OVERLAP = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepository repository;
+    private final Clock clock;
+    private final int expectedInsertions;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+    private volatile int capacity;
+    private volatile Instant watermark = Instant.EPOCH;
+
+    @Autowired
+    public RevocationList(RevokedTokenRepository repository,
+            @Value("${jwt.revocation.expected-insertions:100000}") int expectedInsertions) {
+        this(repository, expectedInsertions, Clock.systemUTC());
+    }
+
+    RevocationList(RevokedTokenRepository repository, int expectedInsertions, Clock clock) {
+        this.repository = repository;
+        this.clock = clock;
+        this.expectedInsertions = Math.max(16, expectedInsertions);
+        this.capacity = this.expectedInsertions;
+        this.filter = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+    }
+
+    /** Sperrt das Token bis zu seinem Ablauf (hier sofort, auf anderen Instanzen nach dem nächsten Abgleich). */
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(clock.instant())) {
+            return; // ohne jti nicht sperrbar, abgelaufen ohnehin ungültig
+        }
+        repository.save(new RevokedTokenEntity(jti, expiresAt, clock.instant()));
+        add(jti, expiresAt);
+    }
+
+    public boolean isRevoked(String jti) {
+        return filter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * Sperren ab since (abzüglich Puffer), die noch nicht abgelaufen sind: der Abgleich für Services,
+     * die Tokens selbst prüfen (account-service über /api/auth/revocations).
+     */
+    public List<RevokedTokenEntity> revokedSince(Instant since) {
+        return repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since.minus(OVERLAP), clock.instant());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-ms:5000}")
+    public void sync() {
+        Instant now = clock.instant();
+        try {
+            List<RevokedTokenEntity> changes = repository
+                    .findByRevokedAtGreaterThanEqualAndExpiresAtAfter(watermark.minus(OVERLAP), now);
+            changes.forEach(e -> add(e.getJti(), e.getExpiresAt()));
+            watermark = now;
+            if (revoked.values().removeIf(exp -> !exp.isAfter(now))) {
+                rebuild();
+            }
+            repository.deleteByExpiresAtBefore(now);
+        } catch (RuntimeException e) {
+            // Lokale Sperren gelten weiter; nächster Versuch ab demselben Wasserzeichen
+            log.warn("⚠️ Abgleich der Token-Sperrliste fehlgeschlagen: {}", e.getMessage());
+        }
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    private void add(String jti, Instant expiresAt) {
+        if (revoked.put(jti, expiresAt) == null) {
+            filter.put(jti);
+            if (revoked.size() > capacity) {
+                rebuild();
+            }
+        }
+    }
+
+    private synchronized void rebuild() {
+        int size = revoked.size();
+        capacity = Math.max(expectedInsertions, size * 2);
+        BloomFilter next = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(next::put);
+        filter = next;
+        // Was während des Aufbaus noch in den alten Filter ging, steht schon in der Map
+        revoked.keySet().forEach(next::put);
+    }
+}
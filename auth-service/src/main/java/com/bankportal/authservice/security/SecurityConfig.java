@@ -1,20 +1,21 @@
 package com.bankportal.authservice.security;
 
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain filterChain(HttpSecurity http, JwtFilter jwtFilter) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -28,6 +29,9 @@ public class SecurityConfig {
                 
                 // Auth endpoints
                 .requestMatchers("/api/auth/**").permitAll()
+
+                // Öffentliche Schlüssel (JWKS) für die Token-Prüfung in anderen Services
+                .requestMatchers("/.well-known/**").permitAll()
                 
                 // Test endpoints
                 .requestMatchers("/api/test/**").permitAll()
@@ -46,18 +50,31 @@ public class SecurityConfig {
                 // Error endpoint
                 .requestMatchers("/error").permitAll()
                 
-                .anyRequest().authenticated());
-        // JWT-Filter kann hier später ergänzt werden
+                // Admin-Endpunkte (Massenimport); Rolle aus dem Token, init.sql kennt auch "ADMIN" ohne Präfix
+                .requestMatchers("/api/admin/**").hasAnyAuthority("ROLE_ADMIN", "ADMIN")
+                
+                .anyRequest().authenticated())
+            // JWT vor der Autorisierung auswerten, sonst sähe sie nur anonyme Requests
+            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
+    // JwtFilter läuft in der Security-Chain, nicht zusätzlich als eigener Servlet-Filter
+    @Bean
+    FilterRegistrationBean<JwtFilter> jwtFilterRegistration(JwtFilter jwtFilter) {
+        FilterRegistrationBean<JwtFilter> registration = new FilterRegistrationBean<>(jwtFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     AuthenticationManager authManager(AuthenticationConfiguration cfg) throws Exception {
         return cfg.getAuthenticationManager();
     }
 
+    // Kalibrierte Kosten aus dem PasswordHasher, damit alle Hashes dieselben Kosten haben
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHasher passwordHasher) {
+        return passwordHasher.encoder();
     }
 }
@@ -0,0 +1,140 @@
+package com.bankportal.authservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bankportal.security.JwtVerifier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Ergebnisse der Token-Prüfung, damit Wiederholungen nur ein Hash-Lookup statt HMAC + JSON-Parse kosten.
+ *
+ * Schlüssel ist der SHA-256 des Tokens (das Token selbst bleibt nicht im Speicher). Gültige Tokens
+ * bleiben bis zu ihrem exp, ungültige nur jwt.cache.negative-ttl-ms; bei vollem Cache verdrängt
+ * Caffeine selten genutzte Einträge. Treffer/Fehlschläge erscheinen als cache_gets_total{cache="jwt.verified"}.
+ * Die Sperrliste wird bei jedem Aufruf gefragt, auch bei Cache-Treffern: ein gesperrtes Token fällt sofort durch.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    /**
+     * Prüfergebnis: username ist null, wenn das Token ungültig ist oder kein Subject hat;
+     * roles stammt aus dem Claim "roles" (leer, wenn keiner gesetzt ist).
+     */
+    public record Result(boolean valid, String username, List<String> roles) {
+    }
+
+    private static final Result INVALID = new Result(false, null, List.of());
+
+    private final JwtVerifier verifier;
+    private final RevocationList revocations;
+    private final long negativeTtlNanos;
+    private final Cache<String, Entry> cache;
+
+    @Autowired
+    public VerifiedTokenCache(JwtVerifier verifier, RevocationList revocations, MeterRegistry meterRegistry,
+            @Value("${jwt.cache.max-size:100000}") long maxSize,
+            @Value("${jwt.cache.negative-ttl-ms:5000}") long negativeTtlMs) {
+        this(verifier, revocations, maxSize, Duration.ofMillis(negativeTtlMs), Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+    }
+
+    VerifiedTokenCache(JwtVerifier verifier, RevocationList revocations, long maxSize, Duration negativeTtl,
+            Ticker ticker) {
+        this.verifier = verifier;
+        this.revocations = revocations;
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    public Result verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return INVALID;
+        }
+        Entry entry = cache.get(hash(token), key -> load(token));
+        if (entry.jti != null && revocations.isRevoked(entry.jti)) {
+            return INVALID;
+        }
+        return entry.result;
+    }
+
+    private Entry load(String token) {
+        Claims claims;
+        try {
+            claims = verifier.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return new Entry(INVALID, null, negativeTtlNanos);
+        }
+        Result result = new Result(true, claims.getSubject(), roles(claims));
+        Date exp = claims.getExpiration();
+        if (exp == null) {
+            // Ohne exp nur so kurz merken wie ein ungültiges Token
+            return new Entry(result, claims.getId(), negativeTtlNanos);
+        }
+        // Gültig bis exp; ist es inzwischen erreicht, verfällt der Eintrag sofort
+        return new Entry(result, claims.getId(),
+                Math.max(0, Duration.between(Instant.now(), exp.toInstant()).toNanos()));
+    }
+
+    // Nach dem Parsen ist "roles" eine Liste (JSON-Array)
+    private static List<String> roles(Claims claims) {
+        if (!(claims.get("roles") instanceof Collection<?> roles)) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(roles.size());
+        roles.forEach(role -> result.add(String.valueOf(role)));
+        return List.copyOf(result);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    private record Entry(Result result, String jti, long ttlNanos) {
+    }
+}
@@ -5,45 +5,166 @@ import com.bankportal.authservice.dto.LoginRequest;
 import com.bankportal.authservice.dto.LoginResponse;
 import com.bankportal.authservice.model.UserEntity;
 import com.bankportal.authservice.repository.UserRepository;
+import com.bankportal.authservice.security.PasswordHasher;
+import com.bankportal.authservice.security.RevocationList;
 
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Service
-@RequiredArgsConstructor
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    // BCrypt läuft auf dem begrenzten Pool, nicht auf dem Request-Thread
+    private final PasswordHasher passwordHasher;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final RevocationList revocationList;
+    private final AuthMetrics metrics;
+    // Gecachte UserDetails nach Änderungen am Hash verwerfen
+    private final UserDetailsServiceImpl userDetailsService;
+    // Datenbankarbeit nach dem Hashing (Refresh Token, Benutzer speichern): nicht auf dem BCrypt-Pool,
+    // dessen wenige Threads sonst auf die DB warten statt zu hashen
+    private final Executor databaseExecutor;
 
-    public LoginResponse login(LoginRequest request) {
+    public AuthService(UserRepository userRepository, PasswordHasher passwordHasher, JwtService jwtService,
+            RefreshTokenService refreshTokenService, RevocationList revocationList, AuthMetrics metrics,
+            UserDetailsServiceImpl userDetailsService,
+            @Qualifier("applicationTaskExecutor") Executor databaseExecutor) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.revocationList = revocationList;
+        this.metrics = metrics;
+        this.userDetailsService = userDetailsService;
+        this.databaseExecutor = databaseExecutor;
+    }
+
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
+        long start = metrics.start();
+        CompletableFuture<LoginResponse> result;
+        try {
+            result = authenticate(request);
+        } catch (RuntimeException e) {
+            metrics.login(start, e);
+            throw e;
+        }
+        // Nur beobachten: der Aufrufer bekommt dasselbe Future zurück
+        result.whenComplete((response, error) -> metrics.login(start, error));
+        return result;
+    }
+
+    private CompletableFuture<LoginResponse> authenticate(LoginRequest request) {
         UserEntity user = userRepository.findByUsername(request.getUsername())
-            .orElseThrow(() -> new BadCredentialsException("Benutzer nicht gefunden"));
+            .orElse(null);
+        if (user == null) {
+            return CompletableFuture.failedFuture(new BadCredentialsException("Benutzer nicht gefunden"));
+        }
 
         // 🔐 Passwort prüfen mit gespeichertem Hash
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new BadCredentialsException("Ungültiges Passwort");
+        return passwordHasher.matches(request.getPassword(), user.getPasswordHash())
+            .thenApplyAsync(matches -> {
+                if (!matches) {
+                    throw new BadCredentialsException("Ungültiges Passwort");
+                }
+                rehashIfNeeded(user, request.getPassword());
+                return tokens(user, refreshTokenService.issue(user.getUsername()));
+            }, databaseExecutor);
+    }
+
+    /** Tauscht ein Refresh Token gegen ein neues Paar; die Rolle wird dabei frisch geladen. */
+    public LoginResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        UserEntity user = userRepository.findByUsername(rotation.username())
+            .orElseThrow(() -> {
+                refreshTokenService.revoke(rotation.refreshToken());
+                return new BadCredentialsException("Benutzer nicht gefunden");
+            });
+        return tokens(user, rotation.refreshToken());
+    }
+
+    /** Sperrt das Access Token (bis zu seinem Ablauf) und die Refresh-Token-Familie; beides optional. */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null && !accessToken.isBlank()) {
+            try {
+                Claims claims = jwtService.verify(accessToken);
+                if (claims.getExpiration() != null) {
+                    revocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Ungültig oder abgelaufen: nichts zu sperren
+            }
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
         }
+    }
+
+    private LoginResponse tokens(UserEntity user, String refreshToken) {
+        // Rolle ins Token, damit authentifizierte Requests ohne DB-Abfrage auskommen
+        String token = jwtService.generateToken(user.getUsername(),
+            user.getRole() != null ? List.of(user.getRole()) : List.of());
+        return new LoginResponse(token, refreshToken, jwtService.accessTokenTtl().toSeconds());
+    }
 
-        String token = jwtService.generateToken(user.getUsername());
-        return new LoginResponse(token);
+    public CompletableFuture<UserEntity> register(UserEntity newUser) {
+        long start = metrics.start();
+        CompletableFuture<UserEntity> result;
+        try {
+            result = createUser(newUser);
+        } catch (RuntimeException e) {
+            metrics.register(start, e);
+            throw e;
+        }
+        result.whenComplete((saved, error) -> metrics.register(start, error));
+        return result;
     }
 
-    public UserEntity register(UserEntity newUser) {
+    private CompletableFuture<UserEntity> createUser(UserEntity newUser) {
         if (userRepository.findByUsername(newUser.getUsername()).isPresent()) {
-            throw new BadCredentialsException("Benutzername bereits vergeben");
+            return CompletableFuture.failedFuture(new BadCredentialsException("Benutzername bereits vergeben"));
         }
 
         // 🔐 Passwort hashen und speichern
-        String hashed = passwordEncoder.encode(newUser.getPassword());
-        newUser.setPasswordHash(hashed);
+        return passwordHasher.encode(newUser.getPassword())
+            .thenApplyAsync(hashed -> {
+                newUser.setPasswordHash(hashed);
 
-        // ✅ Einheitliche Rolle setzen
-        newUser.setRole("ROLE_USER");
+                // ✅ Einheitliche Rolle setzen
+                newUser.setRole("ROLE_USER");
 
-        return userRepository.save(newUser);
+                return userRepository.save(newUser);
+            }, databaseExecutor);
+    }
+
+    // Geänderte BCrypt-Kosten: Hash im Hintergrund erneuern, der Login wartet nicht darauf
+    private void rehashIfNeeded(UserEntity user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.getPasswordHash())) {
+            return;
+        }
+        passwordHasher.encode(rawPassword)
+            .thenAcceptAsync(hashed -> {
+                user.setPasswordHash(hashed);
+                userRepository.save(user);
+                userDetailsService.evict(user.getUsername());
+            }, databaseExecutor)
+            .exceptionally(e -> {
+                // Pool voll oder DB-Fehler: beim nächsten Login erneut
+                log.warn("❌ Rehash für {} fehlgeschlagen: {}", user.getUsername(), e.getMessage());
+                return null;
+            });
     }
 }
@@ -1,50 +1,50 @@
 package com.bankportal.authservice.service;
 
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
-import java.util.Date;
+import com.bankportal.security.JwtSigner;
+import com.bankportal.security.JwtVerifier;
+
+import io.jsonwebtoken.Claims;
+
+import lombok.RequiredArgsConstructor;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
-    // Default für reine Unit-Tests ohne Spring-Context; wird durch @Value überschrieben, wenn verfügbar
-    @Value("${jwt.secret:mysecretkeymysecretkeymysecretkey123456}")
-    private String secret = "mysecretkeymysecretkeymysecretkey123456";
+    // Beide einmal gebaut (JwtConfig), threadsicher
+    private final JwtSigner signer;
+    private final JwtVerifier verifier;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public String generateToken(String username) {
+        return signer.sign(username, Map.of());
     }
 
-    public String generateToken(String username) {
-        return Jwts.builder()
-                .setSubject(username)
-                .setIssuer("auth-service")
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 1 Tag
-                .signWith(getSigningKey())
-                .compact();
+    /** Token mit Rollen im Claim "roles", damit Filter ohne DB-Abfrage authentifizieren können. */
+    public String generateToken(String username, Collection<String> roles) {
+        return signer.sign(username, Map.of("roles", List.copyOf(roles)));
+    }
+
+    /** Claims eines gültigen Tokens (u. a. jti und exp zum Sperren); wirft JwtException sonst. */
+    public Claims verify(String token) {
+        return verifier.verify(token);
+    }
+
+    public Duration accessTokenTtl() {
+        return signer.getTtl();
     }
 
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verifier.verify(token).getSubject();
     }
 
     public boolean isTokenValid(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
-        }
+        return verifier.isValid(token);
     }
 }
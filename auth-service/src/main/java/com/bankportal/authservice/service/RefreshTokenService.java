@@ -0,0 +1,120 @@
+package com.bankportal.authservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import com.bankportal.authservice.model.RefreshTokenEntity;
+import com.bankportal.authservice.repository.RefreshTokenRepository;
+
+/**
+ * Rotierende Refresh Tokens: jedes Token lässt sich genau einmal gegen ein neues tauschen.
+ *
+ * Gespeichert wird nur der SHA-256 (ein DB-Leak liefert keine gültigen Tokens). Taucht ein bereits
+ * getauschtes Token wieder auf, hat es jemand kopiert – dann wird die ganze Familie gesperrt und
+ * beide Seiten müssen sich neu anmelden.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    /** Ergebnis eines Tauschs: Besitzer und das neue Refresh Token. */
+    public record Rotation(String username, String refreshToken) {
+    }
+
+    private final RefreshTokenRepository repository;
+    private final Duration ttl;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository repository,
+            @Value("${jwt.refresh.ttl-ms:604800000}") long ttlMs) {
+        this(repository, Duration.ofMillis(ttlMs), Clock.systemUTC());
+    }
+
+    RefreshTokenService(RefreshTokenRepository repository, Duration ttl, Clock clock) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /** Neues Token für eine neue Anmeldung (neue Familie). */
+    public String issue(String username) {
+        return issue(username, UUID.randomUUID().toString());
+    }
+
+    public Rotation rotate(String refreshToken) {
+        RefreshTokenEntity current = repository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Refresh Token unbekannt"));
+        Instant now = clock.instant();
+        if (current.isRevoked() || !current.getExpiresAt().isAfter(now)) {
+            throw new BadCredentialsException("Refresh Token abgelaufen oder gesperrt");
+        }
+        // Bedingtes Update: von zwei gleichzeitigen Aufrufen gewinnt genau einer
+        if (current.getUsedAt() != null || repository.markUsed(current.getId(), now) == 0) {
+            repository.revokeFamily(current.getFamilyId());
+            log.warn("🚨 Refresh Token wiederverwendet – alle Sitzungen dieser Anmeldung gesperrt (user={}, family={})",
+                    current.getUsername(), current.getFamilyId());
+            throw new BadCredentialsException("Refresh Token bereits verwendet");
+        }
+        return new Rotation(current.getUsername(), issue(current.getUsername(), current.getFamilyId()));
+    }
+
+    /** Logout: sperrt das Token samt allen Nachfolgern. Unbekannte Tokens werden ignoriert. */
+    public void revoke(String refreshToken) {
+        repository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> repository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            int deleted = repository.deleteByExpiresAtBefore(clock.instant());
+            if (deleted > 0) {
+                log.info("🧹 {} abgelaufene Refresh Tokens gelöscht", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Aufräumen der Refresh Tokens fehlgeschlagen: {}", e.getMessage());
+        }
+    }
+
+    private String issue(String username, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshTokenEntity entity = new RefreshTokenEntity();
+        entity.setTokenHash(hash(token));
+        entity.setUsername(username);
+        entity.setFamilyId(familyId);
+        entity.setExpiresAt(clock.instant().plus(ttl));
+        repository.save(entity);
+        return token;
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.bankportal.authservice.service;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -8,22 +12,53 @@ import org.springframework.stereotype.Service;
 
 import com.bankportal.authservice.model.UserEntity;
 import com.bankportal.authservice.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
-import lombok.RequiredArgsConstructor;
-
-
+/**
+ * Benutzerdaten aus der DB, für Endpunkte, die mehr brauchen als die Token-Claims.
+ * Geladene Benutzer liegen bis auth.user-cache.ttl-ms in einem begrenzten Cache
+ * (0 = kein Cache); unbekannte Benutzer werden nicht gemerkt.
+ */
 @Service
-@RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository repository;
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsServiceImpl(UserRepository repository,
+            @Value("${auth.user-cache.max-size:10000}") long maxSize,
+            @Value("${auth.user-cache.ttl-ms:60000}") long ttlMs) {
+        this.repository = repository;
+        this.cache = ttlMs > 0
+            ? Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(Duration.ofMillis(ttlMs)).build()
+            : null;
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (cache == null) {
+            return load(username);
+        }
+        // Kopie ausgeben: Spring Security löscht nach der Anmeldung das Passwort im übergebenen Objekt
+        return User.withUserDetails(cache.get(username, this::load)).build();
+    }
+
+    /**
+     * Nach Änderungen an Passwort oder Rolle, damit der Cache keine alten Daten liefert
+     * (bisher nur der Rehash beim Login; Registrierung und Import legen nur neue Benutzer an).
+     */
+    public void evict(String username) {
+        if (cache != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    private UserDetails load(String username) {
         UserEntity user = repository.findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return org.springframework.security.core.userdetails.User.builder()
+        return User.builder()
             .username(user.getUsername())
             .password(user.getPassword())       // <-- hier das Feld mit Hash
             .authorities(new SimpleGrantedAuthority(user.getRole()))
@@ -0,0 +1,264 @@
+package com.bankportal.authservice.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bankportal.authservice.dto.UserImportResult;
+import com.bankportal.authservice.dto.UserImportResult.Status;
+import com.bankportal.authservice.model.UserEntity;
+import com.bankportal.authservice.repository.UserRepository;
+import com.bankportal.authservice.security.PasswordHasher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Massenimport von Benutzern (CSV oder NDJSON), gestreamt in Blöcken zu auth.import.chunk-size Zeilen.
+ *
+ * Pro Block: eine Abfrage für bereits vergebene Namen, BCrypt parallel auf einem eigenen ForkJoinPool,
+ * dann ein COPY bzw. JDBC-Batch in einer Transaktion. Legt parallel jemand denselben Namen an, scheitert
+ * der Block am Unique-Index und wird zeilenweise wiederholt, damit jede Zeile ihr eigenes Ergebnis hat.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    public enum Format { CSV, NDJSON }
+
+    private static final Set<String> ROLES = Set.of("ROLE_USER", "ROLE_ADMIN");
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder encoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool hashingPool;
+    private final int chunkSize;
+
+    public UserImportService(UserRepository userRepository, PasswordHasher passwordHasher,
+            TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+            @Value("${auth.import.parallelism:0}") int parallelism,
+            @Value("${auth.import.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        // Gleiche (kalibrierte) Kosten wie bei der Registrierung
+        this.encoder = passwordHasher.encoder();
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.hashingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    public UserImportResult importUsers(InputStream body, Format format) throws IOException {
+        UserImportResult result = new UserImportResult();
+        Set<String> seen = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        int rowNumber = 0;
+        boolean first = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (first && format == Format.CSV && line.trim().toLowerCase().startsWith("username")) {
+                first = false;
+                continue;
+            }
+            first = false;
+            chunk.add(parse(++rowNumber, line, format, seen));
+            if (chunk.size() >= chunkSize) {
+                processChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        processChunk(chunk, result);
+        log.info("👥 Massenimport: {} angelegt, {} doppelt, {} ungültig, {} fehlgeschlagen",
+                result.getCreated(), result.getDuplicates(), result.getInvalid(), result.getFailed());
+        return result;
+    }
+
+    private void processChunk(List<Row> chunk, UserImportResult result) {
+        List<Row> candidates = chunk.stream().filter(r -> r.status == null).toList();
+        if (!candidates.isEmpty()) {
+            Set<String> existing = userRepository.findExistingUsernames(
+                    candidates.stream().map(r -> r.username).toList());
+            List<Row> toInsert = new ArrayList<>(candidates.size());
+            for (Row row : candidates) {
+                if (existing.contains(row.username)) {
+                    // Bestehende Benutzer bleiben unverändert (Passwort, Rolle): nichts im UserDetails-Cache zu verwerfen
+                    row.reject(Status.DUPLICATE, "Benutzername bereits vergeben");
+                } else {
+                    toInsert.add(row);
+                }
+            }
+            hash(toInsert);
+            insert(toInsert);
+        }
+        for (Row row : chunk) {
+            result.add(new UserImportResult.Row(row.number, row.username, row.status, row.message));
+        }
+    }
+
+    private void hash(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        // Parallel-Stream im eigenen Pool: die Tasks laufen dort, nicht im Common Pool
+        hashingPool.submit(() -> rows.parallelStream().forEach(r -> {
+            r.user.setPasswordHash(encoder.encode(r.password));
+            r.password = null;
+        })).join();
+    }
+
+    private void insert(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    userRepository.insertAll(rows.stream().map(r -> r.user).toList()));
+            rows.forEach(r -> r.status = Status.CREATED);
+        } catch (DataIntegrityViolationException e) {
+            // Wettlauf mit einer Registrierung: Block verworfen, jetzt zeilenweise
+            for (Row row : rows) {
+                try {
+                    userRepository.insertAll(List.of(row.user));
+                    row.status = Status.CREATED;
+                } catch (DataIntegrityViolationException duplicate) {
+                    row.reject(Status.DUPLICATE, "Benutzername bereits vergeben");
+                } catch (RuntimeException other) {
+                    row.reject(Status.FAILED, other.getMessage());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Massenimport: Block mit {} Zeilen fehlgeschlagen: {}", rows.size(), e.getMessage(), e);
+            rows.forEach(r -> r.reject(Status.FAILED, e.getMessage()));
+        }
+    }
+
+    private Row parse(int number, String line, Format format, Set<String> seen) {
+        String username;
+        String password;
+        String role;
+        try {
+            if (format == Format.NDJSON) {
+                JsonNode node = objectMapper.readTree(line);
+                username = text(node, "username");
+                password = text(node, "password");
+                role = text(node, "role");
+            } else {
+                List<String> fields = splitCsv(line);
+                username = fields.size() > 0 ? fields.get(0).trim() : null;
+                password = fields.size() > 1 ? fields.get(1) : null;
+                role = fields.size() > 2 ? fields.get(2).trim() : null;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return Row.rejected(number, null, Status.INVALID, "Zeile nicht lesbar");
+        }
+
+        // Gleiche Regeln wie RegisterRequest
+        if (username == null || username.isBlank() || username.length() < 3 || username.length() > 50) {
+            return Row.rejected(number, username, Status.INVALID, "Benutzername muss 3 bis 50 Zeichen haben");
+        }
+        if (password == null || password.isBlank() || password.length() < 6 || password.length() > 100) {
+            return Row.rejected(number, username, Status.INVALID, "Passwort muss 6 bis 100 Zeichen haben");
+        }
+        String normalizedRole = role == null || role.isBlank() ? "ROLE_USER"
+                : role.toUpperCase().startsWith("ROLE_") ? role.toUpperCase() : "ROLE_" + role.toUpperCase();
+        if (!ROLES.contains(normalizedRole)) {
+            return Row.rejected(number, username, Status.INVALID, "Unbekannte Rolle: " + role);
+        }
+        if (!seen.add(username)) {
+            return Row.rejected(number, username, Status.DUPLICATE, "Benutzername mehrfach in der Datei");
+        }
+        return new Row(number, username, password, normalizedRole);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    // CSV nach RFC 4180: Felder optional in "...", "" steht für ein Anführungszeichen
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Nicht geschlossenes Anführungszeichen");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /** Zeile in Bearbeitung; status == null heißt: noch im Rennen. */
+    private static final class Row {
+        final int number;
+        final String username;
+        final UserEntity user;
+        String password;
+        Status status;
+        String message;
+
+        Row(int number, String username, String password, String role) {
+            this.number = number;
+            this.username = username;
+            this.password = password;
+            this.user = new UserEntity(null, username, null, role);
+        }
+
+        static Row rejected(int number, String username, Status status, String message) {
+            Row row = new Row(number, username, null, null);
+            row.reject(status, message);
+            return row;
+        }
+
+        void reject(Status status, String message) {
+            this.status = status;
+            this.message = message;
+        }
+    }
+}
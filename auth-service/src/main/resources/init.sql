@@ -9,6 +9,28 @@ CREATE TABLE IF NOT EXISTS users (
 -- Create index for username lookup
 CREATE INDEX IF NOT EXISTS idx_users_username ON users(username);
 
+-- Refresh Tokens (nur SHA-256), rotierend pro Familie
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash VARCHAR(64) UNIQUE NOT NULL,
+    username VARCHAR(50) NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    used_at TIMESTAMP WITH TIME ZONE,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens(family_id);
+
+-- Gesperrte Access Tokens (jti) bis zu ihrem Ablauf
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+
 -- Insert test user if not exists (password is 'test123' hashed)
 INSERT INTO users (username, password_hash, role) 
 SELECT 'testuser', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8i4GzOwSo9u3pNSwNe', 'USER'
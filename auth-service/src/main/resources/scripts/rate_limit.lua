@@ -0,0 +1,22 @@
+-- Token Bucket (GCRA) für alle auth-service-Replikas; atomar, Zeit vom Redis-Server (µs).
+-- KEYS[1] = Bucket, ARGV[1] = Intervall pro Token (µs), ARGV[2] = Kapazität, ARGV[3] = gewünschte Tokens
+-- Rückgabe: { gewährt, µs bis zum nächsten Token (nur bei 0), µs bis voll, danach noch frei }
+local t = redis.call('TIME')
+local now = tonumber(t[1]) * 1000000 + tonumber(t[2])
+local interval = tonumber(ARGV[1])
+local burst = interval * tonumber(ARGV[2])
+
+-- Wert = Zeitpunkt, zu dem der Bucket wieder voll ist
+local full_at = tonumber(redis.call('GET', KEYS[1]) or 0)
+local base = math.max(full_at, now)
+local free = math.floor((burst - (base - now)) / interval)
+local granted = math.min(tonumber(ARGV[3]), free)
+
+if granted <= 0 then
+  return { 0, base + interval - burst - now, base - now, 0 }
+end
+
+local next_full = base + granted * interval
+-- Nach Ablauf ist der Bucket ohnehin voll, der Schlüssel kann weg
+redis.call('SET', KEYS[1], string.format('%d', next_full), 'PX', math.ceil((next_full - now) / 1000) + 1)
+return { granted, 0, next_full - now, free - granted }
@@ -1,11 +1,16 @@
 package com.bankportal.authservice.config;
 
 import org.junit.jupiter.api.Test;
+
+import com.bankportal.authservice.service.AuthMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -31,4 +36,22 @@ class RateLimitingConfigTest {
     }
     mvc.perform(get("/api/auth/login")).andExpect(status().isTooManyRequests());
   }
+
+  @Test
+  void rejectionsAreCountedPerEndpoint() throws Exception {
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    var interceptor = new RateLimitingConfig.RateLimitingInterceptor(
+        new TokenBucketLimiter(RateLimitingConfig.RateLimitingInterceptor.WINDOW, 1000), new AuthMetrics(meters));
+
+    MockMvc mvc = MockMvcBuilders
+      .standaloneSetup(new DummyLoginController())
+      .addInterceptors(interceptor)
+      .build();
+
+    for (int i = 0; i < 7; i++) {
+      mvc.perform(get("/api/auth/login"));
+    }
+    assertEquals(2.0, meters.counter("auth.ratelimit.rejections", "endpoint", "login").count());
+    assertEquals(0.0, meters.counter("auth.ratelimit.rejections", "endpoint", "register").count());
+  }
 }
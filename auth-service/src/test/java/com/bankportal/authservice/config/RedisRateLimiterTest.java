@@ -0,0 +1,108 @@
+package com.bankportal.authservice.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.bankportal.authservice.config.RateLimiter.EndpointClass;
+import com.bankportal.authservice.config.RedisRateLimiter.Grant;
+import com.bankportal.authservice.config.RedisRateLimiter.TokenStore;
+
+class RedisRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    /** Ersatz für Redis: gleiche Rechnung wie scripts/rate_limit.lua, gemeinsam für alle "Replikas". */
+    private final class InMemoryStore implements TokenStore {
+        final Map<String, Long> fullAt = new HashMap<>();
+        final AtomicInteger calls = new AtomicInteger();
+        volatile boolean down;
+
+        @Override
+        public synchronized Grant reserve(String bucket, long interval, int capacity, int wanted) {
+            calls.incrementAndGet();
+            if (down) {
+                throw new IllegalStateException("Redis weg");
+            }
+            long t = TimeUnit.NANOSECONDS.toMicros(now.get());
+            long burst = interval * capacity;
+            long base = Math.max(fullAt.getOrDefault(bucket, 0L), t);
+            int free = (int) Math.floorDiv(burst - (base - t), interval);
+            int granted = Math.min(wanted, free);
+            if (granted <= 0) {
+                return new Grant(0, base + interval - burst - t, base - t, 0);
+            }
+            fullAt.put(bucket, base + granted * interval);
+            return new Grant(granted, 0, base + granted * interval - t, free - granted);
+        }
+    }
+
+    private final InMemoryStore store = new InMemoryStore();
+
+    private RedisRateLimiter replica() {
+        return new RedisRateLimiter(store, new TokenBucketLimiter(Duration.ofMinutes(1), 1000, now::get),
+                Duration.ofMinutes(1), 1000, 20, Duration.ofSeconds(1), Duration.ofSeconds(5), now::get);
+    }
+
+    @Test
+    void limitGiltUeberAlleReplikas() {
+        RedisRateLimiter a = replica();
+        RedisRateLimiter b = replica();
+
+        int allowed = 0;
+        for (int i = 0; i < 5; i++) {
+            allowed += a.tryAcquire("1.2.3.4", EndpointClass.LOGIN).allowed() ? 1 : 0;
+            allowed += b.tryAcquire("1.2.3.4", EndpointClass.LOGIN).allowed() ? 1 : 0;
+        }
+        assertEquals(5, allowed);
+    }
+
+    @Test
+    void reserviertTokensImVorausUndMerktAblehnungen() {
+        RedisRateLimiter a = replica();
+
+        // VALIDATE: 1000 pro Minute -> Batch von 20 Tokens pro Redis-Aufruf
+        for (int i = 0; i < 40; i++) {
+            assertTrue(a.tryAcquire("1.2.3.4", EndpointClass.VALIDATE).allowed());
+        }
+        assertEquals(2, store.calls.get());
+
+        store.calls.set(0);
+        for (int i = 0; i < 5; i++) {
+            a.tryAcquire("5.6.7.8", EndpointClass.LOGIN);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertFalse(a.tryAcquire("5.6.7.8", EndpointClass.LOGIN).allowed());
+        }
+        // 5 Tokens + 1 Ablehnung; die restlichen 99 Ablehnungen kommen aus dem Near-Cache
+        assertEquals(6, store.calls.get());
+
+        now.addAndGet(Duration.ofSeconds(12).toNanos());
+        assertTrue(a.tryAcquire("5.6.7.8", EndpointClass.LOGIN).allowed());
+    }
+
+    @Test
+    void faelltBeiRedisAusfallAufLokaleLimitsZurueck() {
+        RedisRateLimiter a = replica();
+        store.down = true;
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(a.tryAcquire("1.2.3.4", EndpointClass.LOGIN).allowed());
+        }
+        assertFalse(a.tryAcquire("1.2.3.4", EndpointClass.LOGIN).allowed());
+        // Nur der erste Aufruf hat Redis versucht, danach retry-ms lang lokal
+        assertEquals(1, store.calls.get());
+
+        store.down = false;
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertTrue(a.tryAcquire("9.9.9.9", EndpointClass.LOGIN).allowed());
+        assertEquals(2, store.calls.get());
+    }
+}
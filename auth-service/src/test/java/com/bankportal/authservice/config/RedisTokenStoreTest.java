@@ -0,0 +1,54 @@
+package com.bankportal.authservice.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.bankportal.authservice.config.RedisRateLimiter.Grant;
+
+/** Prüft scripts/rate_limit.lua gegen eine lokale Redis, z. B. REDIS_HOST=localhost (docker compose up redis). */
+@EnabledIfEnvironmentVariable(named = "REDIS_HOST", matches = ".+")
+class RedisTokenStoreTest {
+
+    private LettuceConnectionFactory factory;
+    private RedisTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(System.getenv("REDIS_HOST"),
+                Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"))));
+        factory.afterPropertiesSet();
+        StringRedisTemplate template = new StringRedisTemplate(factory);
+        template.afterPropertiesSet();
+        store = new RedisTokenStore(template);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.destroy();
+    }
+
+    @Test
+    void reserviertBisZurKapazitaetUndLehntDannAb() {
+        String bucket = "test:" + UUID.randomUUID();
+        long interval = 12_000_000L;   // 5 pro Minute
+
+        Grant first = store.reserve(bucket, interval, 5, 3);
+        assertEquals(3, first.granted());
+        assertEquals(2, first.remaining());
+
+        assertEquals(2, store.reserve(bucket, interval, 5, 3).granted());
+
+        Grant denied = store.reserve(bucket, interval, 5, 1);
+        assertEquals(0, denied.granted());
+        assertTrue(denied.microsUntilRetry() > 0 && denied.microsUntilRetry() <= interval);
+    }
+}
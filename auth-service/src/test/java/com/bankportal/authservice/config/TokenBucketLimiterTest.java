@@ -0,0 +1,57 @@
+package com.bankportal.authservice.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.bankportal.authservice.config.RateLimiter.Decision;
+import com.bankportal.authservice.config.RateLimiter.EndpointClass;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(Duration.ofMinutes(1), 1000, now::get);
+
+    @Test
+    void fuelltLazyNachStattAmFensterendeZurueckzusetzen() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("1.2.3.4", EndpointClass.LOGIN).allowed());
+        }
+        Decision denied = limiter.tryAcquire("1.2.3.4", EndpointClass.LOGIN);
+        assertFalse(denied.allowed());
+        assertEquals(Duration.ofSeconds(12).toNanos(), denied.nanosUntilRetry());
+
+        // Nach 12 s genau ein neues Token – kein voller Burst wie beim alten clear()
+        now.addAndGet(Duration.ofSeconds(12).toNanos());
+        assertTrue(limiter.tryAcquire("1.2.3.4", EndpointClass.LOGIN).allowed());
+        assertFalse(limiter.tryAcquire("1.2.3.4", EndpointClass.LOGIN).allowed());
+    }
+
+    @Test
+    void endpunktklassenUndIpsHabenEigeneBuckets() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("1.2.3.4", EndpointClass.LOGIN);
+        }
+        assertFalse(limiter.tryAcquire("1.2.3.4", EndpointClass.LOGIN).allowed());
+
+        Decision register = limiter.tryAcquire("1.2.3.4", EndpointClass.REGISTER);
+        assertTrue(register.allowed());
+        assertEquals(2, register.remaining());
+        assertTrue(limiter.tryAcquire("5.6.7.8", EndpointClass.LOGIN).allowed());
+    }
+
+    @Test
+    void inaktiveBucketsWerdenEntferntUndSpeicherIstBegrenzt() {
+        TokenBucketLimiter small = new TokenBucketLimiter(Duration.ofMinutes(1), 10, now::get);
+        for (int i = 0; i < 100; i++) {
+            small.tryAcquire("10.0.0." + i, EndpointClass.DEFAULT);
+        }
+        assertTrue(small.size() <= 10);
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertEquals(0, small.size());
+    }
+}
@@ -1,6 +1,7 @@
 package com.bankportal.authservice.controller;
 
 import com.bankportal.authservice.security.JwtFilter;
+import com.bankportal.authservice.security.PasswordHashingBusyException;
 import com.bankportal.authservice.service.AuthService;
 import com.bankportal.authservice.dto.LoginRequest;
 import com.bankportal.authservice.dto.LoginResponse;
@@ -15,8 +16,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import com.bankportal.authservice.repository.UserRepository;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.authentication.BadCredentialsException;
 
 
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -45,20 +50,73 @@ class AuthControllerWebTest {
   void login_ok() throws Exception {
     // stub Service-Antwort
     org.mockito.Mockito.when(authService.login(new LoginRequest("alice", "pw")))
-        .thenReturn(new LoginResponse("test-token"));
+        .thenReturn(CompletableFuture.completedFuture(new LoginResponse("test-token")));
 
-    mvc.perform(post("/api/auth/login")
+    var result = mvc.perform(post("/api/auth/login")
         .contentType(MediaType.APPLICATION_JSON)
         .content("{\"username\":\"alice\",\"password\":\"pw\"}"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mvc.perform(asyncDispatch(result))
       .andExpect(status().isOk())
       .andExpect(jsonPath("$.token").exists());
   }
 
+  @Test
+  void login_returns503WhenHashingPoolIsFull() throws Exception {
+    org.mockito.Mockito.when(authService.login(new LoginRequest("alice", "pw")))
+        .thenReturn(CompletableFuture.failedFuture(new PasswordHashingBusyException("überlastet")));
+
+    var result = mvc.perform(post("/api/auth/login")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"username\":\"alice\",\"password\":\"pw\"}"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mvc.perform(asyncDispatch(result))
+      .andExpect(status().isServiceUnavailable())
+      .andExpect(header().string("Retry-After", "1"));
+  }
+
   @Test
   void register_ok() throws Exception {
-    mvc.perform(post("/api/auth/register")
+    org.mockito.Mockito.when(authService.register(org.mockito.ArgumentMatchers.any()))
+        .thenAnswer(inv -> CompletableFuture.completedFuture(inv.getArgument(0)));
+
+    var result = mvc.perform(post("/api/auth/register")
         .contentType(MediaType.APPLICATION_JSON)
         .content("{\"username\":\"bob\",\"password\":\"s3cret\"}"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mvc.perform(asyncDispatch(result))
       .andExpect(status().isCreated());
   }
+
+  @Test
+  void refresh_ok() throws Exception {
+    org.mockito.Mockito.when(authService.refresh("alt"))
+        .thenReturn(new LoginResponse("neues-token", "neu", 300L));
+
+    mvc.perform(post("/api/auth/refresh")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"refreshToken\":\"alt\"}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.token").value("neues-token"))
+      .andExpect(jsonPath("$.refreshToken").value("neu"))
+      .andExpect(jsonPath("$.expiresIn").value(300));
+  }
+
+  @Test
+  void refresh_returns401ForReusedToken() throws Exception {
+    org.mockito.Mockito.when(authService.refresh("alt"))
+        .thenThrow(new BadCredentialsException("Refresh Token bereits verwendet"));
+
+    mvc.perform(post("/api/auth/refresh")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"refreshToken\":\"alt\"}"))
+      .andExpect(status().isUnauthorized())
+      .andExpect(jsonPath("$.error").exists());
+  }
 }
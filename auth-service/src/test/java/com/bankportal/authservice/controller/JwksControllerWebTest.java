@@ -0,0 +1,55 @@
+package com.bankportal.authservice.controller;
+
+import com.bankportal.authservice.security.JwtFilter;
+import com.bankportal.security.KeyRing;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+  controllers = JwksController.class,
+  excludeFilters = @ComponentScan.Filter(
+    type = FilterType.ASSIGNABLE_TYPE,
+    classes = { JwtFilter.class }
+  )
+)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(JwksControllerWebTest.Keys.class)
+class JwksControllerWebTest {
+
+    static final KeyRing KEY_RING = KeyRing.generate();
+
+    @TestConfiguration
+    static class Keys {
+        @Bean
+        KeyRing keyRing() {
+            return KEY_RING;
+        }
+    }
+
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    void jwks_listsPublicKeyWithKid() throws Exception {
+        mvc.perform(get("/.well-known/jwks.json"))
+           .andExpect(status().isOk())
+           .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+           .andExpect(header().string("Cache-Control", "max-age=300, public"))
+           .andExpect(jsonPath("$.keys[0].kid").value(KEY_RING.activeKeyId()))
+           .andExpect(jsonPath("$.keys[0].kty").value("RSA"))
+           .andExpect(jsonPath("$.keys[0].alg").value("RS256"))
+           .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+}
@@ -0,0 +1,63 @@
+package com.bankportal.authservice.controller;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.bankportal.authservice.model.RevokedTokenEntity;
+import com.bankportal.authservice.security.JwtFilter;
+import com.bankportal.authservice.security.RevocationList;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+  controllers = RevocationController.class,
+  excludeFilters = @ComponentScan.Filter(
+    type = FilterType.ASSIGNABLE_TYPE,
+    classes = { JwtFilter.class }
+  )
+)
+@AutoConfigureMockMvc(addFilters = false)
+class RevocationControllerWebTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    RevocationList revocationList;
+
+    @Test
+    void revocations_listetSperrenSeitZeitpunkt() throws Exception {
+        Instant since = Instant.ofEpochMilli(1_700_000_000_000L);
+        Instant expiresAt = Instant.ofEpochMilli(1_700_000_900_000L);
+        when(revocationList.revokedSince(since))
+            .thenReturn(List.of(new RevokedTokenEntity("jti-1", expiresAt, since)));
+
+        mvc.perform(get("/api/auth/revocations").param("since", String.valueOf(since.toEpochMilli())))
+           .andExpect(status().isOk())
+           .andExpect(header().string("Cache-Control", "no-store"))
+           .andExpect(jsonPath("$.now").isNumber())
+           .andExpect(jsonPath("$.revoked[0].jti").value("jti-1"))
+           .andExpect(jsonPath("$.revoked[0].expiresAt").value(expiresAt.toEpochMilli()));
+    }
+
+    @Test
+    void revocations_ohneSinceLiefertAlleGueltigenSperren() throws Exception {
+        when(revocationList.revokedSince(Instant.EPOCH)).thenReturn(List.of());
+
+        mvc.perform(get("/api/auth/revocations"))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.revoked").isEmpty());
+        verify(revocationList).revokedSince(Instant.EPOCH);
+    }
+}
@@ -10,8 +10,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import com.bankportal.authservice.security.JwtFilter;
+import com.bankportal.authservice.service.AuthMetrics;
+import com.bankportal.authservice.service.AuthMetrics.Validation;
 
 
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,11 +39,15 @@ class ValidationControllerWebTest {
     @MockBean
     JwtUtil jwtUtil;
 
+    @MockBean
+    AuthMetrics metrics;
+
     @Test
     void validate_missingToken() throws Exception {
         mvc.perform(get("/api/auth/validate"))
            .andExpect(status().isUnauthorized())
            .andExpect(header().string("X-Auth-Status", "missing_token"));
+        verify(metrics).validation(anyLong(), eq(Validation.MISSING_TOKEN));
     }
 
     @Test
@@ -64,4 +75,33 @@ class ValidationControllerWebTest {
            .andExpect(jsonPath("$.username").value("alice"))
            .andExpect(jsonPath("$.original_uri").value("/api/account/me"));
     }
+
+    @Test
+    void validateGateway_ok_returns204WithoutBody() throws Exception {
+        when(jwtUtil.extractUsername("good")).thenReturn("alice");
+
+        mvc.perform(get("/api/auth/validate").param("mode", "gateway")
+                .header("Authorization", "Bearer good"))
+           .andExpect(status().isNoContent())
+           .andExpect(header().string("X-Auth-Status", "valid"))
+           .andExpect(header().string("X-User", "alice"))
+           .andExpect(content().string(""));
+
+        verify(jwtUtil, times(1)).extractUsername("good");
+        verifyNoMoreInteractions(jwtUtil);
+    }
+
+    @Test
+    void validateGateway_invalidOrMissingToken_returns401() throws Exception {
+        mvc.perform(get("/api/auth/validate").param("mode", "gateway")
+                .header("Authorization", "Bearer bad"))
+           .andExpect(status().isUnauthorized())
+           .andExpect(header().string("X-Auth-Status", "invalid"))
+           .andExpect(header().doesNotExist("X-User"))
+           .andExpect(content().string(""));
+
+        mvc.perform(get("/api/auth/validate").param("mode", "gateway"))
+           .andExpect(status().isUnauthorized())
+           .andExpect(header().string("X-Auth-Status", "missing_token"));
+    }
 }
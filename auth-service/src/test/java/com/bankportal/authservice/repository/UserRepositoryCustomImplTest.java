@@ -0,0 +1,54 @@
+package com.bankportal.authservice.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import com.bankportal.authservice.model.UserEntity;
+
+/** JDBC-Batch-Pfad gegen H2 (COPY braucht PostgreSQL); Schema wie init.sql. */
+class UserRepositoryCustomImplTest {
+
+    private final EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+    private final JdbcTemplate jdbc = new JdbcTemplate(db);
+    private final UserRepositoryCustomImpl repo = new UserRepositoryCustomImpl(jdbc);
+
+    UserRepositoryCustomImplTest() {
+        jdbc.execute("CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50) UNIQUE NOT NULL,"
+                + " password_hash VARCHAR(255) NOT NULL, role VARCHAR(20) NOT NULL DEFAULT 'USER')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void legtImBatchAnUndFindetVorhandeneNamen() {
+        repo.insertAll(List.of(new UserEntity(null, "a", "h1", "ROLE_USER"), new UserEntity(null, "b", "h2", "ROLE_ADMIN")));
+
+        assertEquals(2, jdbc.queryForObject("SELECT count(*) FROM users", Integer.class));
+        assertEquals(Set.of("b"), repo.findExistingUsernames(List.of("b", "c")));
+        assertEquals(Set.of(), repo.findExistingUsernames(List.of()));
+    }
+
+    @Test
+    void doppelterNameScheitertAmUniqueIndex() {
+        repo.insertAll(List.of(new UserEntity(null, "a", "h1", "ROLE_USER")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repo.insertAll(List.of(new UserEntity(null, "a", "h2", "ROLE_USER"))));
+    }
+}
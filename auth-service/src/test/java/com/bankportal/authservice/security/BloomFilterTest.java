@@ -0,0 +1,45 @@
+package com.bankportal.authservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void eingetrageneWerteWerdenImmerGefunden() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.put(values[i]);
+        }
+        for (String value : values) {
+            assertTrue(filter.mightContain(value));
+        }
+    }
+
+    @Test
+    void fehlerrateBleibtInDerNaeheDerVorgabe() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        // Erwartet ~1 %; Spielraum gegen Zufall
+        assertTrue(falsePositives < 2_000, "Fehlerrate zu hoch: " + falsePositives);
+        assertEquals(7, filter.hashFunctions());
+    }
+
+    @Test
+    void leererFilterEnthaeltNichts() {
+        assertFalse(new BloomFilter(10, 0.01).mightContain("jti"));
+    }
+}
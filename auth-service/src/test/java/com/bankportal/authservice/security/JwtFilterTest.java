@@ -0,0 +1,65 @@
+package com.bankportal.authservice.security;
+
+import com.bankportal.authservice.repository.RevokedTokenRepository;
+import com.bankportal.security.JwtSigner;
+import com.bankportal.security.JwtVerifier;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JwtFilterTest {
+
+    static final String SECRET = "mysecretkeymysecretkeymysecretkey123456";
+
+    final JwtFilter filter = new JwtFilter(
+            new VerifiedTokenCache(new JwtVerifier(SECRET),
+                    new RevocationList(mock(RevokedTokenRepository.class), 100, Clock.systemUTC()),
+                    100, Duration.ofSeconds(5), Ticker.systemTicker()));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authentifiziertAusClaimsOhneBenutzerLookup() throws Exception {
+        String token = new JwtSigner(SECRET, "auth-service", Duration.ofMinutes(5))
+                .sign("alice", Map.of("roles", List.of("ROLE_USER")));
+        var request = new MockHttpServletRequest("GET", "/api/test/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        var chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(chain.getRequest());
+        assertEquals("alice", auth.getPrincipal());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_USER"), List.copyOf(auth.getAuthorities()));
+    }
+
+    @Test
+    void ungueltigesTokenBleibtAnonym() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/test/me");
+        request.addHeader("Authorization", "Bearer invalid.jwt.token");
+        var chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+}
@@ -0,0 +1,55 @@
+package com.bankportal.authservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    @Test
+    void hashtUndPrueftAufDemPool() {
+        PasswordHasher hasher = new PasswordHasher(4, 0, 1, 4);
+        try {
+            String hash = hasher.encode("s3cret").join();
+
+            assertTrue(hash.startsWith("$2a$04$"));
+            assertTrue(hasher.matches("s3cret", hash).join());
+            assertFalse(hasher.matches("falsch", hash).join());
+        } finally {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void volleWarteschlangeScheitertSofort() {
+        // Executor, der wie ein voller ThreadPoolExecutor (AbortPolicy) ablehnt
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(4), 4,
+                task -> { throw new RejectedExecutionException("voll"); });
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> hasher.matches("s3cret", "$2a$04$x").join());
+        assertInstanceOf(PasswordHashingBusyException.class, ex.getCause());
+    }
+
+    @Test
+    void rehashBeiAnderenKosten() {
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(12), 12, Runnable::run);
+
+        assertTrue(hasher.needsRehash("$2a$10$abcdefghijklmnopqrstuu"));
+        assertTrue(hasher.needsRehash("$2a$14$abcdefghijklmnopqrstuu"));
+        assertFalse(hasher.needsRehash("$2a$12$abcdefghijklmnopqrstuu"));
+        assertFalse(hasher.needsRehash("kein-bcrypt"));
+    }
+
+    @Test
+    void kalibrierungBleibtImErlaubtenBereich() {
+        assertEquals(PasswordHasher.MIN_COST, PasswordHasher.calibrate(Duration.ZERO));
+        int cost = PasswordHasher.calibrate(Duration.ofMillis(100));
+        assertTrue(cost >= PasswordHasher.MIN_COST && cost <= PasswordHasher.MAX_COST);
+    }
+}
@@ -0,0 +1,92 @@
+package com.bankportal.authservice.security;
+
+import com.bankportal.authservice.model.RevokedTokenEntity;
+import com.bankportal.authservice.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RevocationListTest {
+
+    final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2025-01-01T12:00:00Z"));
+    final Clock clock = new Clock() {
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now.get(); }
+    };
+    final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    final RevocationList list = new RevocationList(repository, 16, clock);
+
+    @Test
+    void sperreGiltSofortUndWirdGespeichert() {
+        list.revoke("jti-1", now.get().plusSeconds(300));
+
+        assertTrue(list.isRevoked("jti-1"));
+        assertFalse(list.isRevoked("jti-2"));
+        verify(repository).save(any(RevokedTokenEntity.class));
+    }
+
+    @Test
+    void abgelaufeneTokensWerdenNichtGesperrt() {
+        list.revoke("jti-1", now.get().minusSeconds(1));
+        list.revoke(null, now.get().plusSeconds(300));
+
+        assertEquals(0, list.size());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void abgleichUebernimmtSperrenAndererInstanzenUndRaeumtAuf() {
+        when(repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any())).thenReturn(List.of(
+                new RevokedTokenEntity("fremd", now.get().plusSeconds(60), now.get())));
+        list.sync();
+        assertTrue(list.isRevoked("fremd"));
+
+        // Nach Ablauf fliegt der Eintrag raus (Filter wird ohne ihn neu gebaut)
+        when(repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any())).thenReturn(List.of());
+        now.set(now.get().plus(Duration.ofMinutes(2)));
+        list.sync();
+        assertFalse(list.isRevoked("fremd"));
+        assertEquals(0, list.size());
+        verify(repository, times(2)).deleteByExpiresAtBefore(any());
+    }
+
+    @Test
+    void filterWaechstMitUndVerliertKeineEintraege() {
+        for (int i = 0; i < 100; i++) {
+            list.revoke("jti-" + i, now.get().plusSeconds(300));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertTrue(list.isRevoked("jti-" + i));
+        }
+    }
+
+    @Test
+    void datenbankfehlerBeimAbgleichLaesstLokaleSperrenStehen() {
+        list.revoke("jti-1", now.get().plusSeconds(300));
+        when(repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any()))
+                .thenThrow(new IllegalStateException("DB weg"));
+
+        list.sync();
+
+        assertTrue(list.isRevoked("jti-1"));
+    }
+
+    @Test
+    void revokedSinceFragtMitPufferUndNurGueltigeSperrenAb() {
+        Instant since = now.get().minusSeconds(5);
+
+        list.revokedSince(since);
+
+        verify(repository).findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since.minusSeconds(30), now.get());
+    }
+}
@@ -0,0 +1,71 @@
+package com.bankportal.authservice.security;
+
+import com.bankportal.authservice.repository.RevokedTokenRepository;
+import com.bankportal.security.JwtSigner;
+import com.bankportal.security.JwtVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    static final String SECRET = "mysecretkeymysecretkeymysecretkey123456";
+
+    final AtomicLong nanos = new AtomicLong();
+    final JwtVerifier verifier = spy(new JwtVerifier(SECRET));
+    final RevocationList revocations = new RevocationList(mock(RevokedTokenRepository.class), 100, Clock.systemUTC());
+    final VerifiedTokenCache cache = new VerifiedTokenCache(verifier, revocations, 100, Duration.ofSeconds(5), nanos::get);
+
+    @Test
+    void wiederholtePruefungNutztCacheBisExp() {
+        String token = new JwtSigner(SECRET, "auth-service", Duration.ofMinutes(10))
+                .sign("alice", Map.of("roles", List.of("ROLE_USER")));
+
+        assertEquals(new VerifiedTokenCache.Result(true, "alice", List.of("ROLE_USER")), cache.verify(token));
+        assertEquals("alice", cache.verify(token).username());
+        verify(verifier, times(1)).verify(token);
+
+        // Nach exp (laut Cache-Uhr) wird neu geprüft
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        cache.verify(token);
+        verify(verifier, times(2)).verify(token);
+    }
+
+    @Test
+    void ungueltigeTokensWerdenNurKurzGemerkt() {
+        assertFalse(cache.verify("invalid.jwt.token").valid());
+        assertFalse(cache.verify("invalid.jwt.token").valid());
+        verify(verifier, times(1)).verify(anyString());
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertNull(cache.verify("invalid.jwt.token").username());
+        verify(verifier, times(2)).verify(anyString());
+    }
+
+    @Test
+    void leeresTokenIstUngueltigOhnePruefung() {
+        assertFalse(cache.verify("").valid());
+        assertFalse(cache.verify(null).valid());
+        verifyNoInteractions(verifier);
+    }
+
+    @Test
+    void gesperrtesTokenFaelltAuchAusDemCacheDurch() {
+        String token = new JwtSigner(SECRET, "auth-service", Duration.ofMinutes(5)).sign("alice", Map.of());
+        assertTrue(cache.verify(token).valid());
+
+        revocations.revoke(verifier.verify(token).getId(), Instant.now().plus(Duration.ofMinutes(5)));
+
+        assertFalse(cache.verify(token).valid());
+        assertNull(cache.verify(token).username());
+    }
+}
@@ -8,11 +8,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
-
+import com.bankportal.authservice.security.PasswordHasher;
+import com.bankportal.authservice.security.RevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -22,19 +34,34 @@ import static org.mockito.Mockito.*;
 class AuthServiceTest {
 
     UserRepository repo = mock(UserRepository.class);
-    PasswordEncoder encoder = mock(PasswordEncoder.class);
+    PasswordHasher encoder = mock(PasswordHasher.class);
     JwtService jwt = mock(JwtService.class);
-    AuthService service = new AuthService(repo, encoder, jwt);
+    RefreshTokenService refreshTokens = mock(RefreshTokenService.class);
+    RevocationList revocations = mock(RevocationList.class);
+    UserDetailsServiceImpl userDetails = mock(UserDetailsServiceImpl.class);
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    // Datenbankschritte nach dem Hashing; mit runDbTasks = false aufgesammelt statt direkt ausgeführt
+    List<Runnable> dbTasks = new ArrayList<>();
+    boolean runDbTasks = true;
+    AuthService service = new AuthService(repo, encoder, jwt, refreshTokens, revocations, new AuthMetrics(meters),
+        userDetails, task -> {
+            if (runDbTasks) {
+                task.run();
+            } else {
+                dbTasks.add(task);
+            }
+        });
 
     @Test
     void loginBenutzerNichtGefunden() {
         when(repo.findByUsername("u")).thenReturn(Optional.empty());
 
-        BadCredentialsException ex = assertThrows(
-            BadCredentialsException.class,
-            () -> service.login(new LoginRequest("u", "p"))
+        CompletionException ex = assertThrows(
+            CompletionException.class,
+            () -> service.login(new LoginRequest("u", "p")).join()
         );
-        assertTrue(ex.getMessage().toLowerCase().contains("nicht gefunden"));
+        assertInstanceOf(BadCredentialsException.class, ex.getCause());
+        assertTrue(ex.getCause().getMessage().toLowerCase().contains("nicht gefunden"));
         verify(repo).findByUsername("u");
         verifyNoMoreInteractions(repo, encoder, jwt);
     }
@@ -43,46 +70,57 @@ class AuthServiceTest {
     void loginFalschesPasswort() {
         UserEntity u = new UserEntity(1L, "u", "hash", "ROLE_USER");
         when(repo.findByUsername("u")).thenReturn(Optional.of(u));
-        when(encoder.matches("p", "hash")).thenReturn(false);
+        when(encoder.matches("p", "hash")).thenReturn(CompletableFuture.completedFuture(false));
 
-        BadCredentialsException ex = assertThrows(
-            BadCredentialsException.class,
-            () -> service.login(new LoginRequest("u", "p"))
+        CompletionException ex = assertThrows(
+            CompletionException.class,
+            () -> service.login(new LoginRequest("u", "p")).join()
         );
-        assertTrue(ex.getMessage().toLowerCase().contains("ungültig"));
+        assertInstanceOf(BadCredentialsException.class, ex.getCause());
+        assertTrue(ex.getCause().getMessage().toLowerCase().contains("ungültig"));
         verify(repo).findByUsername("u");
         verify(encoder).matches("p", "hash");
         verifyNoMoreInteractions(repo, encoder);
         verifyNoInteractions(jwt);
+
+        assertEquals(1, meters.timer("auth.login", "outcome", "bad_credentials").count());
+        assertEquals(0, meters.timer("auth.login", "outcome", "success").count());
     }
 
     @Test
     void loginErfolgreich() {
         UserEntity u = new UserEntity(1L, "u", "hash", "ROLE_USER");
         when(repo.findByUsername("u")).thenReturn(Optional.of(u));
-        when(encoder.matches("p", "hash")).thenReturn(true);
-        when(jwt.generateToken("u")).thenReturn("jwtToken");
+        when(encoder.matches("p", "hash")).thenReturn(CompletableFuture.completedFuture(true));
+        when(jwt.generateToken("u", List.of("ROLE_USER"))).thenReturn("jwtToken");
+        when(jwt.accessTokenTtl()).thenReturn(Duration.ofMinutes(5));
+        when(refreshTokens.issue("u")).thenReturn("refresh");
 
-        LoginResponse r = service.login(new LoginRequest("u", "p"));
+        LoginResponse r = service.login(new LoginRequest("u", "p")).join();
         assertEquals("jwtToken", r.getToken());
+        assertEquals("refresh", r.getRefreshToken());
+        assertEquals(300L, r.getExpiresIn());
 
         verify(repo).findByUsername("u");
         verify(encoder).matches("p", "hash");
-        verify(jwt).generateToken("u");
+        verify(jwt).generateToken("u", List.of("ROLE_USER"));
+        verify(repo, never()).save(any());
+
+        assertEquals(1, meters.timer("auth.login", "outcome", "success").count());
     }
 
     @Test
     void registerErfolgreich() {
         UserEntity in = new UserEntity(null, "neuerUser", "plainPw", null);
         when(repo.findByUsername("neuerUser")).thenReturn(Optional.empty());
-        when(encoder.encode("plainPw")).thenReturn("hashedPW");
+        when(encoder.encode("plainPw")).thenReturn(CompletableFuture.completedFuture("hashedPW"));
         when(repo.save(any(UserEntity.class))).thenAnswer(inv -> {
             UserEntity saved = inv.getArgument(0);
             saved.setId(42L);
             return saved;
         });
 
-        UserEntity out = service.register(in);
+        UserEntity out = service.register(in).join();
         assertEquals(42L, out.getId());
         assertEquals("neuerUser", out.getUsername());
         assertEquals("hashedPW", out.getPasswordHash());
@@ -93,6 +131,26 @@ class AuthServiceTest {
         verify(repo).save(any(UserEntity.class));
     }
 
+    @Test
+    void registerSpeichertNichtAufDemHashingPool() {
+        runDbTasks = false;
+        UserEntity in = new UserEntity(null, "neuerUser", "plainPw", null);
+        when(repo.findByUsername("neuerUser")).thenReturn(Optional.empty());
+        when(encoder.encode("plainPw")).thenReturn(CompletableFuture.completedFuture("hashedPW"));
+        when(repo.save(any(UserEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        CompletableFuture<UserEntity> result = service.register(in);
+
+        // Hash fertig, gespeichert wird aber erst auf dem DB-Executor
+        assertFalse(result.isDone());
+        verify(repo, never()).save(any());
+        assertEquals(1, dbTasks.size());
+
+        dbTasks.forEach(Runnable::run);
+        assertEquals("hashedPW", result.join().getPasswordHash());
+        verify(repo).save(in);
+    }
+
     @ParameterizedTest
     @CsvSource({
         "alice, alice",    // gleicher Name
@@ -103,9 +161,65 @@ class AuthServiceTest {
         when(repo.findByUsername(existingName)).thenReturn(Optional.of(existing));
 
         UserEntity newUser = new UserEntity(null, newName, "pw", null);
-        assertThrows(BadCredentialsException.class, () -> service.register(newUser));
+        CompletionException ex = assertThrows(CompletionException.class, () -> service.register(newUser).join());
+        assertInstanceOf(BadCredentialsException.class, ex.getCause());
         verify(repo).findByUsername(existingName);
         verifyNoInteractions(encoder);
         verify(repo, never()).save(any());
     }
+
+    @Test
+    void loginMitAltenKostenErneuertDenHash() {
+        UserEntity u = new UserEntity(1L, "u", "$2a$08$altehash", "ROLE_USER");
+        when(repo.findByUsername("u")).thenReturn(Optional.of(u));
+        when(encoder.matches("p", "$2a$08$altehash")).thenReturn(CompletableFuture.completedFuture(true));
+        when(encoder.needsRehash("$2a$08$altehash")).thenReturn(true);
+        when(encoder.encode("p")).thenReturn(CompletableFuture.completedFuture("$2a$12$neuehash"));
+        when(jwt.generateToken("u", List.of("ROLE_USER"))).thenReturn("jwtToken");
+        when(jwt.accessTokenTtl()).thenReturn(Duration.ofMinutes(5));
+
+        assertEquals("jwtToken", service.login(new LoginRequest("u", "p")).join().getToken());
+
+        assertEquals("$2a$12$neuehash", u.getPasswordHash());
+        // Erst speichern, dann den Cache leeren: der nächste Ladevorgang sieht den neuen Hash
+        InOrder order = inOrder(repo, userDetails);
+        order.verify(repo).save(u);
+        order.verify(userDetails).evict("u");
+    }
+
+    @Test
+    void refreshLaedtDieRolleNeu() {
+        when(refreshTokens.rotate("alt")).thenReturn(new RefreshTokenService.Rotation("u", "neu"));
+        when(repo.findByUsername("u")).thenReturn(Optional.of(new UserEntity(1L, "u", "hash", "ROLE_ADMIN")));
+        when(jwt.generateToken("u", List.of("ROLE_ADMIN"))).thenReturn("jwtToken");
+        when(jwt.accessTokenTtl()).thenReturn(Duration.ofMinutes(5));
+
+        LoginResponse r = service.refresh("alt");
+
+        assertEquals("jwtToken", r.getToken());
+        assertEquals("neu", r.getRefreshToken());
+        verifyNoInteractions(encoder);
+    }
+
+    @Test
+    void refreshFuerGeloeschtenBenutzerSperrtDasNeueToken() {
+        when(refreshTokens.rotate("alt")).thenReturn(new RefreshTokenService.Rotation("weg", "neu"));
+        when(repo.findByUsername("weg")).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> service.refresh("alt"));
+        verify(refreshTokens).revoke("neu");
+        verifyNoInteractions(jwt);
+    }
+
+    @Test
+    void logoutSperrtAccessUndRefreshToken() {
+        Instant exp = Instant.now().plusSeconds(300);
+        Claims claims = Jwts.claims().id("jti-1").expiration(Date.from(exp)).build();
+        when(jwt.verify("access")).thenReturn(claims);
+
+        service.logout("access", "refresh");
+
+        verify(revocations).revoke("jti-1", claims.getExpiration().toInstant());
+        verify(refreshTokens).revoke("refresh");
+    }
 }
@@ -1,11 +1,19 @@
 package com.bankportal.authservice.service;
 
+import com.bankportal.security.JwtSigner;
+import com.bankportal.security.JwtVerifier;
 import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class JwtServiceTest {
 
-    JwtService jwtService = new JwtService();
+    static final String SECRET = "mysecretkeymysecretkeymysecretkey123456";
+
+    JwtService jwtService = new JwtService(
+            new JwtSigner(SECRET, "auth-service", Duration.ofDays(1)), new JwtVerifier(SECRET));
 
     @Test
     void generateAndValidateToken() {
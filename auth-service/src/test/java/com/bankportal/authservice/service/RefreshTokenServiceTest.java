@@ -0,0 +1,97 @@
+package com.bankportal.authservice.service;
+
+import com.bankportal.authservice.model.RefreshTokenEntity;
+import com.bankportal.authservice.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    final Instant now = Instant.parse("2025-01-01T12:00:00Z");
+    final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    final RefreshTokenService service = new RefreshTokenService(repository, Duration.ofDays(7),
+            Clock.fixed(now, ZoneOffset.UTC));
+
+    @Test
+    void ausgestelltWirdNurDerHash() {
+        String token = service.issue("alice");
+
+        ArgumentCaptor<RefreshTokenEntity> saved = ArgumentCaptor.forClass(RefreshTokenEntity.class);
+        verify(repository).save(saved.capture());
+        assertEquals(RefreshTokenService.hash(token), saved.getValue().getTokenHash());
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertEquals("alice", saved.getValue().getUsername());
+        assertEquals(now.plus(Duration.ofDays(7)), saved.getValue().getExpiresAt());
+    }
+
+    @Test
+    void tauschLiefertNeuesTokenInDerselbenFamilie() {
+        RefreshTokenEntity current = stored("alt", null);
+        when(repository.markUsed(current.getId(), now)).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = service.rotate("alt");
+
+        assertEquals("alice", rotation.username());
+        assertNotEquals("alt", rotation.refreshToken());
+        ArgumentCaptor<RefreshTokenEntity> saved = ArgumentCaptor.forClass(RefreshTokenEntity.class);
+        verify(repository).save(saved.capture());
+        assertEquals("familie-1", saved.getValue().getFamilyId());
+        verify(repository, never()).revokeFamily(any());
+    }
+
+    @Test
+    void wiederverwendungSperrtDieFamilie() {
+        RefreshTokenEntity current = stored("alt", null);
+        // Ein paralleler Aufruf war schneller
+        when(repository.markUsed(current.getId(), now)).thenReturn(0);
+
+        assertThrows(BadCredentialsException.class, () -> service.rotate("alt"));
+        verify(repository).revokeFamily("familie-1");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void bereitsBenutztesTokenSperrtDieFamilieOhneUpdate() {
+        stored("alt", now.minusSeconds(10));
+
+        assertThrows(BadCredentialsException.class, () -> service.rotate("alt"));
+        verify(repository).revokeFamily("familie-1");
+        verify(repository, never()).markUsed(any(), any());
+    }
+
+    @Test
+    void abgelaufenesOderUnbekanntesTokenWirdAbgelehnt() {
+        RefreshTokenEntity expired = stored("alt", null);
+        expired.setExpiresAt(now.minusSeconds(1));
+        when(repository.findByTokenHash(RefreshTokenService.hash("fremd"))).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> service.rotate("alt"));
+        assertThrows(BadCredentialsException.class, () -> service.rotate("fremd"));
+        verify(repository, never()).markUsed(any(), eq(now));
+        verify(repository, never()).revokeFamily(any());
+    }
+
+    private RefreshTokenEntity stored(String token, Instant usedAt) {
+        RefreshTokenEntity entity = new RefreshTokenEntity();
+        entity.setId(7L);
+        entity.setTokenHash(RefreshTokenService.hash(token));
+        entity.setUsername("alice");
+        entity.setFamilyId("familie-1");
+        entity.setExpiresAt(now.plus(Duration.ofDays(1)));
+        entity.setUsedAt(usedAt);
+        when(repository.findByTokenHash(entity.getTokenHash())).thenReturn(Optional.of(entity));
+        return entity;
+    }
+}
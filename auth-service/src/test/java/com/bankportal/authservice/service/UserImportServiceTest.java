@@ -0,0 +1,120 @@
+package com.bankportal.authservice.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bankportal.authservice.dto.UserImportResult;
+import com.bankportal.authservice.dto.UserImportResult.Status;
+import com.bankportal.authservice.model.UserEntity;
+import com.bankportal.authservice.repository.UserRepository;
+import com.bankportal.authservice.security.PasswordHasher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class UserImportServiceTest {
+
+    UserRepository repo = mock(UserRepository.class);
+    PasswordHasher hasher = mock(PasswordHasher.class);
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+    UserImportService service;
+
+    UserImportServiceTest() {
+        when(hasher.encoder()).thenReturn(encoder);
+        service = new UserImportService(repo, hasher, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new ObjectMapper(), 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private static ByteArrayInputStream body(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<UserEntity> insertedUsers(int times) {
+        ArgumentCaptor<List<UserEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repo, times(times)).insertAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    @Test
+    void csvMitKopfzeileErgebnisProZeile() throws Exception {
+        when(repo.findExistingUsernames(anyCollection())).thenReturn(Set.of("bestand"));
+
+        UserImportResult r = service.importUsers(body("""
+                username,password,role
+                anna,"geheim,mit ""komma""\",
+                bestand,passwort1
+                x,passwort1
+                anna,passwort2
+                chef,passwort3,admin
+                """), UserImportService.Format.CSV);
+
+        assertEquals(List.of(Status.CREATED, Status.DUPLICATE, Status.INVALID, Status.DUPLICATE, Status.CREATED),
+                r.getRows().stream().map(UserImportResult.Row::getStatus).toList());
+        assertEquals(List.of(1, 2, 3, 4, 5), r.getRows().stream().map(UserImportResult.Row::getRow).toList());
+        assertEquals(2, r.getCreated());
+        assertEquals(2, r.getDuplicates());
+        assertEquals(1, r.getInvalid());
+
+        // Zwei Blöcke (chunk-size 3): je ein Insert, Hashes gesetzt
+        List<UserEntity> inserted = insertedUsers(2);
+        assertEquals("anna", inserted.get(0).getUsername());
+        assertTrue(encoder.matches("geheim,mit \"komma\"", inserted.get(0).getPasswordHash()));
+        assertEquals("ROLE_USER", inserted.get(0).getRole());
+        assertEquals("ROLE_ADMIN", inserted.get(1).getRole());
+        // Eine Abfrage pro Block statt einer pro Benutzer
+        verify(repo, times(2)).findExistingUsernames(anyCollection());
+        verify(repo, never()).findByUsername(any());
+    }
+
+    @Test
+    void ndjsonMitUngueltigenZeilen() throws Exception {
+        when(repo.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+
+        UserImportResult r = service.importUsers(body("""
+                {"username":"bob","password":"s3cret!"}
+                {kaputt
+                {"username":"eve","password":"s3cret!","role":"ROOT"}
+                """), UserImportService.Format.NDJSON);
+
+        assertEquals(List.of(Status.CREATED, Status.INVALID, Status.INVALID),
+                r.getRows().stream().map(UserImportResult.Row::getStatus).toList());
+        assertEquals("bob", insertedUsers(1).get(0).getUsername());
+    }
+
+    @Test
+    void wettlaufMitRegistrierungWirdZeilenweiseAufgeloest() throws Exception {
+        when(repo.findExistingUsernames(anyCollection())).thenReturn(Set.of());
+        doThrow(new DuplicateKeyException("users_username_key"))
+                .when(repo).insertAll(argThat(users -> users.size() > 1 || users.get(0).getUsername().equals("neu2")));
+
+        UserImportResult r = service.importUsers(body("neu1,passwort1\nneu2,passwort2\n"),
+                UserImportService.Format.CSV);
+
+        assertEquals(List.of(Status.CREATED, Status.DUPLICATE),
+                r.getRows().stream().map(UserImportResult.Row::getStatus).toList());
+    }
+
+    @Test
+    void splitCsvBeachtetAnfuehrungszeichen() {
+        assertEquals(List.of("a", "b,c", ""), UserImportService.splitCsv("a,\"b,c\","));
+        assertThrows(IllegalArgumentException.class, () -> UserImportService.splitCsv("a,\"b"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.bankportal.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.bankportal.accountservice.dto.AccountDto;
+import com.bankportal.accountservice.model.Account;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Kontenliste ohne DB: Mapping Entity -> {@link AccountDto} (wie AccountService.getAccounts) und
+ * Jackson-Serialisierung von List&lt;AccountDto&gt; (wie der Controller, inkl. MoneyJson für die Beträge).
+ *
+ * size 100 entspricht einer Standardseite, 100000 einer ungeblätterten Liste. Die Ausgabe geht in
+ * einen Blackhole-Stream, gemessen wird also nur das Schreiben, kein Puffer-Wachstum.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountListBenchmark {
+
+    @Param({ "100", "10000", "100000" })
+    public int size;
+
+    private List<Account> accounts;
+    private List<AccountDto> dtos;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        accounts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Account account = new Account();
+            account.setId((long) i + 1);
+            account.setOwner("Inhaber " + i);
+            account.setUsername("bench-user");
+            account.setBalance(100_000L + i * 37L);
+            accounts.add(account);
+        }
+        dtos = map();
+        // Gleiche Voreinstellungen wie der ObjectMapper von Spring MVC
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writerFor(new TypeReference<List<AccountDto>>() { });
+    }
+
+    @Benchmark
+    public List<AccountDto> fromEntity() {
+        return map();
+    }
+
+    @Benchmark
+    public void serialize(Blackhole bh) throws IOException {
+        writer.writeValue(new BlackholeOutputStream(bh), dtos);
+    }
+
+    private List<AccountDto> map() {
+        List<AccountDto> items = new ArrayList<>(accounts.size());
+        for (int i = 0; i < accounts.size(); i++) {
+            items.add(AccountDto.fromEntity(accounts.get(i)));
+        }
+        return items;
+    }
+
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole bh;
+
+        BlackholeOutputStream(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void write(int b) {
+            bh.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bh.consume(b);
+            bh.consume(len);
+        }
+    }
+}
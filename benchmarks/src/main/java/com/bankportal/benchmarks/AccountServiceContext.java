@@ -0,0 +1,70 @@
+package com.bankportal.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bankportal.accountservice.AccountServiceApplication;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Startet den account-service für Benchmarks.
+ * Standard: H2 In-Memory. Mit -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/accountdb
+ * (plus bench.jdbc.user / bench.jdbc.password) wird eine lokale PostgreSQL verwendet.
+ */
+public final class AccountServiceContext {
+
+    private AccountServiceContext() {
+    }
+
+    /**
+     * @param overrides zusätzliche Properties als "key=value", z. B. "account.transfer.mode=ledger"
+     */
+    public static ConfigurableApplicationContext start(String... overrides) {
+        String jdbcUrl = System.getProperty("bench.jdbc.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+        boolean postgres = jdbcUrl.startsWith("jdbc:postgresql:");
+
+        Map<String, Object> props = new HashMap<>();
+        props.put("server.port", "0");
+        props.put("spring.datasource.url", jdbcUrl);
+        props.put("spring.datasource.username", System.getProperty("bench.jdbc.user", postgres ? "admin" : "sa"));
+        props.put("spring.datasource.password", System.getProperty("bench.jdbc.password", postgres ? "admin" : ""));
+        props.put("spring.jpa.database-platform", postgres
+                ? "org.hibernate.dialect.PostgreSQLDialect"
+                : "org.hibernate.dialect.H2Dialect");
+        props.put("spring.jpa.hibernate.ddl-auto", "update");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("spring.jpa.open-in-view", "false");
+        props.put("spring.sql.init.mode", "never");
+        props.put("spring.data.redis.repositories.enabled", "false");
+        props.put("management.health.redis.enabled", "false");
+        props.put("logging.level.root", "warn");
+        props.put("logging.level.org.hibernate.SQL", "warn");
+        props.put("logging.level.com.bankportal", "warn");
+        props.put("spring.main.banner-mode", "off");
+        for (String override : overrides) {
+            int eq = override.indexOf('=');
+            props.put(override.substring(0, eq), override.substring(eq + 1));
+        }
+
+        // Als Kommandozeilen-Argumente: überschreiben application.properties des Services
+        String[] args = props.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(AccountServiceApplication.class).run(args);
+    }
+
+    /**
+     * Für Benchmarks ohne Spring-Kontext: Logback läuft dann mit der Standardkonfiguration (DEBUG auf
+     * die Konsole). Wie im gestarteten Service nur WARN und höher, damit z. B. abgelehnte Tokens nicht
+     * pro Aufruf eine Zeile schreiben.
+     */
+    public static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+}
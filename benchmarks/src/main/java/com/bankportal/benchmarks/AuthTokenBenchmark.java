@@ -0,0 +1,92 @@
+package com.bankportal.benchmarks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bankportal.authservice.security.JwtUtil;
+import com.bankportal.authservice.security.RevocationList;
+import com.bankportal.authservice.security.VerifiedTokenCache;
+import com.bankportal.authservice.service.JwtService;
+import com.bankportal.security.JwtKeys;
+import com.bankportal.security.JwtSigner;
+import com.bankportal.security.JwtVerifier;
+import com.bankportal.security.KeyRing;
+import com.bankportal.security.KidKeyLocator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token-Pfad des auth-service: Ausstellen beim Login (JwtService.generateToken), Prüfen ohne Cache
+ * (JwtService.isTokenValid) und mit Cache wie bei /validate und im JwtFilter (JwtUtil).
+ *
+ * alg: rs256 wie in Produktion (KeyRing, kid im Header), hs256 für den Übergangspfad.
+ * Die Sperrliste ist leer; geprüft wird dabei trotzdem, also der Bloom-Filter pro Aufruf.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthTokenBenchmark {
+
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkey123456";
+
+    @Param({ "rs256", "hs256" })
+    public String alg;
+
+    private JwtService jwtService;
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        KeyRing keyRing = KeyRing.generate();
+        JwtSigner signer = "rs256".equals(alg)
+                ? new JwtSigner(keyRing, "auth-service", Duration.ofMinutes(5))
+                : new JwtSigner(SECRET, "auth-service", Duration.ofMinutes(5));
+        // Wie JwtConfig: eigene Schlüssel im Speicher, HS256 weiter akzeptiert
+        JwtVerifier verifier = new JwtVerifier(new KidKeyLocator(keyRing::publicKeys, JwtKeys.hmacSha(SECRET),
+                Duration.ofDays(1), Duration.ofSeconds(5)), Duration.ZERO);
+        // Ohne DB: revoke/sync werden hier nicht aufgerufen
+        VerifiedTokenCache cache = new VerifiedTokenCache(verifier, new RevocationList(null, 100_000),
+                new SimpleMeterRegistry(), 100_000, 5_000);
+
+        jwtService = new JwtService(signer, verifier);
+        jwtUtil = new JwtUtil(signer, verifier, cache);
+        token = jwtService.generateToken("bench-user", List.of("ROLE_USER"));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("bench-user", List.of("ROLE_USER"));
+    }
+
+    @Benchmark
+    public boolean jwtServiceIsTokenValid() {
+        return jwtService.isTokenValid(token);
+    }
+
+    @Benchmark
+    public boolean jwtUtilIsTokenValid() {
+        return jwtUtil.isTokenValid(token);
+    }
+
+    @Benchmark
+    public String jwtUtilExtractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+}
@@ -0,0 +1,131 @@
+package com.bankportal.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bankportal.accountservice.dto.TransferRequest;
+import com.bankportal.accountservice.exception.TransferConflictException;
+import com.bankportal.accountservice.model.Account;
+import com.bankportal.accountservice.repository.AccountRepository;
+import com.bankportal.accountservice.service.AccountService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Transfers/Sekunde unter Konkurrenz: pessimistisch (jpa, bedingte UPDATEs mit Row-Locks)
+ * vs. optimistisch (Versionsprüfung, Wiederholung mit Backoff).
+ *
+ * accounts steuert die Konkurrenz: 2 = jeder Transfer kollidiert, 10000 = kaum Konflikte.
+ * Standard sind 4 Threads; aussagekräftig erst mit PostgreSQL und mehreren Kernen
+ * (-Dbench.jdbc.url=..., -Djmh.args="ContentionBenchmark -t 16").
+ * Am Ende werden Wiederholungen, Aufgaben (giveups) und die Geldsumme ("drift" muss 0 sein) ausgegeben.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+
+    // Cent
+    private static final long START_BALANCE = 100_000_000_000L;
+    private static final long AMOUNT = 100L;
+
+    @Param({ "jpa", "optimistic" })
+    public String transferMode;
+
+    @Param({ "2", "100", "10000" })
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountRepository accountRepository;
+    private long[] ids;
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = AccountServiceContext.start("account.transfer.mode=" + transferMode);
+        accountService = context.getBean(AccountService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+
+        List<Account> created = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            Account a = new Account();
+            a.setOwner("bench-" + i);
+            a.setBalance(START_BALANCE);
+            created.add(a);
+        }
+        ids = accountRepository.saveAll(created).stream().mapToLong(Account::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long total = 0;
+        for (long id : ids) {
+            total += accountRepository.findById(id).map(Account::getBalance).orElse(0L);
+        }
+        long drift = total - START_BALANCE * accounts;
+
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        double retries = registry.counter("account.transfer.optimistic.retries").count();
+        System.err.printf("mode=%s accounts=%d retries=%.0f giveups=%d failures=%d drift=%d%n",
+                transferMode, accounts, retries, conflicts.get(), failures.get(), drift);
+
+        for (long id : ids) {
+            accountRepository.deleteById(id);
+        }
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Pair {
+        private final SplittableRandom random = new SplittableRandom();
+
+        TransferRequest next(long[] ids) {
+            int from = random.nextInt(ids.length);
+            int to = random.nextInt(ids.length - 1);
+            if (to >= from) {
+                to++;
+            }
+            TransferRequest request = new TransferRequest();
+            request.setFromAccountId(ids[from]);
+            request.setToAccountId(ids[to]);
+            request.setAmount(AMOUNT);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public void transfer(Pair pair) {
+        try {
+            accountService.transfer(pair.next(ids));
+        } catch (TransferConflictException e) {
+            conflicts.incrementAndGet();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.bankportal.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bankportal.accountservice.dto.TransferRequest;
+import com.bankportal.accountservice.model.Account;
+import com.bankportal.accountservice.repository.AccountRepository;
+import com.bankportal.accountservice.service.AccountService;
+import com.bankportal.accountservice.service.StripedBalanceService;
+
+/**
+ * Transfers/Sekunde auf ein einzelnes Empfängerkonto (z. B. Händler-Abrechnung):
+ * slots=0 bucht jede Gutschrift auf dieselbe Kontozeile, slots>0 verteilt sie auf Teilsalden.
+ *
+ * Aussagekräftig erst mit PostgreSQL und mehreren Kernen
+ * (-Dbench.jdbc.url=..., -Djmh.args="HotAccountBenchmark -t 16").
+ * Am Ende wird gefaltet und die Geldsumme geprüft ("drift" muss 0 sein).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class HotAccountBenchmark {
+
+    // Cent
+    private static final long START_BALANCE = 100_000_000_000L;
+    private static final long AMOUNT = 100L;
+    private static final int SENDERS = 1000;
+
+    @Param({ "jpa", "optimistic" })
+    public String transferMode;
+
+    @Param({ "0", "8" })
+    public int slots;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountRepository accountRepository;
+    private StripedBalanceService stripedBalanceService;
+    private long[] senders;
+    private long hotId;
+    private final AtomicLong failures = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = AccountServiceContext.start("account.transfer.mode=" + transferMode);
+        accountService = context.getBean(AccountService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        stripedBalanceService = context.getBean(StripedBalanceService.class);
+
+        List<Account> created = new ArrayList<>(SENDERS);
+        for (int i = 0; i < SENDERS; i++) {
+            Account a = new Account();
+            a.setOwner("bench-" + i);
+            a.setBalance(START_BALANCE);
+            created.add(a);
+        }
+        senders = accountRepository.saveAll(created).stream().mapToLong(Account::getId).toArray();
+
+        // Ohne Security-Kontext ist der Benutzer "system"
+        Account hot = new Account();
+        hot.setOwner("bench-hot");
+        hot.setUsername("system");
+        hotId = accountRepository.save(hot).getId();
+        stripedBalanceService.configure(hotId, slots);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stripedBalanceService.configure(hotId, 0);
+
+        long total = accountRepository.findById(hotId).map(Account::getBalance).orElse(0L);
+        for (long id : senders) {
+            total += accountRepository.findById(id).map(Account::getBalance).orElse(0L);
+        }
+        long drift = total - START_BALANCE * SENDERS;
+        System.err.printf("mode=%s slots=%d failures=%d drift=%d%n", transferMode, slots, failures.get(), drift);
+
+        for (long id : senders) {
+            accountRepository.deleteById(id);
+        }
+        accountRepository.deleteById(hotId);
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Sender {
+        private final SplittableRandom random = new SplittableRandom();
+
+        TransferRequest next(long[] senders, long hotId) {
+            TransferRequest request = new TransferRequest();
+            request.setFromAccountId(senders[random.nextInt(senders.length)]);
+            request.setToAccountId(hotId);
+            request.setAmount(AMOUNT);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public void transfer(Sender sender) {
+        try {
+            accountService.transfer(sender.next(senders, hotId));
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.bankportal.benchmarks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.bankportal.accountservice.security.SecurityConfig.JwtAuthFilter;
+import com.bankportal.security.JwtKeys;
+import com.bankportal.security.JwtSigner;
+import com.bankportal.security.JwtVerifier;
+import com.bankportal.security.KeyRing;
+import com.bankportal.security.KidKeyLocator;
+
+/**
+ * Ein Request durch den JwtAuthFilter des account-service: Header lesen, Token prüfen,
+ * SecurityContext setzen. Ohne Spring-Kontext, Request/Response als Mock-Objekte (je Thread
+ * wiederverwendet, damit sie nicht in die Allokationen eingehen).
+ *
+ * token: hs256 (geteiltes Secret), rs256 (kid + öffentlicher Schlüssel wie über JWKS),
+ * invalid (Signatur kaputt -> 401-Pfad; die Log-Zeile wird formatiert, aber verworfen).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkey123456";
+
+    @Param({ "hs256", "rs256", "invalid" })
+    public String token;
+
+    private JwtAuthFilter filter;
+    private String header;
+
+    @State(Scope.Thread)
+    public static class Exchange {
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp(JwtAuthFilterBenchmark bench) {
+            request = new MockHttpServletRequest("GET", "/api/accounts");
+            request.addHeader("Authorization", bench.header);
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        KeyRing keyRing = KeyRing.generate();
+        // Wie SecurityConfig mit jwt.jwks-uri: RS256 per kid, HS256 als Übergang
+        KidKeyLocator locator = new KidKeyLocator(keyRing::publicKeys, JwtKeys.hmacSha(SECRET),
+                Duration.ofDays(1), Duration.ofSeconds(5));
+        filter = new JwtAuthFilter(new JwtVerifier(locator, Duration.ZERO));
+
+        Map<String, ?> claims = Map.of("roles", List.of("ROLE_USER"));
+        String jwt = switch (token) {
+            case "rs256" -> new JwtSigner(keyRing, "auth-service", Duration.ofDays(1)).sign("bench-user", claims);
+            case "invalid" -> {
+                String valid = new JwtSigner(SECRET, "auth-service", Duration.ofDays(1)).sign("bench-user", claims);
+                yield valid.substring(0, valid.length() - 4) + "AAAA";
+            }
+            default -> new JwtSigner(SECRET, "auth-service", Duration.ofDays(1)).sign("bench-user", claims);
+        };
+        header = "Bearer " + jwt;
+        AccountServiceContext.quietLogging();
+    }
+
+    @Benchmark
+    public Object doFilter(Exchange exchange, Blackhole bh) throws ServletException, IOException {
+        exchange.response.reset();
+        filter.doFilter(exchange.request, exchange.response, (ServletRequest req, ServletResponse res) -> bh.consume(req));
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,65 @@
+package com.bankportal.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bankportal.security.JwtSigner;
+import com.bankportal.security.JwtVerifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * JWT-Prüfung pro Request: Schlüssel und Parser bei jedem Aufruf neu bauen (alter Filter-Code)
+ * vs. einmal gebauter {@link JwtVerifier}. Ohne Spring und DB.
+ *
+ * Allokationen pro Prüfung stehen in gc.alloc.rate.norm (GC-Profiler ist im POM voreingestellt).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "mysecretkeymysecretkeymysecretkey123456";
+
+    private String token;
+    private JwtVerifier verifier;
+
+    @Setup
+    public void setUp() {
+        token = new JwtSigner(SECRET, "auth-service", Duration.ofDays(1))
+                .sign("bench-user", Map.of("roles", List.of("USER")));
+        verifier = new JwtVerifier(SECRET);
+    }
+
+    @Benchmark
+    public Claims rebuildPerCall() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims sharedVerifier() {
+        return verifier.verify(token);
+    }
+}
@@ -0,0 +1,126 @@
+package com.bankportal.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bankportal.accountservice.dto.TransferRequest;
+import com.bankportal.accountservice.ledger.LedgerEngine;
+import com.bankportal.accountservice.model.Account;
+import com.bankportal.accountservice.repository.AccountRepository;
+import com.bankportal.accountservice.service.AccountService;
+
+/**
+ * Transfers/Sekunde über AccountService.transfer: JPA-Pfad (bedingte UPDATEs je Transfer)
+ * vs. In-Memory-Ledger (account.transfer.mode=ledger) mit Write-Behind.
+ *
+ * Der Ledger lohnt sich erst mit mehreren Client-Threads und Kernen:
+ * -Djmh.args="LedgerBenchmark -t 8 -p shards=8". Am Ende wird geflusht und die
+ * Geldsumme in der DB geprüft ("drift" muss 0 sein).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LedgerBenchmark {
+
+    // Cent
+    private static final long START_BALANCE = 100_000_000_000L;
+    private static final long AMOUNT = 100L;
+
+    @Param({ "jpa", "ledger" })
+    public String transferMode;
+
+    @Param({ "4" })
+    public int shards;
+
+    @Param({ "1000" })
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountRepository accountRepository;
+    private long[] ids;
+    private final AtomicLong failures = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = AccountServiceContext.start(
+                "account.transfer.mode=" + transferMode,
+                "account.ledger.shards=" + shards);
+        accountService = context.getBean(AccountService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+
+        List<Account> created = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            Account a = new Account();
+            a.setOwner("bench-" + i);
+            a.setBalance(START_BALANCE);
+            created.add(a);
+        }
+        ids = accountRepository.saveAll(created).stream().mapToLong(Account::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBeanProvider(LedgerEngine.class).ifAvailable(LedgerEngine::flush);
+
+        long total = 0;
+        for (long id : ids) {
+            total += accountRepository.findById(id).map(Account::getBalance).orElse(0L);
+        }
+        long drift = total - START_BALANCE * accounts;
+        System.err.printf("mode=%s failures=%d drift=%d%n", transferMode, failures.get(), drift);
+
+        for (long id : ids) {
+            accountRepository.deleteById(id);
+        }
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Pair {
+        private final SplittableRandom random = new SplittableRandom();
+
+        TransferRequest next(long[] ids) {
+            int from = random.nextInt(ids.length);
+            int to = random.nextInt(ids.length - 1);
+            if (to >= from) {
+                to++;
+            }
+            TransferRequest request = new TransferRequest();
+            request.setFromAccountId(ids[from]);
+            request.setToAccountId(ids[to]);
+            request.setAmount(AMOUNT);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public void transfer(Pair pair) {
+        try {
+            accountService.transfer(pair.next(ids));
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.bankportal.benchmarks;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bankportal.authservice.config.TokenBucketLimiter;
+import com.bankportal.authservice.config.RateLimiter.EndpointClass;
+
+/**
+ * Rate-Limit-Entscheidung pro Request unter Konkurrenz: alter Zähler pro IP (ConcurrentHashMap mit
+ * AtomicInteger, Reset per clear()) vs. {@link TokenBucketLimiter} (CAS auf einem Zeitstempel,
+ * Caffeine für Eviction). Ohne Spring.
+ *
+ * clients steuert die Konkurrenz: 1 = alle Threads auf demselben Bucket, 100000 = kaum Kollisionen
+ * (und mehr Einträge als maxEntries, also laufende Eviction). Standard sind 16 Threads (-t überschreibt).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final long MAX_ENTRIES = 50_000;
+
+    @Param({ "1", "100", "100000" })
+    public int clients;
+
+    private String[] ips;
+    private ConcurrentHashMap<String, AtomicInteger> counters;
+    private TokenBucketLimiter limiter;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void setUp() {
+        ips = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            ips[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+        counters = new ConcurrentHashMap<>();
+        limiter = new TokenBucketLimiter(Duration.ofMinutes(1), MAX_ENTRIES);
+    }
+
+    @Benchmark
+    public boolean clearedCounter(ThreadState state) {
+        // Alter Interceptor-Code (ohne den minütlichen clear()-Thread)
+        String ip = ips[state.random.nextInt(clients)];
+        return counters.computeIfAbsent(ip, k -> new AtomicInteger()).incrementAndGet() <= 5;
+    }
+
+    @Benchmark
+    public boolean tokenBucket(ThreadState state) {
+        String ip = ips[state.random.nextInt(clients)];
+        return limiter.tryAcquire(ip, EndpointClass.LOGIN).allowed();
+    }
+}
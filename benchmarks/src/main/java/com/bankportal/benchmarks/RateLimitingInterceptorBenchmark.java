@@ -0,0 +1,79 @@
+package com.bankportal.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.bankportal.authservice.config.RateLimitingConfig.RateLimitingInterceptor;
+import com.bankportal.authservice.config.TokenBucketLimiter;
+
+/**
+ * RateLimitingInterceptor.preHandle für POST /api/auth/login, inklusive Header und 429-Antwort.
+ *
+ * traffic=normal: Fenster von 1 µs, die Buckets sind praktisch immer voll (Durchlass-Pfad);
+ * traffic=flood: echtes Fenster von 1 min, nach wenigen Aufrufen nur noch 429 (Angriff).
+ * clients verteilt die Aufrufe auf so viele IPs (X-Forwarded-For). Die Konkurrenz von 1 bis 64
+ * Threads misst {@link ThreadSweep}; einzeln geht -t N.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitingInterceptorBenchmark {
+
+    @Param({ "normal", "flood" })
+    public String traffic;
+
+    @Param({ "1", "10000" })
+    public int clients;
+
+    private RateLimitingInterceptor interceptor;
+
+    /** Requests je Thread vorab gebaut, damit nur der Interceptor allokiert. */
+    @State(Scope.Thread)
+    public static class Exchange {
+        MockHttpServletRequest[] requests;
+        MockHttpServletResponse response;
+        int next;
+
+        @Setup
+        public void setUp(RateLimitingInterceptorBenchmark bench) {
+            requests = new MockHttpServletRequest[bench.clients];
+            for (int i = 0; i < requests.length; i++) {
+                MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+                request.addHeader("X-Forwarded-For", "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff));
+                requests[i] = request;
+            }
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Duration window = "flood".equals(traffic) ? Duration.ofMinutes(1) : Duration.ofNanos(1_000);
+        interceptor = new RateLimitingInterceptor(new TokenBucketLimiter(window, 100_000));
+    }
+
+    @Benchmark
+    public boolean preHandle(Exchange exchange) throws Exception {
+        MockHttpServletRequest request = exchange.requests[exchange.next];
+        exchange.next = exchange.next + 1 == exchange.requests.length ? 0 : exchange.next + 1;
+        exchange.response.reset();
+        return interceptor.preHandle(request, exchange.response, null);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bankportal.benchmarks;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Startet dieselben Benchmarks nacheinander mit 1, 2, 4, ... 64 Threads und schreibt alle
+ * Ergebnisse in eine JSON-Datei (-rff, über Maven target/jmh-result.json). Die Thread-Zahl
+ * steht je Eintrag unter "threads" – so lassen sich Läufe verschiedener Commits vergleichen.
+ *
+ * mvn -f benchmarks compile exec:exec -Djmh.main=com.bankportal.benchmarks.ThreadSweep
+ *     -Djmh.args="RateLimitingInterceptorBenchmark"
+ */
+public final class ThreadSweep {
+
+    private static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+
+    private ThreadSweep() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        Path out = Path.of(options.getResult().orElse("target/jmh-sweep.json"));
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+
+        List<RunResult> results = new ArrayList<>();
+        for (int threads : THREADS) {
+            // Zwischenergebnis je Stufe nicht auf die Sammeldatei schreiben, danach wegräumen
+            Path step = Path.of(out + ".t" + threads);
+            results.addAll(new Runner(new OptionsBuilder()
+                    .parent(options)
+                    .threads(threads)
+                    .result(step.toString())
+                    .build()).run());
+            Files.deleteIfExists(step);
+        }
+        try (PrintStream stream = new PrintStream(new FileOutputStream(out.toFile()), true, "UTF-8")) {
+            ResultFormatFactory.getInstance(ResultFormatType.JSON, stream).writeOut(results);
+        }
+        System.out.println("Ergebnisse (" + THREADS.length + " Thread-Stufen): " + out.toAbsolutePath());
+    }
+}
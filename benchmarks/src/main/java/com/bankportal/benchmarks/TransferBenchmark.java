@@ -0,0 +1,138 @@
+package com.bankportal.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bankportal.accountservice.dto.TransferRequest;
+import com.bankportal.accountservice.model.Account;
+import com.bankportal.accountservice.repository.AccountRepository;
+import com.bankportal.accountservice.service.AccountService;
+
+/**
+ * Transfers/Sekunde: bedingte UPDATEs (AccountService.transfer) vs. bisheriger
+ * Read-Modify-Write-Pfad (2x findById, Prüfung in der JVM, 2x save).
+ *
+ * Mehrere Threads: -Djmh.args="TransferBenchmark -t 8". Mit accounts=10 entsteht
+ * starke Konkurrenz; die Geldsumme wird am Ende geprüft ("drift" = verlorene Updates).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+
+    // Cent
+    private static final long START_BALANCE = 100_000_000_000L;
+    private static final long AMOUNT = 100L;
+
+    @Param({ "1000", "10" })
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountRepository accountRepository;
+    private TransactionTemplate tx;
+    private long[] ids;
+    private final AtomicLong failures = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = AccountServiceContext.start();
+        accountService = context.getBean(AccountService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        List<Account> created = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            Account a = new Account();
+            a.setOwner("bench-" + i);
+            a.setBalance(START_BALANCE);
+            created.add(a);
+        }
+        ids = accountRepository.saveAll(created).stream().mapToLong(Account::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long total = 0;
+        for (long id : ids) {
+            total += accountRepository.findById(id).map(Account::getBalance).orElse(0L);
+        }
+        long drift = total - START_BALANCE * accounts;
+        System.err.printf("accounts=%d failures=%d drift=%d%n", accounts, failures.get(), drift);
+
+        for (long id : ids) {
+            accountRepository.deleteById(id);
+        }
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Pair {
+        private final SplittableRandom random = new SplittableRandom();
+
+        TransferRequest next(long[] ids) {
+            int from = random.nextInt(ids.length);
+            int to = random.nextInt(ids.length - 1);
+            if (to >= from) {
+                to++;
+            }
+            TransferRequest request = new TransferRequest();
+            request.setFromAccountId(ids[from]);
+            request.setToAccountId(ids[to]);
+            request.setAmount(AMOUNT);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public void conditionalUpdate(Pair pair) {
+        try {
+            accountService.transfer(pair.next(ids));
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+    }
+
+    @Benchmark
+    public void readModifyWrite(Pair pair) {
+        TransferRequest request = pair.next(ids);
+        try {
+            tx.executeWithoutResult(status -> {
+                Account from = accountRepository.findById(request.getFromAccountId()).orElseThrow();
+                Account to = accountRepository.findById(request.getToAccountId()).orElseThrow();
+                if (from.getBalance() < request.getAmount()) {
+                    throw new IllegalStateException("Nicht genügend Guthaben");
+                }
+                from.setBalance(from.getBalance() - request.getAmount());
+                to.setBalance(to.getBalance() + request.getAmount());
+                accountRepository.save(from);
+                accountRepository.save(to);
+            });
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import { AccountService } from '../../services/account.service';
 import { AuthService } from '../../services/auth.service';
 import { Account } from '../../models/account';
 import { TransferRequest } from '../../models/transfer-request';
+import { TransferKey } from '../../services/transfer-key';
 import { Subscription } from 'rxjs';
 
 @Component({
@@ -35,6 +36,7 @@ export class AccountListComponent implements OnInit, OnDestroy {
   };
   transferLoading = false;
   transferMessage = '';
+  private transferKey = new TransferKey();
 
   private subscriptions: Subscription[] = [];
 
@@ -152,8 +154,10 @@ export class AccountListComponent implements OnInit, OnDestroy {
       amount: amount
     };
 
-    const sub = this.accountService.transferMoney(transferRequest).subscribe({
+    const idempotencyKey = this.transferKey.forRequest(transferRequest);
+    const sub = this.accountService.transferMoney(transferRequest, idempotencyKey).subscribe({
       next: () => {
+        this.transferKey.reset();
         this.transferMessage = '✅ Überweisung erfolgreich durchgeführt';
         this.transferData = { fromAccountId: '', toAccountId: '', amount: '' };
         this.transferLoading = false;
@@ -3,6 +3,7 @@ import { FormsModule } from '@angular/forms';
 import { CommonModule } from '@angular/common';
 import { AccountService } from '../../services/account.service';
 import { TransferRequest } from '../../models/transfer-request';
+import { TransferKey } from '../../services/transfer-key';
 
 @Component({
   selector: 'app-transfer',
@@ -19,6 +20,7 @@ export class TransferComponent {
   };
 
   message = '';
+  private transferKey = new TransferKey();
 
   constructor(private accountService: AccountService) {}
 
@@ -34,8 +36,9 @@ export class TransferComponent {
       return;
     }
 
-    this.accountService.transferMoney(dto).subscribe({
+    this.accountService.transferMoney(dto, this.transferKey.forRequest(dto)).subscribe({
       next: () => {
+        this.transferKey.reset();
         this.message = '✅ Überweisung erfolgreich!';
         this.transferData = { fromAccountId: '', toAccountId: '', amount: '' };
       },
@@ -1,11 +1,13 @@
-import { HttpInterceptorFn } from '@angular/common/http';
+import { HttpErrorResponse, HttpInterceptorFn, HttpRequest } from '@angular/common/http';
 import { inject } from '@angular/core';
+import { catchError, switchMap, throwError } from 'rxjs';
+import { AuthService } from '../services/auth.service';
 
 export const authInterceptor: HttpInterceptorFn = (req, next) => {
   console.log('🔍 Intercepting request to:', req.url);
   
-  // Register und Login Requests NICHT intercepten
-  const authEndpoints = ['/auth/register', '/auth/login'];
+  // Register, Login, Refresh und Logout NICHT intercepten (Logout setzt den Header selbst)
+  const authEndpoints = ['/auth/register', '/auth/login', '/auth/refresh', '/auth/logout'];
   const isAuthEndpoint = authEndpoints.some(endpoint => req.url.includes(endpoint));
   
   if (isAuthEndpoint) {
@@ -13,17 +15,33 @@ export const authInterceptor: HttpInterceptorFn = (req, next) => {
     return next(req);
   }
 
+  const authService = inject(AuthService);
   const token = localStorage.getItem('token');
   console.log('🔑 Token available:', !!token);
 
   if (token) {
-    const authReq = req.clone({
-      setHeaders: { Authorization: `Bearer ${token}` }
-    });
     console.log('✅ Token added to request');
-    return next(authReq);
+    return next(withToken(req, token)).pipe(
+      catchError((error: HttpErrorResponse) => {
+        // Access Token abgelaufen oder gesperrt: einmal erneuern und wiederholen
+        if (error.status !== 401 || !authService.getRefreshToken()) {
+          return throwError(() => error);
+        }
+        console.log('🔄 401 - Token wird erneuert');
+        return authService.refresh().pipe(
+          catchError(() => throwError(() => error)),
+          switchMap(response => next(withToken(req, response.token)))
+        );
+      })
+    );
   }
 
   console.log('ℹ️ No token, proceeding without authorization');
   return next(req);
 };
+
+function withToken(req: HttpRequest<unknown>, token: string): HttpRequest<unknown> {
+  return req.clone({
+    setHeaders: { Authorization: `Bearer ${token}` }
+  });
+}
@@ -5,6 +5,8 @@ export interface LoginRequest {
 
 export interface LoginResponse {
   token: string;
+  refreshToken?: string; // einmal verwendbar, wird bei jedem Refresh ersetzt
+  expiresIn?: number;    // Gültigkeit des Access Tokens in Sekunden
 }
 
 export interface RegisterRequest {
@@ -41,11 +41,13 @@ export class AccountService {
       );
   }
 
-  transferMoney(transfer: TransferRequest): Observable<string> {
+  // Ein Idempotency-Key je Überweisung (vom Formular, siehe TransferKey): Wiederholungen mit demselben
+  // Key (Retry, Doppelklick) buchen nicht erneut
+  transferMoney(transfer: TransferRequest, idempotencyKey: string): Observable<string> {
     console.log('Transferring money:', transfer);
     // Expect text response instead of JSON
     return this.http.post(`${this.apiUrl}/transfer`, transfer, {
-      headers: this.getHeaders(),
+      headers: this.getHeaders().set('Idempotency-Key', idempotencyKey),
       responseType: 'text' // Accept text response
     })
     .pipe(
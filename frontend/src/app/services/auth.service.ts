@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpErrorResponse } from '@angular/common/http';
 import { BehaviorSubject, Observable, throwError, of } from 'rxjs';
-import { tap, catchError, map } from 'rxjs/operators';
+import { tap, catchError, map, finalize, shareReplay } from 'rxjs/operators';
 import { LoginRequest, LoginResponse, RegisterRequest, User } from '../models/auth';
 
 @Injectable({
@@ -11,6 +11,8 @@ export class AuthService {
   private apiUrl = 'http://localhost:8081/api/auth'; // Direct URL for local test
   private currentUserSubject = new BehaviorSubject<User | null>(null);
   public currentUser$ = this.currentUserSubject.asObservable();
+  // Laufender Refresh: parallele 401er teilen ihn, sonst gilt das zweite Einlösen als Wiederverwendung
+  private refreshInFlight: Observable<LoginResponse> | null = null;
 
   constructor(private http: HttpClient) {
     this.checkExistingToken();
@@ -22,7 +24,7 @@ export class AuthService {
       .pipe(
         tap(response => {
           console.log('Login successful:', response);
-          this.setToken(response.token);
+          this.setTokens(response);
           this.setCurrentUser(credentials.username);
         }),
         catchError(this.handleError)
@@ -76,19 +78,53 @@ export class AuthService {
     );
   }
 
+  // Access Token läuft nach wenigen Minuten ab: neues Paar über das Refresh Token holen
+  refresh(): Observable<LoginResponse> {
+    const refreshToken = this.getRefreshToken();
+    if (!refreshToken) {
+      return throwError(() => new Error('Kein Refresh Token vorhanden'));
+    }
+    if (!this.refreshInFlight) {
+      this.refreshInFlight = this.http.post<LoginResponse>(`${this.apiUrl}/refresh`, { refreshToken })
+        .pipe(
+          tap(response => this.setTokens(response)),
+          catchError(error => {
+            // Abgelaufen oder gesperrt: neu anmelden
+            this.clearSession();
+            return this.handleError(error);
+          }),
+          finalize(() => this.refreshInFlight = null),
+          shareReplay(1)
+        );
+    }
+    return this.refreshInFlight;
+  }
+
   logout(): void {
-    localStorage.removeItem('token');
-    localStorage.removeItem('username');
-    this.currentUserSubject.next(null);
+    const token = this.getToken();
+    const refreshToken = this.getRefreshToken();
+    if (token || refreshToken) {
+      // Serverseitig sperren; lokal wird in jedem Fall abgemeldet
+      const headers: Record<string, string> = token ? { Authorization: `Bearer ${token}` } : {};
+      this.http.post(`${this.apiUrl}/logout`, { refreshToken }, { headers })
+        .subscribe({ error: error => console.warn('Logout am Server fehlgeschlagen:', error) });
+    }
+    this.clearSession();
   }
 
   getToken(): string | null {
     return localStorage.getItem('token');
   }
 
+  getRefreshToken(): string | null {
+    return localStorage.getItem('refreshToken');
+  }
+
   isLoggedIn(): boolean {
     const token = this.getToken();
     if (!token) return false;
+    // Abgelaufenes Access Token erneuert der Interceptor beim nächsten Request
+    if (this.getRefreshToken()) return true;
 
     try {
       const payload = JSON.parse(atob(token.split('.')[1]));
@@ -103,8 +139,18 @@ export class AuthService {
     return this.currentUserSubject.value;
   }
 
-  private setToken(token: string): void {
-    localStorage.setItem('token', token);
+  private setTokens(response: LoginResponse): void {
+    localStorage.setItem('token', response.token);
+    if (response.refreshToken) {
+      localStorage.setItem('refreshToken', response.refreshToken);
+    }
+  }
+
+  private clearSession(): void {
+    localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
+    localStorage.removeItem('username');
+    this.currentUserSubject.next(null);
   }
 
   private setCurrentUser(username: string): void {
@@ -119,7 +165,7 @@ export class AuthService {
     if (token && username && this.isLoggedIn()) {
       this.setCurrentUser(username);
     } else {
-      this.logout();
+      this.clearSession();
     }
   }
 
@@ -0,0 +1,21 @@
+import { TransferRequest } from '../models/transfer-request';
+
+// Idempotency-Key je Überweisungsformular: bleibt für Doppelklick und Wiederholung nach einem Fehler
+// gleich, neu erst nach Erfolg (reset) oder wenn sich die Eingaben ändern
+export class TransferKey {
+  private key: string | null = null;
+  private payload = '';
+
+  forRequest(request: TransferRequest): string {
+    const payload = JSON.stringify(request);
+    if (this.key === null || payload !== this.payload) {
+      this.key = crypto.randomUUID();
+      this.payload = payload;
+    }
+    return this.key;
+  }
+
+  reset(): void {
+    this.key = null;
+  }
+}
@@ -0,0 +1,136 @@
+package com.bankportal.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Die Aufrufe eines Clients (Frontend bzw. nginx auth_request) über HTTP/1.1 mit Keep-Alive.
+ *
+ * Jeder Aufruf an den auth-service kommt von einer zufälligen IP (X-Forwarded-For): so verhalten
+ * sich viele echte Clients, und das Rate Limiting pro IP misst nicht den Generator statt der Services.
+ */
+final class BankClient {
+
+    /** status -1: keine Antwort (Verbindung, Timeout). */
+    record Response(int status, String body) {
+    }
+
+    /** Ergebnis von Login und Refresh; expiresAt in System.nanoTime(). */
+    record Tokens(String accessToken, String refreshToken, long expiresAt) {
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final String authUrl;
+    private final String accountUrl;
+
+    BankClient(String authUrl, String accountUrl) {
+        this.authUrl = authUrl;
+        this.accountUrl = accountUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    Response register(String username, String password) {
+        return send(auth("/api/auth/register")
+                .POST(body(Map.of("username", username, "password", password))));
+    }
+
+    Response login(String username, String password) {
+        return send(auth("/api/auth/login")
+                .POST(body(Map.of("username", username, "password", password))));
+    }
+
+    Response refresh(String refreshToken) {
+        return send(auth("/api/auth/refresh")
+                .POST(body(Map.of("refreshToken", refreshToken))));
+    }
+
+    /** Schnellpfad wie nginx auth_request: 204 oder 401, kein Body. */
+    Response validate(String accessToken) {
+        return send(auth("/api/auth/validate?mode=gateway")
+                .header("Authorization", "Bearer " + accessToken)
+                .GET());
+    }
+
+    Response createAccount(String accessToken, String owner, long balanceEuro) {
+        return send(account("/api/accounts")
+                .header("Authorization", "Bearer " + accessToken)
+                .POST(body(Map.of("owner", owner, "balance", balanceEuro))));
+    }
+
+    Response transfer(String accessToken, long fromAccountId, long toAccountId, long amountEuro) {
+        return send(account("/api/accounts/transfer")
+                .header("Authorization", "Bearer " + accessToken)
+                // Wie das Frontend: ein Schlüssel pro Überweisung
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(body(Map.of("fromAccountId", fromAccountId, "toAccountId", toAccountId, "amount", amountEuro))));
+    }
+
+    /** Tokens aus der Antwort von Login oder Refresh. */
+    Tokens tokens(Response response) {
+        JsonNode node = parse(response);
+        long expiresIn = node.path("expiresIn").asLong(300);
+        return new Tokens(node.path("token").asText(), node.path("refreshToken").asText(null),
+                System.nanoTime() + Duration.ofSeconds(expiresIn).toNanos());
+    }
+
+    long id(Response response) {
+        return parse(response).path("id").asLong();
+    }
+
+    private HttpRequest.Builder auth(String path) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return HttpRequest.newBuilder(URI.create(authUrl + path))
+                .timeout(TIMEOUT)
+                .header("X-Forwarded-For", "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256));
+    }
+
+    private HttpRequest.Builder account(String path) {
+        return HttpRequest.newBuilder(URI.create(accountUrl + path)).timeout(TIMEOUT);
+    }
+
+    private HttpRequest.BodyPublisher body(Map<String, ?> body) {
+        try {
+            return BodyPublishers.ofString(json.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Response send(HttpRequest.Builder request) {
+        HttpRequest built = request.header("Content-Type", "application/json").build();
+        try {
+            var response = http.send(built, BodyHandlers.ofString());
+            return new Response(response.statusCode(), response.body());
+        } catch (IOException e) {
+            return new Response(-1, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, "unterbrochen");
+        }
+    }
+
+    private JsonNode parse(Response response) {
+        try {
+            return json.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Antwort nicht lesbar: " + response.body(), e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.bankportal.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Latenzen und Fehler pro Endpunkt eines Laufs. Erfolgreiche Aufrufe gehen ins Histogramm,
+ * alle anderen zählen pro Status (-1 = keine Antwort).
+ */
+final class LatencyReport {
+
+    enum Endpoint {
+        REGISTER, LOGIN, REFRESH, VALIDATE, TRANSFER;
+
+        final String tag = name().toLowerCase();
+    }
+
+    private static final class Stats {
+        // Auto-Resize, 3 signifikante Stellen: p99.9 auf 0,1 % genau
+        final Histogram latencies = new ConcurrentHistogram(3);
+        final Map<Integer, LongAdder> failures = new ConcurrentHashMap<>();
+    }
+
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+
+    LatencyReport() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    void success(Endpoint endpoint, long nanos) {
+        stats.get(endpoint).latencies.recordValue(nanos);
+    }
+
+    void failure(Endpoint endpoint, int status) {
+        stats.get(endpoint).failures.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    long successes(Endpoint endpoint) {
+        return stats.get(endpoint).latencies.getTotalCount();
+    }
+
+    long failures(Endpoint endpoint) {
+        return stats.get(endpoint).failures.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /** Tabelle auf die Konsole; elapsedNanos = Laufzeit der Messphase bis zur letzten Antwort. */
+    void print(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%n%-10s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "Endpunkt", "OK", "Fehler", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram h = stats.get(endpoint).latencies;
+            long failed = failures(endpoint);
+            if (h.getTotalCount() == 0 && failed == 0) {
+                continue;
+            }
+            System.out.printf("%-10s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.tag, h.getTotalCount(), failed, h.getTotalCount() / seconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                    millis(h.getMaxValue()));
+            Map<Integer, LongAdder> byStatus = stats.get(endpoint).failures;
+            if (!byStatus.isEmpty()) {
+                Map<Integer, Long> sorted = new TreeMap<>();
+                byStatus.forEach((status, count) -> sorted.put(status, count.sum()));
+                System.out.println("           Fehler nach Status: " + sorted);
+            }
+        }
+    }
+
+    void writeJson(Path file, long elapsedNanos, Map<String, Object> config) throws IOException {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram h = stats.get(endpoint).latencies;
+            Map<String, Long> byStatus = new TreeMap<>();
+            stats.get(endpoint).failures.forEach((status, count) -> byStatus.put(String.valueOf(status), count.sum()));
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("ok", h.getTotalCount());
+            entry.put("errors", failures(endpoint));
+            entry.put("errorsByStatus", byStatus);
+            entry.put("throughputPerSecond", h.getTotalCount() / seconds);
+            entry.put("p50Ms", millis(h.getValueAtPercentile(50)));
+            entry.put("p90Ms", millis(h.getValueAtPercentile(90)));
+            entry.put("p99Ms", millis(h.getValueAtPercentile(99)));
+            entry.put("p999Ms", millis(h.getValueAtPercentile(99.9)));
+            entry.put("maxMs", millis(h.getMaxValue()));
+            endpoints.put(endpoint.tag, entry);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("elapsedSeconds", seconds);
+        report.put("endpoints", endpoints);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.bankportal.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Argumente als "key=value" (wie die Overrides in den Benchmarks), z. B. rate=200 duration=2m.
+ * Schlüssel mit Präfix auth-service. bzw. account-service. gehen als Property an den jeweiligen Service.
+ */
+final class LoadOptions {
+
+    private final Map<String, String> values;
+
+    private LoadOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Argument ohne key=value: " + arg);
+            }
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return new LoadOptions(values);
+    }
+
+    String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    double getDouble(String key, double defaultValue) {
+        String value = values.get(key);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    /** 500ms, 30s, 2m; ohne Einheit Sekunden. */
+    Duration getDuration(String key, Duration defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    /** Alle Einträge mit dem Präfix, ohne Präfix (Properties für einen Service). */
+    Map<String, String> withPrefix(String prefix) {
+        Map<String, String> result = new LinkedHashMap<>();
+        values.forEach((key, value) -> {
+            if (key.startsWith(prefix)) {
+                result.put(key.substring(prefix.length()), value);
+            }
+        });
+        return result;
+    }
+
+    /** Für den Report: alle Argumente, wie übergeben. */
+    Map<String, String> asMap() {
+        return values;
+    }
+}
@@ -0,0 +1,195 @@
+package com.bankportal.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.bankportal.loadtest.BankClient.Response;
+import com.bankportal.loadtest.LatencyReport.Endpoint;
+import com.bankportal.loadtest.Workload.VirtualUser;
+
+/**
+ * Lastgenerator mit offener Last: Aufrufe starten in festem Takt (rate pro Sekunde), egal wie
+ * schnell die Services antworten. Staut es sich, wächst die Queue und damit die gemessene Latenz –
+ * genau das soll ein p99 unter Last zeigen. Ohne auth-url/account-url werden beide Services im
+ * selben Prozess gestartet (H2 oder jdbc.*-url auf eine lokale PostgreSQL).
+ *
+ * Ablauf: users Benutzer registrieren, anmelden und je ein Konto anlegen; warmup lang Last ohne
+ * Messung (JIT, Pools), dann duration lang messen. Ergebnis pro Endpunkt auf die Konsole und als JSON.
+ *
+ * mvn -f loadtest compile exec:exec -Dload.args="rate=200 duration=2m users=200 zipf=1.2"
+ */
+public final class LoadTest {
+
+    private static final String DEFAULT_MIX = "register:1,login:4,validate:45,transfer:50";
+    private static final long START_BALANCE_EURO = 1_000_000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        int rate = options.getInt("rate", 100);
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+        int userCount = options.getInt("users", 50);
+        int threads = options.getInt("threads", 64);
+        double exponent = options.getDouble("zipf", 1.1);
+        Map<Endpoint, Integer> mix = Workload.parseMix(options.get("mix", DEFAULT_MIX));
+        Path reportFile = Path.of(options.get("report", "target/loadtest-report.json"));
+        if (rate < 1 || userCount < 2) {
+            throw new IllegalArgumentException("rate >= 1 und users >= 2 erforderlich");
+        }
+
+        String authUrl = options.get("auth-url", null);
+        String accountUrl = options.get("account-url", null);
+        ServiceLauncher services = null;
+        if (authUrl == null || accountUrl == null) {
+            System.out.println("🚀 Starte auth-service und account-service im Prozess ...");
+            services = ServiceLauncher.start(options);
+            authUrl = services.authUrl();
+            accountUrl = services.accountUrl();
+        }
+        System.out.println("🎯 auth: " + authUrl + ", account: " + accountUrl);
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads());
+        try {
+            BankClient client = new BankClient(authUrl, accountUrl);
+            // Eindeutig pro Lauf, damit wiederholte Läufe gegen dieselbe DB nicht kollidieren
+            String runId = "lt" + Long.toString(System.currentTimeMillis(), 36);
+            List<VirtualUser> users = setUp(client, executor, runId, userCount);
+            Zipf zipf = new Zipf(users.size(), exponent);
+            Workload workload = new Workload(client, users, zipf, mix, runId);
+            System.out.printf("👥 %d Benutzer mit Konto; heißestes Konto erhält %.1f %% der Überweisungen%n",
+                    users.size(), zipf.hottestShare() * 100);
+
+            if (!warmup.isZero()) {
+                System.out.println("🔥 Warmup " + warmup.toSeconds() + " s mit " + rate + " req/s ...");
+                drive(workload, executor, rate, warmup, new LatencyReport());
+            }
+            System.out.println("📏 Messung " + duration.toSeconds() + " s mit " + rate + " req/s ...");
+            LatencyReport report = new LatencyReport();
+            long start = System.nanoTime();
+            drive(workload, executor, rate, duration, report);
+            // Erst wenn alle gestarteten Aufrufe zurück sind, ist die Messung vollständig
+            executor.shutdown();
+            if (!executor.awaitTermination(2, TimeUnit.MINUTES)) {
+                System.out.println("⚠️ Nach 2 Minuten noch offene Aufrufe – Ergebnis unvollständig");
+            }
+            long elapsed = System.nanoTime() - start;
+
+            report.print(elapsed);
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("rate", rate);
+            config.put("warmupSeconds", warmup.toSeconds());
+            config.put("durationSeconds", duration.toSeconds());
+            config.put("users", users.size());
+            config.put("threads", threads);
+            config.put("zipf", exponent);
+            config.put("mix", mix);
+            config.put("inProcess", services != null);
+            config.put("args", options.asMap());
+            report.writeJson(reportFile, elapsed, config);
+            System.out.println("\n📄 Report: " + reportFile.toAbsolutePath());
+        } finally {
+            executor.shutdownNow();
+            if (services != null) {
+                services.close();
+            }
+        }
+    }
+
+    /**
+     * Startet rate Aufrufe pro Sekunde bis zum Ende der Phase. Jeder Aufruf kennt seinen geplanten
+     * Start; hängen die Threads, läuft die Uhr in der Queue weiter.
+     */
+    private static void drive(Workload workload, ExecutorService executor, int rate, Duration phase,
+            LatencyReport report) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + phase.toNanos();
+        for (long intended = start; intended < end; intended += interval) {
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduled = intended;
+            Endpoint operation = workload.next();
+            executor.execute(() -> workload.execute(operation, scheduled, report));
+        }
+    }
+
+    /** Registrieren, anmelden, Konto anlegen – parallel, aber ohne Messung. */
+    private static List<VirtualUser> setUp(BankClient client, ExecutorService executor, String runId, int count)
+            throws InterruptedException, ExecutionException {
+        System.out.println("🧑 Lege " + count + " Benutzer an ...");
+        List<Callable<VirtualUser>> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String username = runId + "-" + i;
+            tasks.add(() -> createUser(client, username));
+        }
+        List<VirtualUser> users = new ArrayList<>();
+        for (Future<VirtualUser> future : executor.invokeAll(tasks)) {
+            users.add(future.get());
+        }
+        return users;
+    }
+
+    private static VirtualUser createUser(BankClient client, String username) throws InterruptedException {
+        Response registered = retry(() -> client.register(username, Workload.PASSWORD));
+        // 400: gibt es schon (z. B. nach einem abgebrochenen Lauf gegen dieselbe DB)
+        if (registered.status() != 201 && registered.status() != 400) {
+            throw new IllegalStateException("Registrierung von " + username + " fehlgeschlagen: " + registered);
+        }
+        Response login = retry(() -> client.login(username, Workload.PASSWORD));
+        if (login.status() != 200) {
+            throw new IllegalStateException("Login von " + username + " fehlgeschlagen: " + login);
+        }
+        BankClient.Tokens tokens = client.tokens(login);
+        Response account = client.createAccount(tokens.accessToken(), username, START_BALANCE_EURO);
+        if (account.status() != 200) {
+            throw new IllegalStateException("Konto für " + username + " nicht angelegt: " + account);
+        }
+        return new VirtualUser(username, Workload.PASSWORD, client.id(account), tokens);
+    }
+
+    /** 503 (Hashing ausgelastet) und 429 sind beim Anlegen kein Fehler, nur zu früh. */
+    private static Response retry(Callable<Response> call) throws InterruptedException {
+        Response response = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            try {
+                response = call.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            if (response.status() != 503 && response.status() != 429) {
+                return response;
+            }
+            Thread.sleep(200);
+        }
+        return response;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "load-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.bankportal.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.bankportal.accountservice.AccountServiceApplication;
+import com.bankportal.authservice.DemoApplication;
+
+/**
+ * Startet auth-service und account-service im selben Prozess auf freien Ports.
+ * Standard: je eine H2 In-Memory-DB. Mit jdbc.auth-url / jdbc.account-url (plus jdbc.user, jdbc.password)
+ * eine lokale PostgreSQL; die Tabellen legt Hibernate an.
+ *
+ * Beide Jars bringen eine application.properties mit (Docker-Hosts, SQL-Logging); welche gewinnt,
+ * hinge von der Classpath-Reihenfolge ab. Deshalb wird keine geladen (spring.config.name) und alles
+ * Nötige hier gesetzt; die übrigen Einstellungen haben Defaults im Code.
+ */
+final class ServiceLauncher implements AutoCloseable {
+
+    private final ConfigurableApplicationContext auth;
+    private final ConfigurableApplicationContext account;
+
+    private ServiceLauncher(ConfigurableApplicationContext auth, ConfigurableApplicationContext account) {
+        this.auth = auth;
+        this.account = account;
+    }
+
+    static ServiceLauncher start(LoadOptions options) {
+        Map<String, Object> authProps = common(options,
+                options.get("jdbc.auth-url", "jdbc:h2:mem:loadtest-auth;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"));
+        authProps.putAll(options.withPrefix("auth-service."));
+        ConfigurableApplicationContext auth = run(DemoApplication.class, authProps);
+
+        Map<String, Object> accountProps = common(options,
+                options.get("jdbc.account-url", "jdbc:h2:mem:loadtest-account;DB_CLOSE_DELAY=-1"));
+        // RS256 wie im Betrieb: Schlüssel aus dem JWKS des gerade gestarteten auth-service
+        accountProps.put("jwt.jwks-uri", "http://localhost:" + port(auth) + "/.well-known/jwks.json");
+        accountProps.put("jwt.revocation-uri", "http://localhost:" + port(auth) + "/api/auth/revocations");
+        accountProps.putAll(options.withPrefix("account-service."));
+        ConfigurableApplicationContext account;
+        try {
+            account = run(AccountServiceApplication.class, accountProps);
+        } catch (RuntimeException e) {
+            auth.close();
+            throw e;
+        }
+        return new ServiceLauncher(auth, account);
+    }
+
+    String authUrl() {
+        return "http://localhost:" + port(auth);
+    }
+
+    String accountUrl() {
+        return "http://localhost:" + port(account);
+    }
+
+    @Override
+    public void close() {
+        account.close();
+        auth.close();
+    }
+
+    private static Map<String, Object> common(LoadOptions options, String jdbcUrl) {
+        boolean postgres = jdbcUrl.startsWith("jdbc:postgresql:");
+        Map<String, Object> props = new HashMap<>();
+        props.put("spring.config.name", "loadtest");
+        props.put("server.port", "0");
+        props.put("spring.datasource.url", jdbcUrl);
+        props.put("spring.datasource.username", options.get("jdbc.user", postgres ? "admin" : "sa"));
+        props.put("spring.datasource.password", options.get("jdbc.password", postgres ? "admin" : ""));
+        props.put("spring.jpa.hibernate.ddl-auto", "update");
+        props.put("spring.jpa.open-in-view", "false");
+        props.put("spring.sql.init.mode", "never");
+        props.put("spring.data.redis.repositories.enabled", "false");
+        props.put("management.health.redis.enabled", "false");
+        props.put("logging.level.root", "warn");
+        props.put("logging.level.com.bankportal", "warn");
+        props.put("spring.main.banner-mode", "off");
+        return props;
+    }
+
+    private static ConfigurableApplicationContext run(Class<?> application, Map<String, Object> props) {
+        // Als Kommandozeilen-Argumente: höchste Priorität
+        String[] args = props.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(application).run(args);
+    }
+
+    private static String port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getProperty("local.server.port");
+    }
+}
@@ -0,0 +1,173 @@
+package com.bankportal.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.bankportal.loadtest.BankClient.Response;
+import com.bankportal.loadtest.BankClient.Tokens;
+import com.bankportal.loadtest.LatencyReport.Endpoint;
+
+/**
+ * Der Mix aus Register, Login, Validate und Transfer. Ziel einer Überweisung ist Zipf-verteilt
+ * (wenige heiße Konten), die Quelle gleichverteilt. Latenz zählt ab dem geplanten Start,
+ * also inklusive Wartezeit in der Queue des Generators (kein Coordinated Omission).
+ */
+final class Workload {
+
+    /** Ein angemeldeter Benutzer mit eigenem Konto; Tokens werden kurz vor Ablauf erneuert. */
+    static final class VirtualUser {
+        final String username;
+        final String password;
+        final long accountId;
+        final ReentrantLock refreshLock = new ReentrantLock();
+        volatile Tokens tokens;
+
+        VirtualUser(String username, String password, long accountId, Tokens tokens) {
+            this.username = username;
+            this.password = password;
+            this.accountId = accountId;
+            this.tokens = tokens;
+        }
+    }
+
+    static final Map<Endpoint, Integer> EXPECTED_STATUS = Map.of(
+            Endpoint.REGISTER, 201,
+            Endpoint.LOGIN, 200,
+            Endpoint.REFRESH, 200,
+            Endpoint.VALIDATE, 204,
+            Endpoint.TRANSFER, 200);
+
+    static final String PASSWORD = "Lasttest123!";
+
+    // Erneuern, bevor das Access Token im Flug abläuft
+    private static final long REFRESH_MARGIN = Duration.ofSeconds(60).toNanos();
+
+    private final BankClient client;
+    private final List<VirtualUser> users;
+    private final Zipf zipf;
+    private final Endpoint[] operations;
+    private final double[] cumulative;
+    private final String runId;
+    private final AtomicLong registered = new AtomicLong();
+
+    Workload(BankClient client, List<VirtualUser> users, Zipf zipf, Map<Endpoint, Integer> mix, String runId) {
+        this.client = client;
+        this.users = users;
+        this.zipf = zipf;
+        this.runId = runId;
+        this.operations = mix.keySet().toArray(Endpoint[]::new);
+        this.cumulative = new double[operations.length];
+        double total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        double sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]) / total;
+            cumulative[i] = sum;
+        }
+    }
+
+    /** "register:1,login:4,validate:45,transfer:50"; fehlende Endpunkte kommen nicht vor. */
+    static Map<Endpoint, Integer> parseMix(String spec) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Mix-Eintrag ohne name:gewicht: " + part);
+            }
+            Endpoint endpoint = Endpoint.valueOf(kv[0].trim().toUpperCase());
+            if (endpoint == Endpoint.REFRESH) {
+                throw new IllegalArgumentException("refresh ergibt sich aus der Token-Laufzeit, nicht aus dem Mix");
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                mix.put(endpoint, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Mix ist leer: " + spec);
+        }
+        return mix;
+    }
+
+    Endpoint next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (u < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /** Führt eine Operation aus; intendedStart in System.nanoTime(). */
+    void execute(Endpoint operation, long intendedStart, LatencyReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        VirtualUser user = users.get(random.nextInt(users.size()));
+        Response response = switch (operation) {
+            case REGISTER -> client.register(runId + "-r" + registered.incrementAndGet(), PASSWORD);
+            case LOGIN -> login(user);
+            case VALIDATE -> client.validate(accessToken(user, report));
+            case TRANSFER -> {
+                int to = zipf.next();
+                if (users.get(to) == user) {
+                    to = (to + 1) % users.size();
+                }
+                yield client.transfer(accessToken(user, report), user.accountId, users.get(to).accountId, 1);
+            }
+            case REFRESH -> throw new IllegalArgumentException("refresh ist keine eigene Operation");
+        };
+        record(report, operation, intendedStart, response);
+    }
+
+    private Response login(VirtualUser user) {
+        Response response = client.login(user.username, user.password);
+        // Nur übernehmen, wenn gerade kein Refresh läuft; sonst gewinnt dessen Paar
+        if (response.status() == 200 && user.refreshLock.tryLock()) {
+            try {
+                user.tokens = client.tokens(response);
+            } finally {
+                user.refreshLock.unlock();
+            }
+        }
+        return response;
+    }
+
+    private String accessToken(VirtualUser user, LatencyReport report) {
+        Tokens tokens = user.tokens;
+        if (tokens.expiresAt() - System.nanoTime() > REFRESH_MARGIN || !user.refreshLock.tryLock()) {
+            // Noch gültig, oder ein anderer Thread erneuert gerade: altes Token ist bis zum Ablauf gut
+            return tokens.accessToken();
+        }
+        try {
+            if (user.tokens != tokens) {
+                return user.tokens.accessToken();
+            }
+            long start = System.nanoTime();
+            Response refreshed = client.refresh(tokens.refreshToken());
+            record(report, Endpoint.REFRESH, start, refreshed);
+            if (refreshed.status() != 200) {
+                // Refresh Token verbraucht oder gesperrt: wie ein Client neu anmelden
+                refreshed = client.login(user.username, user.password);
+                if (refreshed.status() != 200) {
+                    return tokens.accessToken();
+                }
+            }
+            user.tokens = client.tokens(refreshed);
+            return user.tokens.accessToken();
+        } finally {
+            user.refreshLock.unlock();
+        }
+    }
+
+    private static void record(LatencyReport report, Endpoint endpoint, long start, Response response) {
+        if (response.status() == EXPECTED_STATUS.get(endpoint)) {
+            report.success(endpoint, System.nanoTime() - start);
+        } else {
+            report.failure(endpoint, response.status());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bankportal.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipf-Verteilung über die Ränge 0..n-1: P(k) ~ 1 / (k+1)^s. Rang 0 ist das heißeste Konto;
+ * s = 0 ist gleichverteilt, s um 1 entspricht typischen Händler-/Gehaltskonten.
+ * Kumulative Verteilung einmal vorberechnet, ein Zug ist eine Binärsuche.
+ */
+final class Zipf {
+
+    private final double[] cdf;
+
+    Zipf(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n muss mindestens 1 sein");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+        cdf[n - 1] = 1.0;
+    }
+
+    int next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        int index = Arrays.binarySearch(cdf, u);
+        return index >= 0 ? index : Math.min(-index - 1, cdf.length - 1);
+    }
+
+    /** Anteil der Züge auf Rang 0 (für den Report). */
+    double hottestShare() {
+        return cdf[0];
+    }
+}
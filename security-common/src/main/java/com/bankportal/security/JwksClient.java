@@ -0,0 +1,68 @@
+package com.bankportal.security;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+
+/**
+ * Lädt die öffentlichen Schlüssel (kid -> Schlüssel) vom JWKS-Endpunkt des Auth-Service.
+ * Quelle für {@link KidKeyLocator}; wird nur bei Bedarf aufgerufen, nicht pro Request.
+ */
+public final class JwksClient implements Supplier<Map<String, PublicKey>> {
+
+    private final HttpClient httpClient;
+    private final HttpRequest request;
+
+    public JwksClient(URI jwksUri, Duration timeout) {
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.request = HttpRequest.newBuilder(jwksUri)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    /**
+     * @throws IllegalStateException wenn der Endpunkt nicht erreichbar ist oder nicht mit 200 antwortet
+     */
+    @Override
+    public Map<String, PublicKey> get() {
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException("JWKS nicht erreichbar: " + request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("JWKS-Abruf unterbrochen", e);
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("JWKS antwortet mit Status " + response.statusCode());
+        }
+        return parse(response.body());
+    }
+
+    static Map<String, PublicKey> parse(String json) {
+        JwkSet set = Jwks.setParser().build().parse(json);
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (Jwk<?> jwk : set.getKeys()) {
+            Key key = jwk.toKey();
+            if (jwk.getId() != null && key instanceof PublicKey publicKey) {
+                keys.put(jwk.getId(), publicKey);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bankportal.security;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.crypto.SecretKey;
+
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Schlüssel aus der Konfiguration (jwt.secret). Nur beim Start aufrufen, nicht je Request.
+ */
+public final class JwtKeys {
+
+    private JwtKeys() {
+    }
+
+    /**
+     * HMAC-SHA-Schlüssel aus dem Secret (UTF-8). HS256 verlangt mindestens 32 Bytes.
+     * @throws IllegalArgumentException wenn das Secret fehlt oder zu kurz ist
+     */
+    public static SecretKey hmacSha(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("jwt.secret ist nicht gesetzt");
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < 32) {
+            throw new IllegalArgumentException("jwt.secret muss mindestens 32 Bytes lang sein");
+        }
+        return Keys.hmacShaKeyFor(bytes);
+    }
+}
@@ -0,0 +1,74 @@
+package com.bankportal.security;
+
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.crypto.SecretKey;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Stellt signierte JWTs aus: HS256 mit gemeinsamem Secret oder RS256 mit dem aktiven Schlüssel
+ * eines {@link KeyRing} (kid im Header). Der Schlüssel wird einmal im Konstruktor gebaut;
+ * die Instanz ist threadsicher.
+ */
+public final class JwtSigner {
+
+    private final Key key;
+    private final String keyId;
+    private final String issuer;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public JwtSigner(String secret, String issuer, Duration ttl) {
+        this(JwtKeys.hmacSha(secret), issuer, ttl, Clock.systemUTC());
+    }
+
+    public JwtSigner(SecretKey key, String issuer, Duration ttl, Clock clock) {
+        this(key, null, issuer, ttl, clock);
+    }
+
+    /** RS256 mit dem aktiven Schlüssel; der kid im Header verweist auf den Eintrag im JWKS. */
+    public JwtSigner(KeyRing keyRing, String issuer, Duration ttl) {
+        this(keyRing.activePrivateKey(), keyRing.activeKeyId(), issuer, ttl, Clock.systemUTC());
+    }
+
+    private JwtSigner(Key key, String keyId, String issuer, Duration ttl, Clock clock) {
+        this.key = key;
+        this.keyId = keyId;
+        this.issuer = issuer;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Token für subject mit zusätzlichen Claims (z. B. "roles"), gültig für die konfigurierte Dauer.
+     * Jedes Token bekommt eine zufällige jti, über die es vor Ablauf gesperrt werden kann.
+     */
+    public String sign(String subject, Map<String, ?> claims) {
+        Instant now = clock.instant();
+        JwtBuilder builder = Jwts.builder();
+        if (keyId != null) {
+            builder = builder.header().keyId(keyId).and();
+        }
+        return builder
+                .id(UUID.randomUUID().toString())
+                .subject(subject)
+                .issuer(issuer)
+                .claims(claims)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(ttl)))
+                .signWith(key)
+                .compact();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+}
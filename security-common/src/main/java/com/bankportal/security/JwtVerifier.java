@@ -0,0 +1,62 @@
+package com.bankportal.security;
+
+import java.security.Key;
+import java.time.Duration;
+
+import javax.crypto.SecretKey;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+
+/**
+ * Prüft signierte JWTs (Signatur, Ablauf). Schlüssel und Parser werden einmal im Konstruktor
+ * gebaut; der Parser ist unveränderlich und threadsicher, eine Instanz genügt für alle Requests.
+ * Mit einem {@link KidKeyLocator} wird der Schlüssel je Token über die kid gewählt (RS256/JWKS).
+ */
+public final class JwtVerifier {
+
+    private final JwtParser parser;
+
+    public JwtVerifier(String secret) {
+        this(JwtKeys.hmacSha(secret), Duration.ZERO);
+    }
+
+    /**
+     * @param clockSkew tolerierte Uhrabweichung zwischen den Services bei exp/nbf
+     */
+    public JwtVerifier(SecretKey key, Duration clockSkew) {
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .clockSkewSeconds(clockSkew.toSeconds())
+                .build();
+    }
+
+    public JwtVerifier(Locator<Key> keyLocator, Duration clockSkew) {
+        this.parser = Jwts.parser()
+                .keyLocator(keyLocator)
+                .clockSkewSeconds(clockSkew.toSeconds())
+                .build();
+    }
+
+    /**
+     * Claims eines gültigen Tokens.
+     * @throws JwtException wenn das Token ungültig, manipuliert oder abgelaufen ist
+     * @throws IllegalArgumentException wenn das Token leer ist
+     */
+    public Claims verify(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /** true, wenn {@link #verify(String)} ohne Exception durchläuft. */
+    public boolean isValid(String token) {
+        try {
+            verify(token);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.bankportal.security;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.InvalidKeyException;
+
+/**
+ * Findet den Prüfschlüssel zur kid im Token-Header. Die öffentlichen Schlüssel kommen aus einer
+ * Quelle (JWKS des Auth-Service oder der eigene {@link KeyRing}) und werden im Speicher gehalten.
+ *
+ * Neu geladen wird, wenn eine unbekannte kid auftaucht (Schlüsselrotation) oder die Schlüssel älter
+ * als maxAge sind, höchstens einmal pro minRefreshInterval, damit zufällige kids die Quelle nicht fluten.
+ * Scheitert das Laden, bleiben die bisherigen Schlüssel gültig.
+ *
+ * HS*-Tokens werden mit dem HMAC-Schlüssel geprüft, falls einer übergeben wurde (Übergang vom
+ * gemeinsamen Secret); ohne HMAC-Schlüssel werden sie abgelehnt.
+ */
+public final class KidKeyLocator extends LocatorAdapter<Key> {
+
+    private static final Logger log = LoggerFactory.getLogger(KidKeyLocator.class);
+
+    private final Supplier<Map<String, PublicKey>> source;
+    private final SecretKey hmacKey;
+    private final long maxAgeNanos;
+    private final long minRefreshIntervalNanos;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+    private long lastAttempt;
+    private boolean attempted;
+
+    public KidKeyLocator(Supplier<Map<String, PublicKey>> source, SecretKey hmacKey,
+            Duration maxAge, Duration minRefreshInterval) {
+        this.source = source;
+        this.hmacKey = hmacKey;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String algorithm = header.getAlgorithm();
+        if (algorithm != null && algorithm.startsWith("HS")) {
+            if (hmacKey == null) {
+                throw new UnsupportedJwtException("HMAC-signierte Tokens werden nicht akzeptiert");
+            }
+            return hmacKey;
+        }
+        String kid = header.getKeyId();
+        if (kid == null) {
+            throw new MalformedJwtException("Token ohne kid");
+        }
+        if (!loaded || System.nanoTime() - loadedAt > maxAgeNanos) {
+            refresh();
+        }
+        PublicKey key = keys.get(kid);
+        if (key == null && refresh()) {
+            key = keys.get(kid);
+        }
+        if (key == null) {
+            throw new InvalidKeyException("Unbekannter Signaturschlüssel (kid " + kid + ")");
+        }
+        return key;
+    }
+
+    /** Lädt die Schlüssel neu; false, wenn das Intervall noch nicht abgelaufen ist oder die Quelle scheitert. */
+    private synchronized boolean refresh() {
+        long now = System.nanoTime();
+        if (attempted && now - lastAttempt < minRefreshIntervalNanos) {
+            return false;
+        }
+        attempted = true;
+        lastAttempt = now;
+        try {
+            keys = Map.copyOf(source.get());
+            loadedAt = now;
+            loaded = true;
+            return true;
+        } catch (RuntimeException e) {
+            // Bisherige Schlüssel bleiben gültig
+            log.warn("❌ Signaturschlüssel konnten nicht geladen werden: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.bankportal.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für JwtSigner/JwtVerifier (ohne Spring).
+ */
+class JwtVerifierTest {
+
+    static final String SECRET = "mysecretkeymysecretkeymysecretkey123456";
+
+    final JwtSigner signer = new JwtSigner(SECRET, "auth-service", Duration.ofMinutes(5));
+    final JwtVerifier verifier = new JwtVerifier(SECRET);
+
+    @Test
+    void signiertesTokenWirdMitClaimsAkzeptiert() {
+        String token = signer.sign("alice", Map.of("roles", List.of("USER")));
+
+        Claims claims = verifier.verify(token);
+
+        assertEquals("alice", claims.getSubject());
+        assertEquals("auth-service", claims.getIssuer());
+        assertEquals(List.of("USER"), claims.get("roles"));
+        assertNotNull(claims.getId());
+        assertNotEquals(claims.getId(), verifier.verify(signer.sign("alice", Map.of())).getId());
+        assertTrue(verifier.isValid(token));
+    }
+
+    @Test
+    void fremderSchluesselUndManipulationWerdenAbgelehnt() {
+        String token = signer.sign("alice", Map.of());
+        JwtVerifier other = new JwtVerifier("einganzanderesgeheimnismitmindestens32bytes");
+
+        assertThrows(JwtException.class, () -> other.verify(token));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertFalse(verifier.isValid(tampered));
+        assertFalse(verifier.isValid("invalid.jwt.token"));
+        assertFalse(verifier.isValid(""));
+    }
+
+    @Test
+    void abgelaufenesTokenWirdAbgelehnt() {
+        Clock past = Clock.fixed(Instant.now().minus(Duration.ofHours(1)), ZoneOffset.UTC);
+        String token = new JwtSigner(JwtKeys.hmacSha(SECRET), "auth-service", Duration.ofMinutes(5), past)
+                .sign("alice", Map.of());
+
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token));
+        // Mit genug Toleranz für Uhrabweichung noch gültig
+        assertTrue(new JwtVerifier(JwtKeys.hmacSha(SECRET), Duration.ofHours(2)).isValid(token));
+    }
+
+    @Test
+    void zuKurzesSecretWirdBeimStartAbgelehnt() {
+        assertThrows(IllegalArgumentException.class, () -> new JwtVerifier("zu-kurz"));
+        assertThrows(IllegalArgumentException.class, () -> new JwtVerifier(" "));
+    }
+}